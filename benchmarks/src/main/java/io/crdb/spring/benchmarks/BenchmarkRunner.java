@@ -0,0 +1,54 @@
+package io.crdb.spring.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Entry point of {@code benchmarks.jar}.  Accepts the usual JMH command line (e.g. {@code -f 3 -wi 5 ExceptionChecker})
+ * but, unless overridden with {@code -rf}/{@code -rff}/{@code -prof}, writes JSON results to
+ * {@code jmh-result-<version>.json} and runs the GC profiler so allocation regressions show up next to latency ones.
+ */
+public final class BenchmarkRunner {
+
+    private BenchmarkRunner() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        CommandLineOptions commandLine = new CommandLineOptions(args);
+
+        if (commandLine.shouldHelp()) {
+            commandLine.showHelp();
+            return;
+        }
+
+        if (commandLine.shouldList()) {
+            new Runner(commandLine).list();
+            return;
+        }
+
+        ChainedOptionsBuilder options = new OptionsBuilder().parent(commandLine);
+
+        if (!commandLine.getResultFormat().hasValue()) {
+            options.resultFormat(ResultFormatType.JSON);
+        }
+
+        if (!commandLine.getResult().hasValue()) {
+            options.result(resultFile());
+        }
+
+        if (commandLine.getProfilers().isEmpty()) {
+            options.addProfiler(GCProfiler.class);
+        }
+
+        new Runner(options.build()).run();
+    }
+
+    static String resultFile() {
+        String version = BenchmarkRunner.class.getPackage().getImplementationVersion();
+        return "jmh-result-" + (version != null ? version : "dev") + ".json";
+    }
+}
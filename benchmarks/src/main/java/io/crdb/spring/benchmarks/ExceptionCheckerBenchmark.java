@@ -0,0 +1,70 @@
+package io.crdb.spring.benchmarks;
+
+import io.crdb.spring.common.ExceptionChecker;
+import io.crdb.spring.common.PostgresRetryClassifier;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.retry.RetryPolicy;
+
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-call cost of exception classification, which runs on every failed attempt.  {@code gc.alloc.rate.norm} should
+ * stay at ~0 B/op for every benchmark.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ExceptionCheckerBenchmark {
+
+    private ExceptionChecker exceptionChecker;
+    private PostgresRetryClassifier classifier;
+
+    private SQLException serializationFailure;
+    private RuntimeException wrappedSerializationFailure;
+    private SQLException uniqueViolation;
+
+    @Setup
+    public void setUp() {
+        exceptionChecker = new ExceptionChecker();
+        classifier = new PostgresRetryClassifier(exceptionChecker);
+
+        serializationFailure = new SQLException("restart transaction", "40001");
+        // shaped like a translated driver exception thrown through a Spring proxy
+        wrappedSerializationFailure = new RuntimeException(new CannotAcquireLockException("update failed", serializationFailure));
+        uniqueViolation = new SQLException("duplicate key value", "23505");
+    }
+
+    @Benchmark
+    public boolean shouldRetrySerializationFailure() {
+        return exceptionChecker.shouldRetry(serializationFailure);
+    }
+
+    @Benchmark
+    public boolean shouldRetryWrappedSerializationFailure() {
+        return exceptionChecker.shouldRetry(wrappedSerializationFailure);
+    }
+
+    @Benchmark
+    public boolean shouldRetryUniqueViolation() {
+        return exceptionChecker.shouldRetry(uniqueViolation);
+    }
+
+    @Benchmark
+    public RetryPolicy classifyWrappedSerializationFailure() {
+        return classifier.classify(wrappedSerializationFailure);
+    }
+}
@@ -0,0 +1,169 @@
+package io.crdb.spring.benchmarks;
+
+import io.crdb.spring.common.UserDTO;
+
+import javax.sql.RowSetMetaData;
+import javax.sql.rowset.CachedRowSet;
+import javax.sql.rowset.RowSetMetaDataImpl;
+import javax.sql.rowset.RowSetProvider;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * In-memory JDBC objects so the mappers can be measured without a database.  They add a constant per-call overhead
+ * (row set column lookup, proxy dispatch) that is the same from release to release, so changes in the results still
+ * point at the mapping code.
+ */
+final class JdbcStubs {
+
+    private static final String[] COLUMNS = {"id", "first_name", "last_name", "email", "address", "city", "state_code",
+            "zip_code", "created_timestamp", "updated_timestamp"};
+
+    private JdbcStubs() {
+    }
+
+    /**
+     * A {@link CachedRowSet} with the columns of the user tables, positioned before the first row.  {@code id} holds
+     * {@link UUID} objects, as the driver returns for a {@code uuid} column.
+     */
+    static CachedRowSet resultSet(List<UserDTO> users) throws SQLException {
+        RowSetMetaData metaData = new RowSetMetaDataImpl();
+        metaData.setColumnCount(COLUMNS.length);
+
+        for (int i = 0; i < COLUMNS.length; i++) {
+            metaData.setColumnName(i + 1, COLUMNS[i]);
+            metaData.setColumnType(i + 1, i == 0 ? Types.OTHER : i < 8 ? Types.VARCHAR : Types.TIMESTAMP);
+            metaData.setNullable(i + 1, ResultSetMetaData.columnNullable);
+        }
+
+        CachedRowSet rowSet = RowSetProvider.newFactory().createCachedRowSet();
+        rowSet.setMetaData(metaData);
+
+        for (UserDTO user : users) {
+            rowSet.moveToInsertRow();
+            rowSet.updateObject(1, user.id());
+            rowSet.updateString(2, user.firstName());
+            rowSet.updateString(3, user.lastName());
+            rowSet.updateString(4, user.email());
+            rowSet.updateString(5, user.address());
+            rowSet.updateString(6, user.city());
+            rowSet.updateString(7, user.stateCode());
+            rowSet.updateString(8, user.zipCode());
+            rowSet.updateTimestamp(9, user.createdTimestamp() != null ? Timestamp.from(user.createdTimestamp().toInstant()) : null);
+            rowSet.updateTimestamp(10, user.updatedTimestamp() != null ? Timestamp.from(user.updatedTimestamp().toInstant()) : null);
+            rowSet.insertRow();
+            rowSet.moveToCurrentRow();
+        }
+
+        rowSet.beforeFirst();
+        return withTypedGetObject(rowSet);
+    }
+
+    /**
+     * A {@link PreparedStatement} that keeps the last value bound to each parameter and ignores everything else.
+     */
+    static PreparedStatement preparedStatement(Object[] parameters) {
+        return (PreparedStatement) Proxy.newProxyInstance(JdbcStubs.class.getClassLoader(), new Class<?>[]{PreparedStatement.class},
+                (proxy, method, args) -> {
+                    if (method.getName().startsWith("set") && args != null && args.length == 2 && args[0] instanceof Integer index) {
+                        parameters[index - 1] = args[1];
+                    }
+
+                    Class<?> returnType = method.getReturnType();
+
+                    if (returnType == boolean.class) {
+                        return false;
+                    }
+                    if (returnType == int.class) {
+                        return 0;
+                    }
+                    if (returnType == long.class) {
+                        return 0L;
+                    }
+                    return null;
+                });
+    }
+
+    /**
+     * A {@link PreparedStatement} that encodes each bound value roughly the way the PostgreSQL driver puts it on the
+     * wire and keeps the bytes: a string as UTF-8 text, a {@link UUID} as its 16 bytes in binary format.
+     */
+    static PreparedStatement encodingStatement(Object[] parameters) {
+        return (PreparedStatement) Proxy.newProxyInstance(JdbcStubs.class.getClassLoader(), new Class<?>[]{PreparedStatement.class},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "setString" -> parameters[(int) args[0] - 1] = ((String) args[1]).getBytes(StandardCharsets.UTF_8);
+                        case "setObject" -> parameters[(int) args[0] - 1] = args[1] instanceof UUID uuid ? toBytes(uuid) : args[1];
+                        case "setNull" -> parameters[(int) args[0] - 1] = null;
+                        default -> {
+                        }
+                    }
+                    return null;
+                });
+    }
+
+    /**
+     * A {@link ResultSet} over a single {@code uuid} column that decodes each value from the bytes the driver would
+     * receive: {@code getString} from the 36 character text format, {@code getObject(1, UUID.class)} from the 16 byte
+     * binary format the driver uses once a statement is server-prepared.  Supports {@code next}, {@code beforeFirst},
+     * {@code getString(int)} and {@code getObject(int, Class)}.
+     */
+    static ResultSet uuidResultSet(UUID[] ids) {
+        byte[][] text = new byte[ids.length][];
+        byte[][] binary = new byte[ids.length][];
+
+        for (int i = 0; i < ids.length; i++) {
+            text[i] = ids[i].toString().getBytes(StandardCharsets.US_ASCII);
+            binary[i] = toBytes(ids[i]);
+        }
+
+        int[] row = {-1};
+
+        return (ResultSet) Proxy.newProxyInstance(JdbcStubs.class.getClassLoader(), new Class<?>[]{ResultSet.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "next" -> ++row[0] < ids.length;
+                    case "beforeFirst" -> {
+                        row[0] = -1;
+                        yield null;
+                    }
+                    case "getString" -> new String(text[row[0]], StandardCharsets.US_ASCII);
+                    case "getObject" -> {
+                        ByteBuffer buffer = ByteBuffer.wrap(binary[row[0]]);
+                        yield new UUID(buffer.getLong(), buffer.getLong());
+                    }
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+    }
+
+    private static byte[] toBytes(UUID uuid) {
+        return ByteBuffer.allocate(16).putLong(uuid.getMostSignificantBits()).putLong(uuid.getLeastSignificantBits()).array();
+    }
+
+    // CachedRowSetImpl throws SQLFeatureNotSupportedException from getObject(column, Class), which the mappers use to
+    // read uuid columns, so answer it from getObject(column)
+    private static CachedRowSet withTypedGetObject(CachedRowSet rowSet) {
+        return (CachedRowSet) Proxy.newProxyInstance(JdbcStubs.class.getClassLoader(), new Class<?>[]{CachedRowSet.class},
+                (proxy, method, args) -> {
+                    if (method.getName().equals("getObject") && args != null && args.length == 2 && args[1] instanceof Class<?> type) {
+                        Object value = args[0] instanceof Integer index ? rowSet.getObject(index) : rowSet.getObject((String) args[0]);
+                        return type.cast(value);
+                    }
+
+                    try {
+                        return method.invoke(rowSet, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                });
+    }
+}
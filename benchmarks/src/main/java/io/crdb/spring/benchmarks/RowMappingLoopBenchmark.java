@@ -0,0 +1,59 @@
+package io.crdb.spring.benchmarks;
+
+import com.github.javafaker.Faker;
+import io.crdb.spring.common.UserDTO;
+import io.crdb.spring.common.UserDTOBuilder;
+import io.crdb.spring.common.UserJdbcMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.sql.rowset.CachedRowSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The datasource {@code UserService.selectUsers} loop, which maps a whole result into a list, for result sizes around
+ * {@code demo.fetch.size} and well above it.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RowMappingLoopBenchmark {
+
+    @Param({"256", "4096"})
+    private int rows;
+
+    private CachedRowSet resultSet;
+
+    @Setup
+    public void setUp() throws SQLException {
+        resultSet = JdbcStubs.resultSet(new UserDTOBuilder(new Faker()).buildUsers(rows));
+    }
+
+    @Benchmark
+    public List<UserDTO> selectUsers() throws SQLException {
+        resultSet.beforeFirst();
+
+        List<UserDTO> users = new ArrayList<>();
+
+        while (resultSet.next()) {
+            users.add(UserJdbcMapper.fromResultSet(resultSet));
+        }
+
+        return users;
+    }
+}
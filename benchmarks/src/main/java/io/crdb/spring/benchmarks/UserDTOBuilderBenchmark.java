@@ -0,0 +1,52 @@
+package io.crdb.spring.benchmarks;
+
+import com.github.javafaker.Faker;
+import io.crdb.spring.common.UserDTO;
+import io.crdb.spring.common.UserDTOBuilder;
+import io.crdb.spring.common.UserGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.ZonedDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of generating one row of test data, which bounds how fast the runners can feed inserts: Faker per row against
+ * the dictionary-based {@link UserGenerator}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UserDTOBuilderBenchmark {
+
+    private UserDTOBuilder userDTOBuilder;
+    private UserGenerator userGenerator;
+    private long row;
+
+    @Setup
+    public void setUp() {
+        userDTOBuilder = new UserDTOBuilder(new Faker());
+        userGenerator = UserGenerator.fromFaker(new Faker(), 1000, 42, ZonedDateTime.now());
+    }
+
+    @Benchmark
+    public UserDTO buildUser() {
+        return userDTOBuilder.buildUser();
+    }
+
+    @Benchmark
+    public UserDTO generateUser() {
+        return userGenerator.user(row++);
+    }
+}
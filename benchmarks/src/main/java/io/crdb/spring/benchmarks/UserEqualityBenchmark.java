@@ -0,0 +1,123 @@
+package io.crdb.spring.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.ZonedDateTime;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@code equals} and {@code hashCode} of the JPA {@code io.crdb.spring.User} entity, which Hibernate calls when
+ * entities are put in sets and maps (e.g. during dirty checking of a large persistence context).  The copies are
+ * distinct instances with equal fields so that {@code equals} compares every field instead of short-circuiting on
+ * identity.
+ * <p>
+ * {@link User} is a copy of the entity's fields, {@code equals} and {@code hashCode}: depending on the {@code jpa}
+ * module would put its Spring Boot executable jar, and Hibernate, on this module's classpath.  Keep the two in step.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UserEqualityBenchmark {
+
+    private User user;
+    private User copy;
+    private User updated;
+
+    @Setup
+    public void setUp() {
+        UUID id = UUID.randomUUID();
+        ZonedDateTime created = ZonedDateTime.now();
+
+        user = user(id, created, null);
+        copy = user(id, created, null);
+        updated = user(id, created, created.plusSeconds(1));
+    }
+
+    @Benchmark
+    public boolean equalsCopy() {
+        return user.equals(copy);
+    }
+
+    @Benchmark
+    public boolean equalsUpdated() {
+        return user.equals(updated);
+    }
+
+    @Benchmark
+    public int hashCodeUser() {
+        return user.hashCode();
+    }
+
+    // new String(...) so that equal fields are not the same interned instance
+    private static User user(UUID id, ZonedDateTime created, ZonedDateTime updated) {
+        return new User(new UUID(id.getMostSignificantBits(), id.getLeastSignificantBits()), new String("Jane"), new String("Doe"),
+                new String("jane.doe@example.com"), new String("1 Main St"), new String("Springfield"), new String("IL"),
+                new String("62701"), created, updated);
+    }
+
+    static final class User {
+        private final UUID id;
+        private final String firstName;
+        private final String lastName;
+        private final String email;
+        private final String address;
+        private final String city;
+        private final String stateCode;
+        private final String zipCode;
+        private final ZonedDateTime createdTimestamp;
+        private final ZonedDateTime updatedTimestamp;
+
+        User(UUID id, String firstName, String lastName, String email, String address, String city, String stateCode, String zipCode, ZonedDateTime createdTimestamp, ZonedDateTime updatedTimestamp) {
+            this.id = id;
+            this.firstName = firstName;
+            this.lastName = lastName;
+            this.email = email;
+            this.address = address;
+            this.city = city;
+            this.stateCode = stateCode;
+            this.zipCode = zipCode;
+            this.createdTimestamp = createdTimestamp;
+            this.updatedTimestamp = updatedTimestamp;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            User user = (User) o;
+            return Objects.equals(id, user.id) &&
+                    Objects.equals(firstName, user.firstName) &&
+                    Objects.equals(lastName, user.lastName) &&
+                    Objects.equals(email, user.email) &&
+                    Objects.equals(address, user.address) &&
+                    Objects.equals(city, user.city) &&
+                    Objects.equals(stateCode, user.stateCode) &&
+                    Objects.equals(zipCode, user.zipCode) &&
+                    Objects.equals(createdTimestamp, user.createdTimestamp) &&
+                    Objects.equals(updatedTimestamp, user.updatedTimestamp);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(id, firstName, lastName, email, address, city, stateCode, zipCode, createdTimestamp, updatedTimestamp);
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package io.crdb.spring.benchmarks;
+
+import com.github.javafaker.Faker;
+import io.crdb.spring.common.UserDTO;
+import io.crdb.spring.common.UserDTOBuilder;
+import io.crdb.spring.common.UserJdbcMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.sql.rowset.CachedRowSet;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link UserJdbcMapper}, which the jdbc-template {@code UserService} uses to bind every inserted row and to map every
+ * selected one.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UserJdbcMapperBenchmark {
+
+    private final Object[] parameters = new Object[10];
+
+    private UserDTO user;
+    private PreparedStatement preparedStatement;
+    private CachedRowSet resultSet;
+
+    @Setup
+    public void setUp() throws SQLException {
+        List<UserDTO> users = new UserDTOBuilder(new Faker()).buildUsers(1);
+
+        user = users.get(0);
+        preparedStatement = JdbcStubs.preparedStatement(parameters);
+        resultSet = JdbcStubs.resultSet(users);
+    }
+
+    @Benchmark
+    public Object[] mapUserToStatement() throws SQLException {
+        UserJdbcMapper.toStatement(preparedStatement, user);
+        return parameters;
+    }
+
+    @Benchmark
+    public UserDTO getUserFromResultSet() throws SQLException {
+        resultSet.absolute(1);
+        return UserJdbcMapper.fromResultSet(resultSet);
+    }
+}
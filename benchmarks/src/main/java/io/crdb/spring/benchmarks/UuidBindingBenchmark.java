@@ -0,0 +1,96 @@
+package io.crdb.spring.benchmarks;
+
+import io.crdb.spring.common.JdbcTypes;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Binding and reading a {@code uuid} key per row as a string ({@code setString(id.toString())},
+ * {@code UUID.fromString(getString(...))}) against the native {@link JdbcTypes} path.  Results are per row; the GC
+ * profiler that {@link BenchmarkRunner} adds reports the allocation per row as {@code gc.alloc.rate.norm}.  The stubs
+ * do the encoding and decoding the driver would do, so the difference includes the driver's share of the work.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UuidBindingBenchmark {
+
+    private static final int ROWS = 1024;
+
+    private final Object[] parameters = new Object[1];
+
+    private UUID[] ids;
+    private PreparedStatement preparedStatement;
+    private ResultSet resultSet;
+
+    @Setup
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(42);
+
+        ids = new UUID[ROWS];
+        for (int i = 0; i < ROWS; i++) {
+            ids[i] = new UUID(random.nextLong(), random.nextLong());
+        }
+
+        preparedStatement = JdbcStubs.encodingStatement(parameters);
+        resultSet = JdbcStubs.uuidResultSet(ids);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public Object[] bindAsString() throws SQLException {
+        for (UUID id : ids) {
+            preparedStatement.setString(1, id.toString());
+        }
+        return parameters;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public Object[] bindNative() throws SQLException {
+        for (UUID id : ids) {
+            JdbcTypes.setUuid(preparedStatement, 1, id);
+        }
+        return parameters;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void readAsString(Blackhole blackhole) throws SQLException {
+        resultSet.beforeFirst();
+
+        while (resultSet.next()) {
+            blackhole.consume(UUID.fromString(resultSet.getString(1)));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void readNative(Blackhole blackhole) throws SQLException {
+        resultSet.beforeFirst();
+
+        while (resultSet.next()) {
+            blackhole.consume(JdbcTypes.getUuid(resultSet, 1));
+        }
+    }
+}
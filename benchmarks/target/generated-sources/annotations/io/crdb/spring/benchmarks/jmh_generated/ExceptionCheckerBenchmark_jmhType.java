@@ -0,0 +1,4 @@
+package io.crdb.spring.benchmarks.jmh_generated;
+public class ExceptionCheckerBenchmark_jmhType extends ExceptionCheckerBenchmark_jmhType_B3 {
+}
+
@@ -0,0 +1,4 @@
+package io.crdb.spring.benchmarks.jmh_generated;
+public class RowMappingLoopBenchmark_jmhType extends RowMappingLoopBenchmark_jmhType_B3 {
+}
+
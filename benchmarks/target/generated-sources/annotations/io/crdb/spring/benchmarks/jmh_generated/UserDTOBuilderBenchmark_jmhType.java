@@ -0,0 +1,4 @@
+package io.crdb.spring.benchmarks.jmh_generated;
+public class UserDTOBuilderBenchmark_jmhType extends UserDTOBuilderBenchmark_jmhType_B3 {
+}
+
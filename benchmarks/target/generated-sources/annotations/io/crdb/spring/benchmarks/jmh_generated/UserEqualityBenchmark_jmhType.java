@@ -0,0 +1,4 @@
+package io.crdb.spring.benchmarks.jmh_generated;
+public class UserEqualityBenchmark_jmhType extends UserEqualityBenchmark_jmhType_B3 {
+}
+
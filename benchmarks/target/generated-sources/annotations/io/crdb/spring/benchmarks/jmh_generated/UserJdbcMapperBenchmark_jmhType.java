@@ -0,0 +1,4 @@
+package io.crdb.spring.benchmarks.jmh_generated;
+public class UserJdbcMapperBenchmark_jmhType extends UserJdbcMapperBenchmark_jmhType_B3 {
+}
+
@@ -0,0 +1,4 @@
+package io.crdb.spring.benchmarks.jmh_generated;
+public class UuidBindingBenchmark_jmhType extends UuidBindingBenchmark_jmhType_B3 {
+}
+
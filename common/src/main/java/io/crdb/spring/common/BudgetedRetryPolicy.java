@@ -0,0 +1,55 @@
+package io.crdb.spring.common;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.retry.RetryContext;
+import org.springframework.retry.RetryPolicy;
+
+/**
+ * Wraps a {@link RetryPolicy} so that retries also have to be paid for from a shared {@link RetryBudget}.  The
+ * delegate still decides whether an error is retryable and how many attempts it gets; when it would retry but the
+ * budget is empty the context is marked exhausted and the last error is rethrown.
+ */
+public class BudgetedRetryPolicy implements RetryPolicy {
+
+    private static final Logger logger = LoggerFactory.getLogger(BudgetedRetryPolicy.class);
+
+    private final RetryPolicy delegate;
+    private final RetryBudget budget;
+
+    public BudgetedRetryPolicy(RetryPolicy delegate, RetryBudget budget) {
+        this.delegate = delegate;
+        this.budget = budget;
+    }
+
+    @Override
+    public boolean canRetry(RetryContext context) {
+        return !context.isExhaustedOnly() && delegate.canRetry(context);
+    }
+
+    @Override
+    public RetryContext open(RetryContext parent) {
+        budget.recordCall();
+        return delegate.open(parent);
+    }
+
+    @Override
+    public void close(RetryContext context) {
+        delegate.close(context);
+    }
+
+    @Override
+    public void registerThrowable(RetryContext context, Throwable throwable) {
+        delegate.registerThrowable(context, throwable);
+
+        if (throwable != null && delegate.canRetry(context) && !budget.tryAcquireRetry()) {
+            logger.debug("retry budget exhausted, shedding retry {} for [{}]", context.getRetryCount(), throwable.getMessage());
+            context.setExhaustedOnly();
+        }
+    }
+
+    @Override
+    public int getMaxAttempts() {
+        return delegate.getMaxAttempts();
+    }
+}
@@ -0,0 +1,76 @@
+package io.crdb.spring.common;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Records how far each key range of a chunked job has got in the {@value #TABLE} table.  Checkpoints are written on
+ * the caller's connection so they commit in the same transaction as the chunk they describe; a chunk and its
+ * checkpoint either both commit or neither does.  Checkpoints are keyed by the number of ranges as well as the range,
+ * so a job restarted with a different number of threads starts over rather than misreading another split.
+ * <pre>
+ * CREATE TABLE IF NOT EXISTS job_checkpoints
+ * (
+ *     job         varchar(100) NOT NULL,
+ *     range_count int          NOT NULL,
+ *     range_index int          NOT NULL,
+ *     last_key    uuid         NOT NULL,
+ *     updated_at  timestamp    NOT NULL,
+ *     PRIMARY KEY (job, range_count, range_index)
+ * );
+ * </pre>
+ */
+public class CheckpointStore {
+
+    public static final String TABLE = "job_checkpoints";
+
+    static final String LOAD_SQL = "SELECT range_index, last_key FROM " + TABLE + " WHERE job = ? AND range_count = ?";
+    static final String SAVE_SQL = "UPSERT INTO " + TABLE
+            + " (job, range_count, range_index, last_key, updated_at) VALUES (?, ?, ?, ?, now())";
+    static final String CLEAR_SQL = "DELETE FROM " + TABLE + " WHERE job = ?";
+
+    /**
+     * Returns the last committed key of each range of {@code job} that has one, by range index.
+     */
+    public Map<Integer, UUID> load(Connection conn, String job, int rangeCount) throws SQLException {
+        Map<Integer, UUID> checkpoints = new HashMap<>();
+
+        try (PreparedStatement ps = conn.prepareStatement(LOAD_SQL)) {
+            ps.setString(1, job);
+            ps.setInt(2, rangeCount);
+
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    checkpoints.put(rs.getInt(1), JdbcTypes.getUuid(rs, 2));
+                }
+            }
+        }
+
+        return checkpoints;
+    }
+
+    public void save(Connection conn, String job, int rangeCount, int range, UUID lastKey) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement(SAVE_SQL)) {
+            ps.setString(1, job);
+            ps.setInt(2, rangeCount);
+            ps.setInt(3, range);
+            JdbcTypes.setUuid(ps, 4, lastKey);
+            ps.executeUpdate();
+        }
+    }
+
+    /**
+     * Forgets every checkpoint of {@code job}, so the next run starts at the beginning of the table.
+     */
+    public void clear(Connection conn, String job) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement(CLEAR_SQL)) {
+            ps.setString(1, job);
+            ps.executeUpdate();
+        }
+    }
+}
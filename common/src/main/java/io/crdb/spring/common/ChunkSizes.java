@@ -0,0 +1,31 @@
+package io.crdb.spring.common;
+
+import java.time.Duration;
+
+/**
+ * Adapts the size of the next chunk of a chunked job to how long the last one took, shared by {@link ChunkedDeleter}
+ * and {@link ChunkedUpdater}.
+ */
+final class ChunkSizes {
+
+    private ChunkSizes() {
+    }
+
+    /**
+     * Halves the chunk size when a chunk ran over {@code budget} and grows it by a quarter when it took less than half
+     * the budget, keeping it between {@code min} and {@code max}.
+     */
+    static int next(int chunkSize, long chunkNanos, int min, int max, Duration budget) {
+        long budgetNanos = budget.toNanos();
+
+        if (chunkNanos > budgetNanos) {
+            return Math.max(min, chunkSize / 2);
+        }
+
+        if (chunkNanos < budgetNanos / 2) {
+            return Math.min(max, chunkSize + Math.max(1, chunkSize / 4));
+        }
+
+        return chunkSize;
+    }
+}
@@ -0,0 +1,20 @@
+package io.crdb.spring.common;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.retry.support.RetryTemplate;
+
+@Configuration(proxyBeanMethods = false)
+@EnableConfigurationProperties(ChunkedDeleteProperties.class)
+public class ChunkedDeleteConfiguration {
+
+    @Bean
+    public ChunkedDeleter chunkedDeleter(ChunkedDeleteProperties properties, RetryTemplate retryTemplate,
+                                         ObjectProvider<MeterRegistry> meterRegistry) {
+        return new ChunkedDeleter(properties, retryTemplate, meterRegistry.getIfAvailable(() -> Metrics.globalRegistry));
+    }
+}
@@ -0,0 +1,36 @@
+package io.crdb.spring.common;
+
+import org.springframework.dao.UncategorizedDataAccessException;
+
+import java.util.UUID;
+
+/**
+ * Thrown when a {@link ChunkedDeleter} chunk fails after its retries.  Every earlier chunk has committed; pass
+ * {@link #resumeAfter()} back to {@link ChunkedDeleter#delete(javax.sql.DataSource, String, String, UUID)} to carry
+ * on from the failed chunk instead of starting over.
+ */
+public class ChunkedDeleteException extends UncategorizedDataAccessException {
+
+    private final UUID resumeAfter;
+    private final long deleted;
+
+    public ChunkedDeleteException(String msg, Throwable cause, UUID resumeAfter, long deleted) {
+        super(msg, cause);
+        this.resumeAfter = resumeAfter;
+        this.deleted = deleted;
+    }
+
+    /**
+     * Last key of the last committed chunk, or {@code null} if no chunk committed.
+     */
+    public UUID resumeAfter() {
+        return resumeAfter;
+    }
+
+    /**
+     * Rows deleted by the committed chunks.
+     */
+    public long deleted() {
+        return deleted;
+    }
+}
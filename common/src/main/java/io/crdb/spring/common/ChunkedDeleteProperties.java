@@ -0,0 +1,33 @@
+package io.crdb.spring.common;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Settings for {@link ChunkedDeleter}.
+ *
+ * @param chunkSize     rows deleted by the first chunk
+ * @param minChunkSize  smallest chunk the deleter shrinks to when chunks run over the latency budget
+ * @param maxChunkSize  largest chunk the deleter grows to when chunks finish well within the budget
+ * @param latencyBudget target time for one chunk, long chunks hold locks and are more likely to be aborted
+ * @param rowsPerSecond upper bound on the delete rate so foreground traffic keeps its share, {@code 0} for none
+ */
+@ConfigurationProperties("demo.delete")
+public record ChunkedDeleteProperties(@DefaultValue("1000") int chunkSize,
+                                      @DefaultValue("100") int minChunkSize,
+                                      @DefaultValue("10000") int maxChunkSize,
+                                      @DefaultValue("250ms") Duration latencyBudget,
+                                      @DefaultValue("0") double rowsPerSecond) {
+
+    public ChunkedDeleteProperties {
+        if (minChunkSize < 1 || minChunkSize > chunkSize || chunkSize > maxChunkSize) {
+            throw new IllegalArgumentException("chunk sizes must satisfy 1 <= min <= initial <= max but were "
+                    + minChunkSize + ", " + chunkSize + " and " + maxChunkSize);
+        }
+        if (rowsPerSecond < 0) {
+            throw new IllegalArgumentException("rowsPerSecond must not be negative but was " + rowsPerSecond);
+        }
+    }
+}
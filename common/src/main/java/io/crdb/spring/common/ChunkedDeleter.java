@@ -0,0 +1,190 @@
+package io.crdb.spring.common;
+
+import com.google.common.util.concurrent.RateLimiter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.retry.support.RetryTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Deletes the rows of a table matching a predicate in small chunks, each committed on its own.  A single unbounded
+ * {@code DELETE} on a large table is one long transaction that holds locks on every row it touches, is likely to be
+ * aborted by contention and is then retried from scratch.  Each chunk here is
+ * {@code DELETE ... WHERE <predicate> AND id > ? ORDER BY id LIMIT n RETURNING id}, so it walks the table in primary
+ * key order, is retried on its own and records the last key it deleted.  A chunk that fails after its retries throws a
+ * {@link ChunkedDeleteException} carrying that key so the job can resume where it stopped.
+ * <p>
+ * The chunk size adapts to {@code demo.delete.latency-budget}: it halves when a chunk runs over and grows by a quarter
+ * when a chunk takes less than half the budget.  {@code demo.delete.rows-per-second} additionally caps the rate.
+ * Rows that start matching the predicate behind the current key while the job runs are left for the next run.
+ */
+public class ChunkedDeleter {
+
+    private static final Logger logger = LoggerFactory.getLogger(ChunkedDeleter.class);
+
+    private static final long PROGRESS_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(10);
+
+    private final ChunkedDeleteProperties properties;
+    private final RetryTemplate retryTemplate;
+    private final MeterRegistry registry;
+
+    public ChunkedDeleter(ChunkedDeleteProperties properties, RetryTemplate retryTemplate, MeterRegistry registry) {
+        this.properties = properties;
+        this.retryTemplate = retryTemplate;
+        this.registry = registry;
+    }
+
+    public Result delete(DataSource dataSource, String table, String predicate) {
+        return delete(dataSource, table, predicate, null);
+    }
+
+    /**
+     * Deletes every row of {@code table} matching {@code predicate} with a key after {@code resumeAfter}.
+     *
+     * @param predicate   SQL condition on the table's columns, for example {@code updated_timestamp IS NOT NULL}
+     * @param resumeAfter key to continue after, from {@link ChunkedDeleteException#resumeAfter()}, or {@code null} to
+     *                    start at the beginning of the table
+     * @throws ChunkedDeleteException if a chunk fails after its retries
+     */
+    public Result delete(DataSource dataSource, String table, String predicate, UUID resumeAfter) {
+        String firstSql = chunkSql(table, predicate, false);
+        String nextSql = chunkSql(table, predicate, true);
+
+        Counter rows = Counter.builder("demo.delete.rows").tag("table", table).register(registry);
+        Timer chunks = Timer.builder("demo.delete.chunks").tag("table", table).register(registry);
+        RateLimiter rateLimiter = properties.rowsPerSecond() > 0 ? RateLimiter.create(properties.rowsPerSecond()) : null;
+
+        int chunkSize = properties.chunkSize();
+        UUID after = resumeAfter;
+        long deleted = 0;
+        long chunkCount = 0;
+
+        long start = System.nanoTime();
+        long nextProgress = start + PROGRESS_INTERVAL_NANOS;
+
+        logger.info("deleting from {} where {}{}", table, predicate, resumeAfter != null ? " after " + resumeAfter : "");
+
+        while (true) {
+            Chunk chunk;
+            long chunkStart = System.nanoTime();
+
+            try {
+                chunk = deleteChunk(dataSource, after == null ? firstSql : nextSql, after, chunkSize);
+            } catch (SQLException | RuntimeException e) {
+                throw new ChunkedDeleteException("chunk of " + chunkSize + " rows from " + table + " after " + after
+                        + " failed, " + deleted + " rows already deleted", e, after, deleted);
+            }
+
+            long chunkNanos = System.nanoTime() - chunkStart;
+
+            if (chunk.rows() > 0) {
+                deleted += chunk.rows();
+                chunkCount++;
+                after = chunk.lastKey();
+
+                rows.increment(chunk.rows());
+                chunks.record(chunkNanos, TimeUnit.NANOSECONDS);
+
+                logger.debug("deleted {} rows from {} in {} ms up to {}", chunk.rows(), table,
+                        TimeUnit.NANOSECONDS.toMillis(chunkNanos), after);
+            }
+
+            // a short chunk means nothing matching is left after the last key
+            if (chunk.rows() < chunkSize) {
+                break;
+            }
+
+            chunkSize = nextChunkSize(chunkSize, chunkNanos);
+
+            if (rateLimiter != null) {
+                rateLimiter.acquire(chunk.rows());
+            }
+
+            if (System.nanoTime() - nextProgress >= 0) {
+                logger.info("deleted {} rows from {} so far, up to {}, chunk size {}", deleted, table, after, chunkSize);
+                nextProgress += PROGRESS_INTERVAL_NANOS;
+            }
+        }
+
+        Result result = new Result(table, deleted, chunkCount, Duration.ofNanos(System.nanoTime() - start), after, chunkSize);
+
+        logger.info("deleted {} rows from {} in {} chunks in {} ms ({} rows/s)", result.rows(), table, result.chunks(),
+                result.elapsed().toMillis(), Math.round(result.rowsPerSecond()));
+
+        return result;
+    }
+
+    /**
+     * The statement each chunk runs.  A resuming chunk binds the last key and the limit, the first binds only the limit.
+     * Exposed so tests can check its plan with {@link ExplainPlan}.
+     */
+    public static String chunkSql(String table, String predicate, boolean resuming) {
+        return "DELETE FROM " + table + " WHERE (" + predicate + ")" + (resuming ? " AND id > ?" : "")
+                + " ORDER BY id LIMIT ? RETURNING id";
+    }
+
+    int nextChunkSize(int chunkSize, long chunkNanos) {
+        return ChunkSizes.next(chunkSize, chunkNanos, properties.minChunkSize(), properties.maxChunkSize(),
+                properties.latencyBudget());
+    }
+
+    // each chunk runs on its own auto-commit connection so it commits before the next one starts
+    private Chunk deleteChunk(DataSource dataSource, String sql, UUID after, int limit) throws SQLException {
+        return retryTemplate.execute(context -> {
+            try (Connection conn = dataSource.getConnection();
+                 PreparedStatement ps = conn.prepareStatement(sql)) {
+
+                int index = 1;
+                if (after != null) {
+                    JdbcTypes.setUuid(ps, index++, after);
+                }
+                ps.setInt(index, limit);
+
+                int count = 0;
+                UUID last = after;
+
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        UUID id = JdbcTypes.getUuid(rs, 1);
+                        // RETURNING does not promise the ORDER BY order
+                        if (last == null || UuidKeyRange.ORDER.compare(id, last) > 0) {
+                            last = id;
+                        }
+                        count++;
+                    }
+                }
+
+                return new Chunk(count, last);
+            }
+        });
+    }
+
+    private record Chunk(int rows, UUID lastKey) {
+    }
+
+    /**
+     * @param table     table rows were deleted from
+     * @param rows      rows deleted
+     * @param chunks    chunks that deleted at least one row
+     * @param elapsed   time the job took, including pacing
+     * @param lastKey   last key deleted, or the resume key if nothing was deleted
+     * @param chunkSize chunk size the deleter had settled on at the end
+     */
+    public record Result(String table, long rows, long chunks, Duration elapsed, UUID lastKey, int chunkSize) {
+
+        public double rowsPerSecond() {
+            return elapsed.isZero() ? 0 : rows / (elapsed.toNanos() / 1e9);
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package io.crdb.spring.common;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.retry.support.RetryTemplate;
+
+@Configuration(proxyBeanMethods = false)
+@EnableConfigurationProperties(ChunkedUpdateProperties.class)
+public class ChunkedUpdateConfiguration {
+
+    @Bean
+    public CheckpointStore checkpointStore() {
+        return new CheckpointStore();
+    }
+
+    @Bean
+    public ChunkedUpdater chunkedUpdater(ChunkedUpdateProperties properties, RetryTemplate retryTemplate,
+                                         CheckpointStore checkpointStore, ObjectProvider<MeterRegistry> meterRegistry) {
+        return new ChunkedUpdater(properties, retryTemplate, checkpointStore, meterRegistry.getIfAvailable(() -> Metrics.globalRegistry));
+    }
+}
@@ -0,0 +1,34 @@
+package io.crdb.spring.common;
+
+import org.springframework.dao.UncategorizedDataAccessException;
+
+/**
+ * Thrown when a {@link ChunkedUpdater} key range fails after its retries.  The other ranges run to completion and
+ * every committed chunk has recorded its progress in the {@link CheckpointStore}, so running the same job again
+ * continues from there.
+ */
+public class ChunkedUpdateException extends UncategorizedDataAccessException {
+
+    private final String job;
+    private final long updated;
+
+    public ChunkedUpdateException(String msg, Throwable cause, String job, long updated) {
+        super(msg, cause);
+        this.job = job;
+        this.updated = updated;
+    }
+
+    /**
+     * Name of the job whose checkpoints were kept.
+     */
+    public String job() {
+        return job;
+    }
+
+    /**
+     * Rows updated by the committed chunks of this run.
+     */
+    public long updated() {
+        return updated;
+    }
+}
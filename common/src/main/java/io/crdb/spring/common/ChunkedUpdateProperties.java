@@ -0,0 +1,33 @@
+package io.crdb.spring.common;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Settings for {@link ChunkedUpdater}.
+ *
+ * @param chunkSize     rows updated by the first chunk of each key range
+ * @param minChunkSize  smallest chunk the updater shrinks to when chunks run over the latency budget
+ * @param maxChunkSize  largest chunk the updater grows to when chunks finish well within the budget
+ * @param latencyBudget target time for one chunk transaction
+ * @param threads       number of key ranges updated in parallel, each on its own connection
+ */
+@ConfigurationProperties("demo.update")
+public record ChunkedUpdateProperties(@DefaultValue("1000") int chunkSize,
+                                      @DefaultValue("100") int minChunkSize,
+                                      @DefaultValue("10000") int maxChunkSize,
+                                      @DefaultValue("250ms") Duration latencyBudget,
+                                      @DefaultValue("4") int threads) {
+
+    public ChunkedUpdateProperties {
+        if (minChunkSize < 1 || minChunkSize > chunkSize || chunkSize > maxChunkSize) {
+            throw new IllegalArgumentException("chunk sizes must satisfy 1 <= min <= initial <= max but were "
+                    + minChunkSize + ", " + chunkSize + " and " + maxChunkSize);
+        }
+        if (threads < 1) {
+            throw new IllegalArgumentException("threads must be positive but was " + threads);
+        }
+    }
+}
@@ -0,0 +1,341 @@
+package io.crdb.spring.common;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.UncategorizedSQLException;
+import org.springframework.retry.support.RetryTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Updates the rows of a table matching a predicate in small chunks instead of one statement over the whole table.  A
+ * single {@code UPDATE ... WHERE updated_timestamp IS NULL} lays intents on every matching row in one transaction and
+ * under concurrent traffic is all but certain to fail with {@code 40001}, after which the retry starts from scratch.
+ * <p>
+ * The keyspace is split into {@code demo.update.threads} {@link UuidKeyRange}s that are walked in parallel.  Each chunk
+ * is {@code UPDATE ... WHERE <predicate> AND id > ? AND id < ? ORDER BY id LIMIT n RETURNING id} in its own short
+ * transaction, retried on its own, and records the last key it updated in the {@link CheckpointStore} in that same
+ * transaction.  A run that fails keeps its checkpoints and throws {@link ChunkedUpdateException}; running the same job
+ * again skips what was already committed.  A run that completes clears them.  Chunk sizes adapt to
+ * {@code demo.update.latency-budget} the same way as {@link ChunkedDeleter}.
+ */
+public class ChunkedUpdater {
+
+    private static final Logger logger = LoggerFactory.getLogger(ChunkedUpdater.class);
+
+    // smallest key in CockroachDB's unsigned ordering, the start of the first range
+    private static final UUID MIN_KEY = new UUID(0L, 0L);
+
+    private final ChunkedUpdateProperties properties;
+    private final RetryTemplate retryTemplate;
+    private final CheckpointStore checkpointStore;
+    private final MeterRegistry registry;
+
+    public ChunkedUpdater(ChunkedUpdateProperties properties, RetryTemplate retryTemplate, CheckpointStore checkpointStore,
+                          MeterRegistry registry) {
+        this.properties = properties;
+        this.retryTemplate = retryTemplate;
+        this.checkpointStore = checkpointStore;
+        this.registry = registry;
+    }
+
+    /**
+     * Runs {@code UPDATE table SET assignments} over every row matching {@code predicate}.
+     *
+     * @param job         name the checkpoints are kept under, one per logical job
+     * @param assignments SQL {@code SET} clause, for example {@code updated_timestamp = ?}
+     * @param predicate   SQL condition that the update makes false, so a restarted chunk does not update a row twice
+     * @param args        values for the placeholders in {@code assignments}
+     * @throws ChunkedUpdateException if a key range fails after its retries
+     */
+    public Result update(DataSource dataSource, String job, String table, String assignments, String predicate, Object... args) {
+        List<UuidKeyRange> ranges = UuidKeyRange.split(properties.threads());
+        Map<Integer, UUID> checkpoints = loadCheckpoints(dataSource, job, ranges.size());
+
+        Counter rows = Counter.builder("demo.update.rows").tag("table", table).register(registry);
+        Timer chunks = Timer.builder("demo.update.chunks").tag("table", table).register(registry);
+
+        logger.info("updating {} where {} across {} key ranges{}", table, predicate, ranges.size(),
+                checkpoints.isEmpty() ? "" : ", resuming " + checkpoints.size() + " from checkpoints of " + job);
+
+        ThreadFactory threadFactory = new ThreadFactoryBuilder().setNameFormat("chunked-update-thread-%d").build();
+
+        long start = System.nanoTime();
+        List<RangeResult> results = new ArrayList<>(ranges.size());
+        long failedRangeRows = 0;
+        Throwable failure = null;
+
+        try (ExecutorService executorService = Executors.newFixedThreadPool(ranges.size(), threadFactory)) {
+            List<Future<RangeResult>> futures = new ArrayList<>(ranges.size());
+
+            for (int i = 0; i < ranges.size(); i++) {
+                RangeJob rangeJob = new RangeJob(dataSource, job, table, assignments, predicate, args, ranges.size(), i,
+                        ranges.get(i), checkpoints.get(i), rows, chunks);
+                futures.add(executorService.submit(rangeJob::run));
+            }
+
+            // let every range finish so each one leaves a checkpoint, then report the first failure
+            for (Future<RangeResult> future : futures) {
+                try {
+                    results.add(getResult(future));
+                } catch (RuntimeException e) {
+                    Throwable cause = e;
+                    if (e instanceof RangeFailure rangeFailure) {
+                        failedRangeRows += rangeFailure.updated;
+                        cause = rangeFailure.getCause();
+                    }
+
+                    if (failure == null) {
+                        failure = cause;
+                    } else {
+                        failure.addSuppressed(cause);
+                    }
+                }
+            }
+        }
+
+        long updated = results.stream().mapToLong(RangeResult::rows).sum() + failedRangeRows;
+
+        if (failure != null) {
+            throw new ChunkedUpdateException("chunked update " + job + " of " + table + " failed after " + updated
+                    + " rows, run it again to resume from its checkpoints", failure, job, updated);
+        }
+
+        clearCheckpoints(dataSource, job);
+
+        Result result = new Result(job, table, updated, results.stream().mapToLong(RangeResult::chunks).sum(), ranges.size(),
+                checkpoints.size(), Duration.ofNanos(System.nanoTime() - start));
+
+        logger.info("updated {} rows of {} in {} chunks across {} key ranges in {} ms", result.rows(), table, result.chunks(),
+                result.ranges(), result.elapsed().toMillis());
+
+        return result;
+    }
+
+    /**
+     * The statement each chunk runs.  Placeholders are bound in order: the {@code assignments} arguments, the lower key
+     * (inclusive at the start of a range, exclusive once resuming), the upper key if the range is {@code bounded}, and
+     * the limit.  Exposed so tests can check its plan with {@link ExplainPlan}.
+     */
+    public static String chunkSql(String table, String assignments, String predicate, boolean resuming, boolean bounded) {
+        return "UPDATE " + table + " SET " + assignments + " WHERE (" + predicate + ")"
+                + (resuming ? " AND id > ?" : " AND id >= ?")
+                + (bounded ? " AND id < ?" : "")
+                + " ORDER BY id LIMIT ? RETURNING id";
+    }
+
+    int nextChunkSize(int chunkSize, long chunkNanos) {
+        return ChunkSizes.next(chunkSize, chunkNanos, properties.minChunkSize(), properties.maxChunkSize(),
+                properties.latencyBudget());
+    }
+
+    private Map<Integer, UUID> loadCheckpoints(DataSource dataSource, String job, int rangeCount) {
+        try (Connection conn = dataSource.getConnection()) {
+            return checkpointStore.load(conn, job, rangeCount);
+        } catch (SQLException e) {
+            throw new UncategorizedSQLException("load checkpoints of " + job, CheckpointStore.LOAD_SQL, e);
+        }
+    }
+
+    private void clearCheckpoints(DataSource dataSource, String job) {
+        try (Connection conn = dataSource.getConnection()) {
+            checkpointStore.clear(conn, job);
+        } catch (SQLException e) {
+            throw new UncategorizedSQLException("clear checkpoints of " + job, CheckpointStore.CLEAR_SQL, e);
+        }
+    }
+
+    private RangeResult getResult(Future<RangeResult> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("interrupted while waiting for key range update", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("key range update failed", e.getCause());
+        }
+    }
+
+    private final class RangeJob {
+
+        private final DataSource dataSource;
+        private final String job;
+        private final String table;
+        private final Object[] args;
+        private final int rangeCount;
+        private final int index;
+        private final UuidKeyRange range;
+        private final UUID checkpoint;
+        private final Counter rows;
+        private final Timer chunks;
+        private final String startSql;
+        private final String nextSql;
+
+        private RangeJob(DataSource dataSource, String job, String table, String assignments, String predicate, Object[] args,
+                         int rangeCount, int index, UuidKeyRange range, UUID checkpoint, Counter rows, Timer chunks) {
+            this.dataSource = dataSource;
+            this.job = job;
+            this.table = table;
+            this.args = args;
+            this.rangeCount = rangeCount;
+            this.index = index;
+            this.range = range;
+            this.checkpoint = checkpoint;
+            this.rows = rows;
+            this.chunks = chunks;
+            this.startSql = chunkSql(table, assignments, predicate, false, range.upper() != null);
+            this.nextSql = chunkSql(table, assignments, predicate, true, range.upper() != null);
+        }
+
+        private RangeResult run() {
+            int chunkSize = properties.chunkSize();
+            UUID after = checkpoint;
+            long updated = 0;
+            long chunkCount = 0;
+
+            while (true) {
+                Chunk chunk;
+                long chunkStart = System.nanoTime();
+
+                try {
+                    chunk = updateChunk(after, chunkSize);
+                } catch (SQLException | RuntimeException e) {
+                    logger.warn("key range {} of {} failed after {} rows, checkpoint {}", index, table, updated, after, e);
+                    throw new RangeFailure(e, updated);
+                }
+
+                long chunkNanos = System.nanoTime() - chunkStart;
+
+                if (chunk.rows() > 0) {
+                    updated += chunk.rows();
+                    chunkCount++;
+                    after = chunk.lastKey();
+
+                    rows.increment(chunk.rows());
+                    chunks.record(chunkNanos, TimeUnit.NANOSECONDS);
+                }
+
+                // a short chunk means nothing matching is left in this range
+                if (chunk.rows() < chunkSize) {
+                    break;
+                }
+
+                chunkSize = nextChunkSize(chunkSize, chunkNanos);
+            }
+
+            logger.debug("key range {} of {} updated {} rows in {} chunks", index, table, updated, chunkCount);
+
+            return new RangeResult(index, updated, chunkCount);
+        }
+
+        // the chunk and its checkpoint commit together, so a retried or restarted chunk never skips a row
+        private Chunk updateChunk(UUID after, int limit) throws SQLException {
+            return retryTemplate.execute(context -> {
+                try (Connection conn = dataSource.getConnection()) {
+                    conn.setAutoCommit(false);
+
+                    try {
+                        Chunk chunk = executeChunk(conn, after, limit);
+
+                        if (chunk.rows() > 0) {
+                            checkpointStore.save(conn, job, rangeCount, index, chunk.lastKey());
+                        }
+
+                        conn.commit();
+                        return chunk;
+                    } catch (SQLException | RuntimeException e) {
+                        conn.rollback();
+                        throw e;
+                    } finally {
+                        conn.setAutoCommit(true);
+                    }
+                }
+            });
+        }
+
+        private Chunk executeChunk(Connection conn, UUID after, int limit) throws SQLException {
+            try (PreparedStatement ps = conn.prepareStatement(after == null ? startSql : nextSql)) {
+                int parameter = 1;
+                for (Object arg : args) {
+                    ps.setObject(parameter++, arg);
+                }
+
+                UUID lower = after != null ? after : range.lower() != null ? range.lower() : MIN_KEY;
+                JdbcTypes.setUuid(ps, parameter++, lower);
+
+                if (range.upper() != null) {
+                    JdbcTypes.setUuid(ps, parameter++, range.upper());
+                }
+
+                ps.setInt(parameter, limit);
+
+                int count = 0;
+                UUID last = after;
+
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        UUID id = JdbcTypes.getUuid(rs, 1);
+                        // RETURNING does not promise the ORDER BY order
+                        if (last == null || UuidKeyRange.ORDER.compare(id, last) > 0) {
+                            last = id;
+                        }
+                        count++;
+                    }
+                }
+
+                return new Chunk(count, last);
+            }
+        }
+    }
+
+    // carries the rows a failed range committed before it failed
+    private static final class RangeFailure extends RuntimeException {
+
+        private final long updated;
+
+        private RangeFailure(Throwable cause, long updated) {
+            super(cause);
+            this.updated = updated;
+        }
+    }
+
+    private record Chunk(int rows, UUID lastKey) {
+    }
+
+    private record RangeResult(int range, long rows, long chunks) {
+    }
+
+    /**
+     * @param job     name the checkpoints were kept under
+     * @param table   table rows were updated in
+     * @param rows    rows updated by this run
+     * @param chunks  chunks that updated at least one row
+     * @param ranges  key ranges the table was split into
+     * @param resumed ranges that continued from a checkpoint of an earlier run
+     * @param elapsed time the run took
+     */
+    public record Result(String job, String table, long rows, long chunks, int ranges, int resumed, Duration elapsed) {
+    }
+}
@@ -0,0 +1,13 @@
+package io.crdb.spring.common;
+
+import org.springframework.dao.TransientDataAccessResourceException;
+
+/**
+ * Thrown instead of calling the database while the {@link ConnectionCircuitBreaker} is open.
+ */
+public class CircuitBreakerOpenException extends TransientDataAccessResourceException {
+
+    public CircuitBreakerOpenException(String msg) {
+        super(msg);
+    }
+}
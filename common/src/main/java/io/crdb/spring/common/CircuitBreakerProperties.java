@@ -0,0 +1,23 @@
+package io.crdb.spring.common;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Settings for {@link ConnectionCircuitBreaker}.
+ *
+ * @param enabled          whether connection failures trip the breaker
+ * @param failureThreshold connection failures within {@code window} that open the breaker
+ * @param window           length of the window failures are counted in
+ * @param openDuration     how long the breaker fails fast before probing the database
+ * @param probeTimeout     upper bound on the whole probe, checking out a connection included
+ */
+@ConfigurationProperties("demo.circuit-breaker")
+public record CircuitBreakerProperties(@DefaultValue("true") boolean enabled,
+                                       @DefaultValue("5") int failureThreshold,
+                                       @DefaultValue("10s") Duration window,
+                                       @DefaultValue("5s") Duration openDuration,
+                                       @DefaultValue("2s") Duration probeTimeout) {
+}
@@ -0,0 +1,156 @@
+package io.crdb.spring.common;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.UncategorizedSQLException;
+import org.springframework.jdbc.datasource.ConnectionHolder;
+import org.springframework.jdbc.support.JdbcTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.TransactionSystemException;
+import org.springframework.transaction.support.CallbackPreferringPlatformTransactionManager;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * JDBC transaction manager that implements CockroachDB's client-side retry protocol.  Each new read-write transaction
+ * starts with {@code SAVEPOINT cockroach_restart} and ends with {@code RELEASE SAVEPOINT cockroach_restart}.  When the
+ * transaction fails with a serialization failure ({@code 40001}) it is rolled back to the savepoint and the callback
+ * runs again on the same connection and in the same transaction, which keeps the transaction's priority and avoids
+ * returning the connection to the pool.  After {@code maxAttempts} the failure is rethrown, so an outer
+ * {@code @Retryable} can still retry the whole transaction.
+ * <p>
+ * The protocol only applies to callers that hand over a callback, i.e. {@code @Transactional} methods and
+ * {@link org.springframework.transaction.support.TransactionTemplate}; {@link #getTransaction(TransactionDefinition)}
+ * behaves like {@link JdbcTransactionManager}.  Read-only transactions are left alone because follower reads require
+ * {@code SET TRANSACTION AS OF SYSTEM TIME} to be their first statement.  A participating {@code @Transactional} method
+ * that failed marks the shared connection rollback-only; rolling back to the savepoint discards its work, so the flag
+ * is cleared before the next attempt.
+ * <p>
+ * For a {@code @Transactional} method the callback is Spring's transaction interceptor proceeding down the method's
+ * advice chain, which it can only do once.  Later attempts invoke the target method directly and skip any advice
+ * ordered after the transaction interceptor; callers that depend on such advice should use a
+ * {@link org.springframework.transaction.support.TransactionTemplate} instead.
+ */
+public class CockroachRetryTransactionManager extends JdbcTransactionManager implements CallbackPreferringPlatformTransactionManager {
+
+    private static final Logger logger = LoggerFactory.getLogger(CockroachRetryTransactionManager.class);
+
+    static final String SAVEPOINT_SQL = "SAVEPOINT cockroach_restart";
+    static final String RELEASE_SAVEPOINT_SQL = "RELEASE SAVEPOINT cockroach_restart";
+    static final String ROLLBACK_TO_SAVEPOINT_SQL = "ROLLBACK TO SAVEPOINT cockroach_restart";
+
+    private static final String POSTGRES_SERIALIZATION_FAILURE = "40001";
+
+    private final ExceptionChecker exceptionChecker;
+    private final int maxAttempts;
+
+    public CockroachRetryTransactionManager(DataSource dataSource, ExceptionChecker exceptionChecker, int maxAttempts) {
+        super(dataSource);
+
+        if (maxAttempts < 1) {
+            throw new IllegalArgumentException("maxAttempts must be positive but was " + maxAttempts);
+        }
+
+        this.exceptionChecker = exceptionChecker;
+        this.maxAttempts = maxAttempts;
+    }
+
+    @Override
+    public <T> T execute(TransactionDefinition definition, TransactionCallback<T> callback) throws TransactionException {
+        TransactionStatus status = getTransaction(definition);
+
+        if (!status.isNewTransaction() || definition.isReadOnly()) {
+            return executeOnce(status, callback);
+        }
+
+        ConnectionHolder holder = currentConnectionHolder();
+        Connection connection = holder.getConnection();
+
+        executeProtocolStatement(status, connection, SAVEPOINT_SQL);
+
+        T result;
+
+        for (int attempt = 1; ; attempt++) {
+            try {
+                result = callback.doInTransaction(status);
+                execute(connection, RELEASE_SAVEPOINT_SQL);
+                break;
+            } catch (RuntimeException | Error ex) {
+                if (attempt >= maxAttempts || !isSerializationFailure(ex)) {
+                    rollbackOnException(status, ex);
+                    throw ex;
+                }
+
+                logger.debug("serialization failure on attempt {} of {}, rolling back to savepoint: {}", attempt, maxAttempts, ex.getMessage());
+
+                executeProtocolStatement(status, connection, ROLLBACK_TO_SAVEPOINT_SQL);
+                holder.resetRollbackOnly();
+            }
+        }
+
+        commit(status);
+
+        return result;
+    }
+
+    private <T> T executeOnce(TransactionStatus status, TransactionCallback<T> callback) {
+        T result;
+
+        try {
+            result = callback.doInTransaction(status);
+        } catch (RuntimeException | Error ex) {
+            rollbackOnException(status, ex);
+            throw ex;
+        }
+
+        commit(status);
+
+        return result;
+    }
+
+    private boolean isSerializationFailure(Throwable ex) {
+        return POSTGRES_SERIALIZATION_FAILURE.equals(exceptionChecker.sqlState(ex));
+    }
+
+    private ConnectionHolder currentConnectionHolder() {
+        return (ConnectionHolder) TransactionSynchronizationManager.getResource(obtainDataSource());
+    }
+
+    private void executeProtocolStatement(TransactionStatus status, Connection connection, String sql) {
+        try {
+            execute(connection, sql);
+        } catch (RuntimeException ex) {
+            rollbackOnException(status, ex);
+            throw ex;
+        }
+    }
+
+    private void execute(Connection connection, String sql) {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute(sql);
+        } catch (SQLException e) {
+            throw new UncategorizedSQLException("cockroach_restart", sql, e);
+        }
+    }
+
+    // same handling as TransactionTemplate, so the original exception is not masked by a rollback failure
+    private void rollbackOnException(TransactionStatus status, Throwable ex) {
+        try {
+            rollback(status);
+        } catch (TransactionSystemException e) {
+            logger.error("Application exception overridden by rollback exception", ex);
+            e.initApplicationException(ex);
+            throw e;
+        } catch (RuntimeException | Error e) {
+            logger.error("Application exception overridden by rollback exception", ex);
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package io.crdb.spring.common;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.function.BooleanSupplier;
+import java.util.function.LongSupplier;
+
+/**
+ * Circuit breaker for connection-class failures ({@code 08003}, {@code 08006}).  When a node behind the load balancer
+ * dies, every connection routed to it fails, and retrying those calls only burns time against a dead gateway.  After
+ * {@code failureThreshold} connection failures within {@code window} the breaker opens: requests fail fast and
+ * {@code onOpen} runs (typically to evict pooled connections).  Once {@code openDuration} has passed, one caller runs
+ * {@code probe}; if it succeeds the breaker closes, otherwise it stays open for another period.
+ */
+public class ConnectionCircuitBreaker {
+
+    private static final Logger logger = LoggerFactory.getLogger(ConnectionCircuitBreaker.class);
+
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private final int failureThreshold;
+    private final long windowNanos;
+    private final long openNanos;
+    private final BooleanSupplier probe;
+    private final Runnable onOpen;
+    private final LongSupplier nanoClock;
+
+    private volatile State state = State.CLOSED;
+    private long windowStart;
+    private int failures;
+    private long openedAt;
+
+    public ConnectionCircuitBreaker(int failureThreshold, Duration window, Duration openDuration, BooleanSupplier probe, Runnable onOpen) {
+        this(failureThreshold, window, openDuration, probe, onOpen, System::nanoTime);
+    }
+
+    ConnectionCircuitBreaker(int failureThreshold, Duration window, Duration openDuration, BooleanSupplier probe, Runnable onOpen, LongSupplier nanoClock) {
+        if (failureThreshold < 1) {
+            throw new IllegalArgumentException("failureThreshold must be positive but was " + failureThreshold);
+        }
+
+        this.failureThreshold = failureThreshold;
+        this.windowNanos = window.toNanos();
+        this.openNanos = openDuration.toNanos();
+        this.probe = probe;
+        this.onOpen = onOpen;
+        this.nanoClock = nanoClock;
+        this.windowStart = nanoClock.getAsLong();
+    }
+
+    /**
+     * Returns {@code true} if a request may go to the database.  While open this fails fast; the first caller after
+     * {@code openDuration} probes the database and closes the breaker if the probe succeeds.
+     */
+    public boolean allowRequest() {
+        if (state == State.CLOSED) {
+            return true;
+        }
+
+        synchronized (this) {
+            if (state == State.CLOSED) {
+                return true;
+            }
+
+            if (state == State.HALF_OPEN || nanoClock.getAsLong() - openedAt < openNanos) {
+                return false;
+            }
+
+            state = State.HALF_OPEN;
+        }
+
+        boolean healthy = probe();
+
+        if (healthy) {
+            synchronized (this) {
+                state = State.CLOSED;
+                failures = 0;
+                windowStart = nanoClock.getAsLong();
+            }
+
+            logger.info("connection probe succeeded, circuit breaker closed");
+        } else {
+            trip("connection probe failed");
+        }
+
+        return healthy;
+    }
+
+    /**
+     * Records a connection-class failure, opening the breaker once the threshold is reached.
+     */
+    public void recordConnectionFailure() {
+        synchronized (this) {
+            if (state != State.CLOSED) {
+                return;
+            }
+
+            long now = nanoClock.getAsLong();
+
+            if (now - windowStart >= windowNanos) {
+                windowStart = now;
+                failures = 0;
+            }
+
+            if (++failures < failureThreshold) {
+                return;
+            }
+        }
+
+        trip(failureThreshold + " connection failures");
+    }
+
+    public State state() {
+        return state;
+    }
+
+    public boolean isOpen() {
+        return state != State.CLOSED;
+    }
+
+    private boolean probe() {
+        try {
+            return probe.getAsBoolean();
+        } catch (RuntimeException e) {
+            logger.debug("connection probe threw {}", e.toString());
+            return false;
+        }
+    }
+
+    private void trip(String reason) {
+        synchronized (this) {
+            state = State.OPEN;
+            openedAt = nanoClock.getAsLong();
+        }
+
+        logger.warn("{}, circuit breaker open for {} ms", reason, openNanos / 1_000_000);
+
+        onOpen.run();
+    }
+}
@@ -0,0 +1,44 @@
+package io.crdb.spring.common;
+
+import org.springframework.retry.RetryCallback;
+import org.springframework.retry.RetryContext;
+import org.springframework.retry.RetryListener;
+
+/**
+ * Connects a {@link ConnectionCircuitBreaker} to the retry path.  Calls fail fast with
+ * {@link CircuitBreakerOpenException} while the breaker is open, connection failures are reported to the breaker,
+ * and calls already in flight stop retrying as soon as it opens.
+ */
+public class ConnectionCircuitBreakerListener implements RetryListener {
+
+    private final ConnectionCircuitBreaker circuitBreaker;
+    private final ExceptionChecker exceptionChecker;
+
+    public ConnectionCircuitBreakerListener(ConnectionCircuitBreaker circuitBreaker, ExceptionChecker exceptionChecker) {
+        this.circuitBreaker = circuitBreaker;
+        this.exceptionChecker = exceptionChecker;
+    }
+
+    @Override
+    public <T, E extends Throwable> boolean open(RetryContext context, RetryCallback<T, E> callback) {
+        if (!circuitBreaker.allowRequest()) {
+            throw new CircuitBreakerOpenException("Circuit breaker is " + circuitBreaker.state() + " after repeated connection failures");
+        }
+        return true;
+    }
+
+    @Override
+    public <T, E extends Throwable> void onError(RetryContext context, RetryCallback<T, E> callback, Throwable throwable) {
+        if (ExceptionChecker.isConnectionFailureState(exceptionChecker.sqlState(throwable))) {
+            circuitBreaker.recordConnectionFailure();
+        }
+
+        if (circuitBreaker.isOpen()) {
+            context.setExhaustedOnly();
+        }
+    }
+
+    public ConnectionCircuitBreaker circuitBreaker() {
+        return circuitBreaker;
+    }
+}
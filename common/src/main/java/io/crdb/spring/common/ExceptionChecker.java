@@ -1,24 +1,40 @@
 package io.crdb.spring.common;
 
-import org.apache.commons.lang3.exception.ExceptionUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
 
 import java.sql.SQLException;
-
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Decides whether an exception is worth retrying.  This runs for every failed attempt, so during a retry storm it is
+ * on the hot path: the cause chain is walked without building a list, SQL states are matched with a {@code switch}
+ * (which uses the hash code {@link String} already caches) and nothing is allocated unless debug logging is on.
+ */
 @Component
 public class ExceptionChecker {
 
     private static final Logger logger = LoggerFactory.getLogger(ExceptionChecker.class);
 
-    // this is thrown when CRDB needs the client to retry
-    private static final String POSTGRES_SERIALIZATION_FAILURE = "40001";
+    // guards against pathological or cyclic cause chains
+    private static final int MAX_CAUSE_DEPTH = 32;
+
+    private static final long WARN_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(10);
+
+    private final LongSupplier nanoClock;
+    private final AtomicLong nextWarning = new AtomicLong(Long.MIN_VALUE);
+    private final AtomicLong suppressedWarnings = new AtomicLong();
+
+    public ExceptionChecker() {
+        this(System::nanoTime);
+    }
 
-    // the following codes are often encountered when nodes become unavailable during processing
-    private static final String POSTGRES_STATEMENT_COMPLETION_UNKNOWN = "40003";
-    private static final String POSTGRES_CONNECTION_DOES_NOT_EXIST = "08003";
-    private static final String POSTGRES_CONNECTION_FAILURE = "08006";
+    ExceptionChecker(LongSupplier nanoClock) {
+        this.nanoClock = nanoClock;
+    }
 
     public boolean shouldRetry(Throwable ex) {
 
@@ -26,17 +42,33 @@ public class ExceptionChecker {
             return false;
         }
 
-        SQLException sqlException = ExceptionUtils.throwableOfType(ex, SQLException.class);
+        SQLException sqlException = findSQLException(ex);
 
         if (sqlException != null) {
             return shouldRetry(sqlException);
         }
 
-        logger.warn("Exception is not a SQLException.  Will not be retried.  Class is {}.", ex.getClass());
+        warnNotSQLException(ex);
 
         return false;
     }
 
+    /**
+     * Returns the SQL state of the first {@link SQLException} in the cause chain of {@code ex}, or {@code null}.
+     */
+    public String sqlState(Throwable ex) {
+        SQLException sqlException = findSQLException(ex);
+
+        return sqlException != null ? sqlException.getSQLState() : null;
+    }
+
+    /**
+     * Number of "not a SQLException" warnings dropped by the rate limit since the last one was logged.
+     */
+    public long suppressedWarnings() {
+        return suppressedWarnings.get();
+    }
+
     private boolean shouldRetry(SQLException ex) {
         String sqlState = ex.getSQLState();
         int errorCode = ex.getErrorCode();
@@ -51,19 +83,70 @@ public class ExceptionChecker {
 
         boolean retryable = isRetryableState(sqlState);
 
-        logger.debug("SQLException is retryable? {} : sql state [{}], error code [{}], message [{}]", retryable, sqlState, errorCode, ex.getMessage());
+        if (logger.isDebugEnabled()) {
+            logger.debug("SQLException is retryable? {} : sql state [{}], error code [{}], message [{}]", retryable, sqlState, errorCode, ex.getMessage());
+        }
 
         return retryable;
     }
 
-    private boolean isRetryableState(String sqlState) {
+    static boolean isRetryableState(String sqlState) {
         // ------------------
         // POSTGRES: https://www.postgresql.org/docs/current/errcodes-appendix.html
         // ------------------
 
-        return POSTGRES_SERIALIZATION_FAILURE.equals(sqlState)
-                || POSTGRES_STATEMENT_COMPLETION_UNKNOWN.equals(sqlState)
-                || POSTGRES_CONNECTION_FAILURE.equals(sqlState)
-                || POSTGRES_CONNECTION_DOES_NOT_EXIST.equals(sqlState);
+        return switch (sqlState) {
+            // this is thrown when CRDB needs the client to retry
+            case "40001" -> true;
+            // the following codes are often encountered when nodes become unavailable during processing
+            case "40003", "08003", "08006" -> true;
+            default -> false;
+        };
+    }
+
+    /**
+     * Returns {@code true} for SQL states that mean the connection itself is gone, as opposed to the transaction.
+     */
+    public static boolean isConnectionFailureState(String sqlState) {
+        if (sqlState == null) {
+            return false;
+        }
+
+        return switch (sqlState) {
+            case "08003", "08006" -> true;
+            default -> false;
+        };
+    }
+
+    private static SQLException findSQLException(Throwable ex) {
+        Throwable current = ex;
+
+        for (int depth = 0; current != null && depth < MAX_CAUSE_DEPTH; depth++) {
+            if (current instanceof SQLException sqlException) {
+                return sqlException;
+            }
+
+            Throwable cause = current.getCause();
+            current = cause == current ? null : cause;
+        }
+
+        return null;
+    }
+
+    private void warnNotSQLException(Throwable ex) {
+        long now = nanoClock.getAsLong();
+        long next = nextWarning.get();
+
+        if ((next == Long.MIN_VALUE || now - next >= 0) && nextWarning.compareAndSet(next, now + WARN_INTERVAL_NANOS)) {
+            long suppressed = suppressedWarnings.getAndSet(0);
+
+            if (suppressed > 0) {
+                logger.warn("Exception is not a SQLException.  Will not be retried.  Class is {}.  {} similar warnings suppressed.", ex.getClass(), suppressed);
+            } else {
+                logger.warn("Exception is not a SQLException.  Will not be retried.  Class is {}.", ex.getClass());
+            }
+        } else {
+            suppressedWarnings.incrementAndGet();
+        }
     }
 }
@@ -0,0 +1,73 @@
+package io.crdb.spring.common;
+
+import org.springframework.jdbc.core.JdbcOperations;
+
+import java.util.List;
+
+/**
+ * The output of CockroachDB's {@code EXPLAIN} for one statement, one line per row.  Used by tests to check that a
+ * statement is served by the index it was written for rather than a full table scan, for example:
+ * <pre>{@code
+ * ExplainPlan plan = ExplainPlan.of(jdbcTemplate, "SELECT * FROM users WHERE updated_timestamp IS NULL");
+ * assertTrue(plan.usesIndex("users_not_updated_idx"), plan::text);
+ * assertFalse(plan.hasFullTableScan(), plan::text);
+ * }</pre>
+ *
+ * @param sql   the statement that was explained
+ * @param lines the plan, top to bottom
+ */
+public record ExplainPlan(String sql, List<String> lines) {
+
+    public ExplainPlan {
+        lines = List.copyOf(lines);
+    }
+
+    /**
+     * Explains {@code sql} without running it.  {@code args} are bound to its placeholders so the plan matches the
+     * one the statement gets when executed.
+     */
+    public static ExplainPlan of(JdbcOperations jdbcOperations, String sql, Object... args) {
+        return new ExplainPlan(sql, jdbcOperations.queryForList("EXPLAIN " + sql, String.class, args));
+    }
+
+    /**
+     * Whether any scan reads {@code index}.  CockroachDB prints scans as {@code table@index}.
+     */
+    public boolean usesIndex(String index) {
+        String suffix = "@" + index;
+        return lines.stream().anyMatch(line -> line.contains(suffix + " ") || line.endsWith(suffix));
+    }
+
+    /**
+     * Whether any scan reads every row of a table, printed as {@code spans: FULL SCAN} under a {@code table:} line.
+     * Reading all of a partial index is not counted: it only holds the rows matching its predicate, which is the point
+     * of the index.
+     */
+    public boolean hasFullTableScan() {
+        String table = "";
+
+        for (String line : lines) {
+            String trimmed = line.strip();
+
+            if (trimmed.startsWith("table:")) {
+                table = trimmed;
+            } else if (trimmed.equals("spans: FULL SCAN") && !table.endsWith("(partial index)")) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Whether rows found in a secondary index are looked up again in the primary index, which means the index does
+     * not store every column the statement reads.
+     */
+    public boolean hasIndexJoin() {
+        return lines.stream().anyMatch(line -> line.contains("index join"));
+    }
+
+    public String text() {
+        return sql + System.lineSeparator() + String.join(System.lineSeparator(), lines);
+    }
+}
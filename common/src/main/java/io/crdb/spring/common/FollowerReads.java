@@ -0,0 +1,64 @@
+package io.crdb.spring.common;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Builds the {@code AS OF SYSTEM TIME} clauses used for {@link ReadConsistency#FOLLOWER} reads and keeps a count of
+ * which operations took the stale path.  The timestamp expression comes from {@code demo.follower-read.as-of} and
+ * defaults to {@code follower_read_timestamp()}, the most recent timestamp any replica can serve.  An interval such as
+ * {@code '-10s'} can be used to bound staleness explicitly.
+ */
+@Component
+public class FollowerReads {
+
+    private static final Logger logger = LoggerFactory.getLogger(FollowerReads.class);
+
+    private final String asOf;
+    private final ConcurrentMap<String, LongAdder> staleReads = new ConcurrentHashMap<>();
+
+    public FollowerReads(@Value("${demo.follower-read.as-of:follower_read_timestamp()}") String asOf) {
+        this.asOf = asOf;
+    }
+
+    /**
+     * Clause appended to a table reference, e.g. {@code SELECT * FROM users AS OF SYSTEM TIME ... WHERE ...}.
+     */
+    public String asOfSystemTime() {
+        return "AS OF SYSTEM TIME " + asOf;
+    }
+
+    /**
+     * Statement that turns the current transaction into a follower read.  It must be the first statement executed in
+     * the transaction.
+     */
+    public String setTransactionSql() {
+        return "SET TRANSACTION " + asOfSystemTime();
+    }
+
+    /**
+     * Records that {@code operation} was served with a follower read.
+     */
+    public void record(String operation) {
+        staleReads.computeIfAbsent(operation, key -> new LongAdder()).increment();
+
+        logger.debug("follower read for [{}] {}", operation, asOfSystemTime());
+    }
+
+    /**
+     * Number of follower reads per operation since startup.
+     */
+    public Map<String, Long> staleReadCounts() {
+        Map<String, Long> counts = new TreeMap<>();
+        staleReads.forEach((operation, count) -> counts.put(operation, count.sum()));
+        return counts;
+    }
+}
@@ -0,0 +1,84 @@
+package io.crdb.spring.common;
+
+import org.springframework.retry.RetryContext;
+import org.springframework.retry.backoff.BackOffContext;
+import org.springframework.retry.backoff.BackOffInterruptedException;
+import org.springframework.retry.backoff.Sleeper;
+import org.springframework.retry.backoff.SleepingBackOffPolicy;
+import org.springframework.retry.backoff.ThreadWaitSleeper;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.DoubleSupplier;
+
+/**
+ * Exponential backoff with "full jitter": before retry {@code n} the caller sleeps for a uniformly random time between
+ * zero and {@code min(maxInterval, initialInterval * multiplier^n)}.  Unlike a fixed or purely exponential backoff,
+ * clients that failed together do not retry together, which keeps contended transactions from colliding again.
+ */
+public class FullJitterBackOffPolicy implements SleepingBackOffPolicy<FullJitterBackOffPolicy> {
+
+    private final long initialInterval;
+    private final long maxInterval;
+    private final double multiplier;
+    private final Sleeper sleeper;
+    private final DoubleSupplier random;
+
+    public FullJitterBackOffPolicy(Duration initialInterval, Duration maxInterval, double multiplier) {
+        this(initialInterval.toMillis(), maxInterval.toMillis(), multiplier, new ThreadWaitSleeper(), () -> ThreadLocalRandom.current().nextDouble());
+    }
+
+    FullJitterBackOffPolicy(long initialInterval, long maxInterval, double multiplier, Sleeper sleeper, DoubleSupplier random) {
+        if (initialInterval < 1) {
+            throw new IllegalArgumentException("initialInterval must be positive but was " + initialInterval);
+        }
+        if (maxInterval < initialInterval) {
+            throw new IllegalArgumentException("maxInterval must not be less than initialInterval but was " + maxInterval);
+        }
+        if (multiplier < 1) {
+            throw new IllegalArgumentException("multiplier must be at least 1 but was " + multiplier);
+        }
+
+        this.initialInterval = initialInterval;
+        this.maxInterval = maxInterval;
+        this.multiplier = multiplier;
+        this.sleeper = sleeper;
+        this.random = random;
+    }
+
+    @Override
+    public FullJitterBackOffPolicy withSleeper(Sleeper sleeper) {
+        return new FullJitterBackOffPolicy(initialInterval, maxInterval, multiplier, sleeper, random);
+    }
+
+    @Override
+    public BackOffContext start(RetryContext context) {
+        return new JitterBackOffContext();
+    }
+
+    @Override
+    public void backOff(BackOffContext backOffContext) throws BackOffInterruptedException {
+        JitterBackOffContext context = (JitterBackOffContext) backOffContext;
+
+        long sleep = (long) (random.getAsDouble() * (ceiling(context.attempt++) + 1));
+
+        try {
+            sleeper.sleep(sleep);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new BackOffInterruptedException("Thread interrupted while sleeping", e);
+        }
+    }
+
+    /**
+     * Upper bound of the backoff before retry {@code attempt} (0 based).
+     */
+    long ceiling(int attempt) {
+        double ceiling = initialInterval * Math.pow(multiplier, attempt);
+        return ceiling >= maxInterval ? maxInterval : (long) ceiling;
+    }
+
+    private static class JitterBackOffContext implements BackOffContext {
+        private int attempt;
+    }
+}
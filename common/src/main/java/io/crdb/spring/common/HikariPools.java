@@ -0,0 +1,83 @@
+package io.crdb.spring.common;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.zaxxer.hikari.HikariDataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * {@link DataSource} operations used by {@link ConnectionCircuitBreaker}.
+ */
+final class HikariPools {
+
+    private static final Logger logger = LoggerFactory.getLogger(HikariPools.class);
+
+    // daemon threads, a probe stuck in getConnection() must not keep the JVM alive or hold up the next probe
+    private static final ExecutorService PROBES = Executors.newCachedThreadPool(
+            new ThreadFactoryBuilder().setNameFormat("connection-probe-%d").setDaemon(true).build());
+
+    private HikariPools() {
+    }
+
+    /**
+     * Checks out a connection and validates it, i.e. the half-open probe.  The probe runs on the calling request thread,
+     * so the whole probe, including the wait in {@link DataSource#getConnection()} that Hikari bounds only by its
+     * {@code connectionTimeout}, is cut off after {@code timeout}.  A probe that times out still closes its connection
+     * once the checkout completes.
+     */
+    static boolean probe(DataSource dataSource, Duration timeout) {
+        CompletableFuture<Boolean> check = CompletableFuture.supplyAsync(() -> isValid(dataSource, timeout), PROBES);
+
+        try {
+            return check.get(timeout.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            logger.debug("connection probe timed out after {} ms", timeout.toMillis());
+            return false;
+        } catch (ExecutionException e) {
+            logger.debug("connection probe failed: {}", e.getCause().toString());
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private static boolean isValid(DataSource dataSource, Duration timeout) {
+        try (Connection connection = dataSource.getConnection()) {
+            return connection.isValid((int) Math.max(1, timeout.toSeconds()));
+        } catch (SQLException e) {
+            logger.debug("connection probe failed: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Retires every pooled connection: idle ones now, in use ones when they are returned.  New connections go back
+     * through the load balancer, which routes them to live nodes.
+     */
+    static void softEvict(DataSource dataSource) {
+        try {
+            if (dataSource.isWrapperFor(HikariDataSource.class)) {
+                HikariDataSource hikari = dataSource.unwrap(HikariDataSource.class);
+
+                if (hikari.getHikariPoolMXBean() != null) {
+                    hikari.getHikariPoolMXBean().softEvictConnections();
+                    logger.info("soft evicted connections from pool {}", hikari.getPoolName());
+                }
+            }
+        } catch (SQLException e) {
+            logger.warn("unable to evict connections: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package io.crdb.spring.common;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration(proxyBeanMethods = false)
+@EnableConfigurationProperties(IngestionProperties.class)
+public class IngestionConfiguration {
+
+    @Bean
+    public IngestionPipeline ingestionPipeline(IngestionProperties properties, ObjectProvider<MeterRegistry> meterRegistry) {
+        return new IngestionPipeline(properties, meterRegistry.getIfAvailable(() -> Metrics.globalRegistry));
+    }
+}
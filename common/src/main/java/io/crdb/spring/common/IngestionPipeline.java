@@ -0,0 +1,268 @@
+package io.crdb.spring.common;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+/**
+ * Streams generated users into the database with generation and inserts overlapping.  The calling thread pulls rows
+ * from a lazy {@link Stream}, groups them into {@code demo.ingest.batch-size} batches and puts them on a bounded queue;
+ * {@code demo.ingest.writers} threads take batches off the queue and hand them to a {@link BatchWriter}.  When the
+ * writers fall behind the queue fills and generation blocks, so memory stays at roughly
+ * {@code (queue-capacity + writers) * batch-size} rows however many rows are loaded.
+ * <p>
+ * Time generation spends blocked on a full queue means the database is the bottleneck; time writers spend idle on an
+ * empty queue means generation is.  Both are reported in the {@link Result} and as {@code demo.ingest.*} meters.
+ */
+public class IngestionPipeline {
+
+    private static final Logger logger = LoggerFactory.getLogger(IngestionPipeline.class);
+
+    // compared by identity, tells a writer there are no more batches
+    private static final List<UserDTO> END = new ArrayList<>(0);
+
+    private final IngestionProperties properties;
+    private final MeterRegistry registry;
+
+    public IngestionPipeline(IngestionProperties properties, MeterRegistry registry) {
+        this.properties = properties;
+        this.registry = registry;
+    }
+
+    /**
+     * Writes one batch, typically with a single multi-row insert or JDBC batch in its own transaction.  Implementations
+     * are called from several threads at once.
+     */
+    @FunctionalInterface
+    public interface BatchWriter {
+        void write(List<UserDTO> batch);
+    }
+
+    /**
+     * Drains {@code source} into {@code writer} and waits for the last batch to be written.  If a batch or the source
+     * fails the remaining rows are not generated, batches already queued are discarded and the first failure is
+     * rethrown.
+     */
+    public Result run(Stream<UserDTO> source, BatchWriter writer) {
+        BlockingQueue<List<UserDTO>> queue = new ArrayBlockingQueue<>(properties.queueCapacity());
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        Stats stats = new Stats();
+
+        ThreadFactory threadFactory = new ThreadFactoryBuilder().setNameFormat("ingest-writer-%d").build();
+
+        logger.info("ingesting with {} writers, batches of {} and room for {} queued batches",
+                properties.writers(), properties.batchSize(), properties.queueCapacity());
+
+        long start = System.nanoTime();
+
+        try (ExecutorService executorService = Executors.newFixedThreadPool(properties.writers(), threadFactory)) {
+            for (int i = 0; i < properties.writers(); i++) {
+                executorService.execute(() -> drain(queue, writer, failure, stats));
+            }
+
+            try {
+                try {
+                    produce(source, queue, failure, stats);
+                } catch (RuntimeException | Error e) {
+                    // writers discard what is still queued once a failure is recorded, so the END puts below cannot block
+                    recordFailure(failure, e);
+                }
+
+                for (int i = 0; i < properties.writers(); i++) {
+                    queue.put(END);
+                }
+            } catch (InterruptedException e) {
+                executorService.shutdownNow();
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("interrupted while ingesting", e);
+            }
+        }
+
+        Throwable thrown = failure.get();
+
+        if (thrown instanceof Error error) {
+            throw error;
+        } else if (thrown instanceof RuntimeException runtimeException) {
+            throw runtimeException;
+        } else if (thrown != null) {
+            throw new IllegalStateException("ingestion failed", thrown);
+        }
+
+        Result result = new Result(stats.written.sum(), stats.batches.sum(), Duration.ofNanos(System.nanoTime() - start),
+                Duration.ofNanos(stats.generatingNanos), Duration.ofNanos(stats.blockedNanos),
+                Duration.ofNanos(stats.writingNanos.sum()), Duration.ofNanos(stats.idleNanos.sum()), stats.maxQueueDepth);
+
+        logger.info(result.format());
+
+        return result;
+    }
+
+    private void produce(Stream<UserDTO> source, BlockingQueue<List<UserDTO>> queue, AtomicReference<Throwable> failure,
+                         Stats stats) throws InterruptedException {
+        Counter generated = Counter.builder("demo.ingest.rows").tag("stage", "generated").register(registry);
+        Timer blocked = Timer.builder("demo.ingest.blocked")
+                .description("time generation waited for room on the queue")
+                .register(registry);
+
+        int batchSize = properties.batchSize();
+        List<UserDTO> batch = new ArrayList<>(batchSize);
+        long started = System.nanoTime();
+
+        Iterator<UserDTO> rows = source.iterator();
+
+        while (failure.get() == null && rows.hasNext()) {
+            batch.add(rows.next());
+
+            if (batch.size() == batchSize || !rows.hasNext()) {
+                long offered = System.nanoTime();
+                queue.put(batch);
+                long waited = System.nanoTime() - offered;
+
+                stats.blockedNanos += waited;
+                stats.maxQueueDepth = Math.max(stats.maxQueueDepth, queue.size());
+                blocked.record(waited, TimeUnit.NANOSECONDS);
+                generated.increment(batch.size());
+
+                batch = new ArrayList<>(batchSize);
+            }
+        }
+
+        stats.generatingNanos = System.nanoTime() - started - stats.blockedNanos;
+    }
+
+    private void drain(BlockingQueue<List<UserDTO>> queue, BatchWriter writer, AtomicReference<Throwable> failure, Stats stats) {
+        Counter written = Counter.builder("demo.ingest.rows").tag("stage", "written").register(registry);
+        Timer idle = Timer.builder("demo.ingest.idle")
+                .description("time writers waited for a batch")
+                .register(registry);
+        Timer writes = Timer.builder("demo.ingest.batches")
+                .description("time to write one batch")
+                .register(registry);
+
+        try {
+            while (true) {
+                long waiting = System.nanoTime();
+                List<UserDTO> batch = queue.take();
+                long taken = System.nanoTime();
+
+                if (batch == END) {
+                    return;
+                }
+
+                stats.idleNanos.add(taken - waiting);
+                idle.record(taken - waiting, TimeUnit.NANOSECONDS);
+
+                // after a failure keep draining so generation is never left blocked on a full queue
+                if (failure.get() != null) {
+                    continue;
+                }
+
+                // Throwable so that an Error does not end this writer and leave generation blocked on a full queue
+                try {
+                    writer.write(batch);
+                } catch (Throwable e) {
+                    if (recordFailure(failure, e)) {
+                        logger.warn("batch of {} rows failed, stopping ingestion: {}", batch.size(), e.toString());
+                    }
+                    continue;
+                }
+
+                long elapsed = System.nanoTime() - taken;
+                stats.writingNanos.add(elapsed);
+                stats.written.add(batch.size());
+                stats.batches.increment();
+                writes.record(elapsed, TimeUnit.NANOSECONDS);
+                written.increment(batch.size());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // keeps the first failure and attaches later ones to it
+    private static boolean recordFailure(AtomicReference<Throwable> failure, Throwable e) {
+        if (failure.compareAndSet(null, e)) {
+            return true;
+        }
+
+        Throwable first = failure.get();
+        if (first != e) {
+            first.addSuppressed(e);
+        }
+        return false;
+    }
+
+    // producer fields are only touched by the calling thread
+    private static final class Stats {
+        final LongAdder written = new LongAdder();
+        final LongAdder batches = new LongAdder();
+        final LongAdder writingNanos = new LongAdder();
+        final LongAdder idleNanos = new LongAdder();
+        long generatingNanos;
+        long blockedNanos;
+        int maxQueueDepth;
+    }
+
+    /**
+     * @param rows          rows written
+     * @param batches       batches written
+     * @param elapsed       wall time of the whole run
+     * @param generating    time the calling thread spent generating rows
+     * @param blocked       time generation waited because the queue was full, the database is the bottleneck
+     * @param writing       time writers spent writing, summed over writers
+     * @param idle          time writers waited for a batch, summed over writers, generation is the bottleneck
+     * @param maxQueueDepth most batches seen waiting on the queue
+     */
+    public record Result(long rows, long batches, Duration elapsed, Duration generating, Duration blocked,
+                         Duration writing, Duration idle, int maxQueueDepth) {
+
+        /**
+         * Rows written per second of wall time.
+         */
+        public double throughput() {
+            return perSecond(rows, elapsed);
+        }
+
+        /**
+         * Rows per second generation could sustain on its own.
+         */
+        public double generationRate() {
+            return perSecond(rows, generating);
+        }
+
+        /**
+         * Rows per second a single writer sustains while it has work.
+         */
+        public double writerRate() {
+            return perSecond(rows, writing);
+        }
+
+        public String format() {
+            return String.format("ingested %d rows in %d batches in %.1f s (%.0f rows/s); generation %.0f rows/s, blocked %.1f s on a full queue; "
+                            + "writers %.0f rows/s each, idle %.1f s waiting for batches; max queue depth %d",
+                    rows, batches, elapsed.toNanos() / 1e9, throughput(), generationRate(), blocked.toNanos() / 1e9,
+                    writerRate(), idle.toNanos() / 1e9, maxQueueDepth);
+        }
+
+        private static double perSecond(long rows, Duration duration) {
+            return duration.isZero() ? 0 : rows / (duration.toNanos() / 1e9);
+        }
+    }
+}
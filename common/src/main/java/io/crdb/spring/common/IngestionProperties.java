@@ -0,0 +1,29 @@
+package io.crdb.spring.common;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Settings for {@link IngestionPipeline}.
+ *
+ * @param writers       threads draining batches into the database, each with its own connection
+ * @param batchSize     rows handed to a writer at a time
+ * @param queueCapacity batches that may wait between generation and the writers before generation blocks
+ */
+@ConfigurationProperties("demo.ingest")
+public record IngestionProperties(@DefaultValue("4") int writers,
+                                  @DefaultValue("1024") int batchSize,
+                                  @DefaultValue("8") int queueCapacity) {
+
+    public IngestionProperties {
+        if (writers < 1) {
+            throw new IllegalArgumentException("writers must be positive but was " + writers);
+        }
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("batchSize must be positive but was " + batchSize);
+        }
+        if (queueCapacity < 1) {
+            throw new IllegalArgumentException("queueCapacity must be positive but was " + queueCapacity);
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package io.crdb.spring.common;
+
+import java.sql.Statement;
+
+/**
+ * Reconciles the update counts of an insert against the number of rows that were sent.  With
+ * {@code ON CONFLICT (id) DO NOTHING} a row that already exists reports {@code 0} instead of failing, so a batch that
+ * is replayed after {@code 40003} (statement completion unknown) shows up as {@code skipped} rather than as a primary
+ * key violation.  Drivers that rewrite batches report {@link Statement#SUCCESS_NO_INFO}, which is counted as
+ * {@code unknown}.
+ */
+public record InsertCounts(int attempted, int inserted, int skipped, int unknown) {
+
+    public static final InsertCounts NONE = new InsertCounts(0, 0, 0, 0);
+
+    /**
+     * Reconciles the result of {@link Statement#executeBatch()}, one count per row.
+     */
+    public static InsertCounts ofBatch(int attempted, int[] counts) {
+        return ofBatches(attempted, counts == null ? null : new int[][]{counts});
+    }
+
+    /**
+     * Reconciles the result of a batch split into several round trips, e.g. {@code JdbcTemplate.batchUpdate}.  Rows
+     * without a count, including all rows when {@code counts} is {@code null}, are {@code unknown}.
+     */
+    public static InsertCounts ofBatches(int attempted, int[][] counts) {
+        int reported = 0;
+        int inserted = 0;
+        int skipped = 0;
+        int unknown = 0;
+
+        if (counts != null) {
+            for (int[] batch : counts) {
+                for (int count : batch) {
+                    reported++;
+
+                    if (count > 0) {
+                        inserted += count;
+                    } else if (count == 0) {
+                        skipped++;
+                    } else {
+                        unknown++;
+                    }
+                }
+            }
+        }
+
+        return new InsertCounts(attempted, inserted, skipped, unknown + Math.max(0, attempted - reported));
+    }
+
+    /**
+     * Reconciles a single multi-row statement, where only the total number of inserted rows is known.
+     */
+    public static InsertCounts ofStatement(int attempted, int inserted) {
+        return new InsertCounts(attempted, inserted, attempted - inserted, 0);
+    }
+
+    public InsertCounts plus(InsertCounts other) {
+        return new InsertCounts(attempted + other.attempted, inserted + other.inserted, skipped + other.skipped, unknown + other.unknown);
+    }
+}
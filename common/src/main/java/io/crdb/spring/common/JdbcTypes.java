@@ -0,0 +1,55 @@
+package io.crdb.spring.common;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.UUID;
+
+/**
+ * Binds and reads the column types the user tables share, so every JDBC module converts them the same way.
+ * <p>
+ * {@code uuid} columns are bound with {@link PreparedStatement#setObject(int, Object)} and read with
+ * {@link ResultSet#getObject(String, Class)}.  The PostgreSQL driver sends and receives a {@link UUID} as its 16 bytes,
+ * whereas {@code setString(id.toString())} and {@code UUID.fromString(getString(...))} format, encode, decode and parse
+ * a 36 character string per row and leave the server to cast it.  {@code timestamp} columns go through
+ * {@link Timestamp}, which the driver binds in the JVM default time zone.
+ */
+public final class JdbcTypes {
+
+    private JdbcTypes() {
+    }
+
+    public static void setUuid(PreparedStatement ps, int index, UUID value) throws SQLException {
+        if (value == null) {
+            ps.setNull(index, Types.OTHER);
+        } else {
+            ps.setObject(index, value);
+        }
+    }
+
+    public static UUID getUuid(ResultSet rs, String column) throws SQLException {
+        return rs.getObject(column, UUID.class);
+    }
+
+    public static UUID getUuid(ResultSet rs, int column) throws SQLException {
+        return rs.getObject(column, UUID.class);
+    }
+
+    public static void setTimestamp(PreparedStatement ps, int index, ZonedDateTime value) throws SQLException {
+        ps.setTimestamp(index, value != null ? Timestamp.from(value.toInstant()) : null);
+    }
+
+    public static ZonedDateTime getTimestamp(ResultSet rs, String column) throws SQLException {
+        Timestamp timestamp = rs.getTimestamp(column);
+
+        if (timestamp == null) {
+            return null;
+        }
+
+        return ZonedDateTime.ofInstant(timestamp.toInstant(), ZoneId.systemDefault());
+    }
+}
@@ -0,0 +1,30 @@
+package io.crdb.spring.common;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * One page of a keyset (seek) paginated scan ordered by primary key.  {@code continuation} is the key of the last
+ * row on the page and is passed back to fetch the next page ({@code WHERE id > :continuation ORDER BY id LIMIT :n}),
+ * so every page is an index range lookup no matter how deep the scan goes.  It is {@code null} on the last page.
+ */
+public record KeysetPage<T>(List<T> content, UUID continuation) {
+
+    public KeysetPage {
+        content = List.copyOf(content);
+    }
+
+    /**
+     * Builds a page from the rows returned for a query with {@code LIMIT limit}.  A short page means the scan is
+     * complete.
+     */
+    public static <T> KeysetPage<T> of(List<T> content, int limit, Function<T, UUID> key) {
+        UUID continuation = !content.isEmpty() && content.size() >= limit ? key.apply(content.get(content.size() - 1)) : null;
+        return new KeysetPage<>(content, continuation);
+    }
+
+    public boolean hasNext() {
+        return continuation != null;
+    }
+}
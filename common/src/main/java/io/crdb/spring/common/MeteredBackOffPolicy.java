@@ -0,0 +1,44 @@
+package io.crdb.spring.common;
+
+import org.springframework.retry.RetryContext;
+import org.springframework.retry.backoff.BackOffContext;
+import org.springframework.retry.backoff.BackOffInterruptedException;
+import org.springframework.retry.backoff.BackOffPolicy;
+
+import java.time.Duration;
+
+/**
+ * Reports every backoff, and therefore every retry, of the wrapped {@link BackOffPolicy} to a
+ * {@link RetryMetricsListener}.  Listeners are not told about backoff, so this is the only place that knows an attempt
+ * is actually going to be retried.
+ */
+public class MeteredBackOffPolicy implements BackOffPolicy {
+
+    private final BackOffPolicy delegate;
+    private final RetryMetricsListener metrics;
+
+    public MeteredBackOffPolicy(BackOffPolicy delegate, RetryMetricsListener metrics) {
+        this.delegate = delegate;
+        this.metrics = metrics;
+    }
+
+    @Override
+    public BackOffContext start(RetryContext context) {
+        return new MeteredBackOffContext(context, delegate.start(context));
+    }
+
+    @Override
+    public void backOff(BackOffContext backOffContext) throws BackOffInterruptedException {
+        MeteredBackOffContext context = (MeteredBackOffContext) backOffContext;
+
+        long start = System.nanoTime();
+        try {
+            delegate.backOff(context.delegate);
+        } finally {
+            metrics.onBackOff(context.retryContext, Duration.ofNanos(System.nanoTime() - start));
+        }
+    }
+
+    private record MeteredBackOffContext(RetryContext retryContext, BackOffContext delegate) implements BackOffContext {
+    }
+}
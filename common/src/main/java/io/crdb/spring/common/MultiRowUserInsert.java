@@ -0,0 +1,169 @@
+package io.crdb.spring.common;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Builds multi-row {@code INSERT INTO table VALUES (...),(...),...} statements for {@link UserDTO} rows.  Unlike the
+ * driver's {@code reWriteBatchedInserts}, which re-parses each batch and only rewrites power-of-two chunks, every
+ * statement shape is built once per row count and the {@link PreparedStatement} is reused for the life of a
+ * {@link Session}.  This keeps the number of distinct statement fingerprints in CockroachDB small and predictable.
+ * An idempotent instance appends {@value #ON_CONFLICT_DO_NOTHING} so that replaying a statement is a no-op.
+ */
+public class MultiRowUserInsert {
+
+    public static final int COLUMNS = 10;
+
+    /**
+     * Skips rows whose primary key already exists, so a statement retried after {@code 40003} does not fail with a
+     * unique violation if the first attempt committed.
+     */
+    public static final String ON_CONFLICT_DO_NOTHING = " ON CONFLICT (id) DO NOTHING";
+
+    private final String table;
+    private final boolean idempotent;
+    private final ConcurrentMap<Integer, String> sqlByRowCount = new ConcurrentHashMap<>();
+
+    public MultiRowUserInsert(String table) {
+        this(table, false);
+    }
+
+    public MultiRowUserInsert(String table, boolean idempotent) {
+        this.table = table;
+        this.idempotent = idempotent;
+    }
+
+    /**
+     * Returns the cached statement text for {@code rows} rows.
+     */
+    public String sql(int rows) {
+        if (rows < 1) {
+            throw new IllegalArgumentException("rows must be positive but was " + rows);
+        }
+
+        return sqlByRowCount.computeIfAbsent(rows, this::buildSql);
+    }
+
+    /**
+     * Opens a session that caches one {@link PreparedStatement} per row count on the given connection.  The caller
+     * owns the connection; closing the session only closes the statements.
+     */
+    public Session open(Connection connection) {
+        return new Session(connection);
+    }
+
+    /**
+     * Binds every {@link UserDTO} field of {@code user} starting at parameter {@code offset} (1 based).
+     *
+     * @return the next free parameter index
+     */
+    public static int bind(PreparedStatement ps, int offset, UserDTO user) throws SQLException {
+        JdbcTypes.setUuid(ps, offset, user.id());
+        ps.setString(offset + 1, user.firstName());
+        ps.setString(offset + 2, user.lastName());
+        ps.setString(offset + 3, user.email());
+        ps.setString(offset + 4, user.address());
+        ps.setString(offset + 5, user.city());
+        ps.setString(offset + 6, user.stateCode());
+        ps.setString(offset + 7, user.zipCode());
+        JdbcTypes.setTimestamp(ps, offset + 8, user.createdTimestamp());
+        JdbcTypes.setTimestamp(ps, offset + 9, user.updatedTimestamp());
+        return offset + COLUMNS;
+    }
+
+    private String buildSql(int rows) {
+        StringBuilder sb = new StringBuilder(64 + table.length() + rows * (COLUMNS * 2 + 3));
+        sb.append("INSERT INTO ").append(table).append(" VALUES ");
+
+        for (int row = 0; row < rows; row++) {
+            if (row > 0) {
+                sb.append(',');
+            }
+            sb.append('(');
+            for (int column = 0; column < COLUMNS; column++) {
+                if (column > 0) {
+                    sb.append(',');
+                }
+                sb.append('?');
+            }
+            sb.append(')');
+        }
+
+        if (idempotent) {
+            sb.append(ON_CONFLICT_DO_NOTHING);
+        }
+
+        return sb.toString();
+    }
+
+    public class Session implements AutoCloseable {
+
+        private final Connection connection;
+        private final Map<Integer, PreparedStatement> statements = new HashMap<>();
+
+        private Session(Connection connection) {
+            this.connection = connection;
+        }
+
+        /**
+         * Inserts all {@code users} with a single statement.  Callers are expected to chunk their input to a fixed size
+         * so that only one or two statement shapes (full chunks and the remainder) are ever prepared.
+         *
+         * @return number of rows inserted
+         */
+        public int execute(List<UserDTO> users) throws SQLException {
+            if (users.isEmpty()) {
+                return 0;
+            }
+
+            PreparedStatement ps = statement(users.size());
+
+            int index = 1;
+            for (UserDTO user : users) {
+                index = bind(ps, index, user);
+            }
+
+            return ps.executeUpdate();
+        }
+
+        private PreparedStatement statement(int rows) throws SQLException {
+            PreparedStatement ps = statements.get(rows);
+
+            if (ps == null) {
+                ps = connection.prepareStatement(sql(rows));
+                statements.put(rows, ps);
+            }
+
+            return ps;
+        }
+
+        @Override
+        public void close() throws SQLException {
+            SQLException failure = null;
+
+            for (PreparedStatement ps : statements.values()) {
+                try {
+                    ps.close();
+                } catch (SQLException e) {
+                    if (failure == null) {
+                        failure = e;
+                    } else {
+                        failure.addSuppressed(e);
+                    }
+                }
+            }
+
+            statements.clear();
+
+            if (failure != null) {
+                throw failure;
+            }
+        }
+    }
+}
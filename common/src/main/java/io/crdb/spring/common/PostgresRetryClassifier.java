@@ -1,25 +1,51 @@
 package io.crdb.spring.common;
 
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.classify.Classifier;
 import org.springframework.retry.RetryPolicy;
 import org.springframework.retry.policy.NeverRetryPolicy;
 import org.springframework.retry.policy.SimpleRetryPolicy;
 import org.springframework.stereotype.Component;
 
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Maps exceptions to retry policies.  Policies are created once and reused: {@code ExceptionClassifierRetryPolicy}
+ * keeps one retry context per policy instance, so returning a new policy for every exception would reset the attempt
+ * count on each failure.
+ */
 @Component
 public class PostgresRetryClassifier implements Classifier<Throwable, RetryPolicy> {
 
+    private static final RetryPolicy NEVER = new NeverRetryPolicy();
+
     private final ExceptionChecker exceptionChecker;
+    private final RetryPolicy defaultPolicy;
+    private final Map<String, RetryPolicy> policiesBySqlState = new HashMap<>();
 
     public PostgresRetryClassifier(ExceptionChecker exceptionChecker) {
+        this(exceptionChecker, RetryProperties.defaults());
+    }
+
+    @Autowired
+    public PostgresRetryClassifier(ExceptionChecker exceptionChecker, RetryProperties properties) {
         this.exceptionChecker = exceptionChecker;
+        this.defaultPolicy = new SimpleRetryPolicy(properties.maxAttempts());
+
+        properties.maxAttemptsBySqlState().forEach((sqlState, maxAttempts) ->
+                policiesBySqlState.put(sqlState, new SimpleRetryPolicy(maxAttempts)));
     }
 
     @Override
     public RetryPolicy classify(Throwable classifiable) {
-        if (exceptionChecker.shouldRetry(classifiable)) {
-            return new SimpleRetryPolicy(3);
+        if (!exceptionChecker.shouldRetry(classifiable)) {
+            return NEVER;
         }
-        return new NeverRetryPolicy();
+
+        String sqlState = exceptionChecker.sqlState(classifiable);
+        RetryPolicy policy = sqlState != null ? policiesBySqlState.get(sqlState) : null;
+
+        return policy != null ? policy : defaultPolicy;
     }
 }
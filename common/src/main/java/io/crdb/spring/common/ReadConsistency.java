@@ -0,0 +1,18 @@
+package io.crdb.spring.common;
+
+/**
+ * How fresh a read-only query has to be.
+ */
+public enum ReadConsistency {
+
+    /**
+     * Read at the latest timestamp.  Served by the leaseholder and may contend with concurrent writers.
+     */
+    STRONG,
+
+    /**
+     * Read at a slightly stale timestamp using {@code AS OF SYSTEM TIME}.  Served by the nearest replica and never
+     * blocks or causes retries in writers.  See {@link FollowerReads}.
+     */
+    FOLLOWER
+}
@@ -0,0 +1,72 @@
+package io.crdb.spring.common;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Process wide token bucket that limits retries to a fraction of calls.  Every call deposits {@code ratio} tokens, up
+ * to {@code burst} tokens, and every retry withdraws one.  When the bucket is empty retries are shed, so a burst of
+ * contention cannot turn into a retry storm that multiplies the load on the cluster.  Thread safe and lock free.
+ */
+public class RetryBudget {
+
+    // tokens are stored as fixed point to keep the bucket in a single AtomicLong
+    private static final long SCALE = 1000;
+
+    private final long deposit;
+    private final long capacity;
+    private final AtomicLong balance;
+    private final LongAdder shed = new LongAdder();
+
+    public RetryBudget(double ratio, int burst) {
+        if (ratio < 0) {
+            throw new IllegalArgumentException("ratio must not be negative but was " + ratio);
+        }
+        if (burst < 0) {
+            throw new IllegalArgumentException("burst must not be negative but was " + burst);
+        }
+
+        this.deposit = Math.round(ratio * SCALE);
+        this.capacity = Math.max(burst, 1) * SCALE;
+        this.balance = new AtomicLong(burst * SCALE);
+    }
+
+    /**
+     * Records a call, earning {@code ratio} retries.
+     */
+    public void recordCall() {
+        balance.accumulateAndGet(deposit, (current, amount) -> Math.min(capacity, current + amount));
+    }
+
+    /**
+     * Withdraws one retry from the budget.
+     *
+     * @return {@code false} if the budget is exhausted and the retry should be shed
+     */
+    public boolean tryAcquireRetry() {
+        long current;
+        do {
+            current = balance.get();
+            if (current < SCALE) {
+                shed.increment();
+                return false;
+            }
+        } while (!balance.compareAndSet(current, current - SCALE));
+
+        return true;
+    }
+
+    /**
+     * Retries currently available.
+     */
+    public double available() {
+        return (double) balance.get() / SCALE;
+    }
+
+    /**
+     * Retries shed since startup.
+     */
+    public long shedRetries() {
+        return shed.sum();
+    }
+}
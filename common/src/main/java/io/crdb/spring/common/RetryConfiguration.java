@@ -0,0 +1,106 @@
+package io.crdb.spring.common;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.retry.RetryPolicy;
+import org.springframework.retry.interceptor.RetryInterceptorBuilder;
+import org.springframework.retry.interceptor.RetryOperationsInterceptor;
+import org.springframework.retry.policy.ExceptionClassifierRetryPolicy;
+import org.springframework.retry.support.RetryTemplate;
+import org.springframework.retry.support.RetryTemplateBuilder;
+
+import javax.sql.DataSource;
+
+/**
+ * Retry configuration shared by every application.  The same {@link RetryTemplate} backs programmatic retries and,
+ * through the {@code postgresRetryInterceptor} bean, methods annotated with
+ * {@code @Retryable(interceptor = "postgresRetryInterceptor")}, so both paths share one backoff policy and one
+ * {@link RetryBudget}, both are recorded by {@link RetryMetricsListener} and both fail fast while the
+ * {@link ConnectionCircuitBreaker} is open.
+ */
+@Configuration(proxyBeanMethods = false)
+@EnableConfigurationProperties({RetryProperties.class, CircuitBreakerProperties.class})
+public class RetryConfiguration {
+
+    @Bean
+    public RetryBudget retryBudget(RetryProperties properties) {
+        return new RetryBudget(properties.budget().ratio(), properties.budget().burst());
+    }
+
+    /**
+     * Uses the application's {@link MeterRegistry} when Actuator provides one and the global registry otherwise.
+     */
+    @Bean
+    public RetryMetricsListener retryMetricsListener(ObjectProvider<MeterRegistry> meterRegistry, ExceptionChecker exceptionChecker) {
+        return new RetryMetricsListener(meterRegistry.getIfAvailable(() -> Metrics.globalRegistry), exceptionChecker);
+    }
+
+    /**
+     * Trips on bursts of connection failures, probes with a pooled connection and soft evicts the Hikari pool when it
+     * opens so that new connections are routed to live nodes.
+     */
+    @Bean
+    @ConditionalOnProperty(name = "demo.circuit-breaker.enabled", havingValue = "true", matchIfMissing = true)
+    public ConnectionCircuitBreakerListener connectionCircuitBreakerListener(CircuitBreakerProperties properties, DataSource dataSource,
+                                                                             ExceptionChecker exceptionChecker) {
+        ConnectionCircuitBreaker circuitBreaker = new ConnectionCircuitBreaker(
+                properties.failureThreshold(),
+                properties.window(),
+                properties.openDuration(),
+                () -> HikariPools.probe(dataSource, properties.probeTimeout()),
+                () -> HikariPools.softEvict(dataSource));
+
+        return new ConnectionCircuitBreakerListener(circuitBreaker, exceptionChecker);
+    }
+
+    /**
+     * {@link PostgresRetryClassifier} decides whether an exception is retryable and how many attempts its SQL state
+     * gets, {@link FullJitterBackOffPolicy} spreads the retries out and, if enabled, {@link BudgetedRetryPolicy} sheds
+     * retries once they exceed the configured share of calls.
+     */
+    @Bean
+    public RetryTemplate retryTemplate(PostgresRetryClassifier classifier, RetryProperties properties, RetryBudget retryBudget,
+                                       RetryMetricsListener retryMetricsListener,
+                                       ObjectProvider<ConnectionCircuitBreakerListener> circuitBreakerListener) {
+        return buildRetryTemplate(classifier, properties, retryBudget, retryMetricsListener, circuitBreakerListener.getIfAvailable());
+    }
+
+    static RetryTemplate buildRetryTemplate(PostgresRetryClassifier classifier, RetryProperties properties, RetryBudget retryBudget,
+                                            RetryMetricsListener retryMetricsListener, ConnectionCircuitBreakerListener circuitBreakerListener) {
+        ExceptionClassifierRetryPolicy classifierPolicy = new ExceptionClassifierRetryPolicy();
+        classifierPolicy.setExceptionClassifier(classifier);
+
+        RetryPolicy policy = properties.budget().enabled()
+                ? new BudgetedRetryPolicy(classifierPolicy, retryBudget)
+                : classifierPolicy;
+
+        RetryProperties.Backoff backoff = properties.backoff();
+
+        RetryTemplateBuilder builder = RetryTemplate.builder()
+                .customPolicy(policy)
+                .customBackoff(new MeteredBackOffPolicy(
+                        new FullJitterBackOffPolicy(backoff.initialInterval(), backoff.maxInterval(), backoff.multiplier()),
+                        retryMetricsListener));
+
+        // the breaker goes first so that calls rejected while it is open are not timed as attempts
+        if (circuitBreakerListener != null) {
+            builder.withListener(circuitBreakerListener);
+        }
+
+        return builder
+                .withListener(retryMetricsListener)
+                .build();
+    }
+
+    @Bean
+    public RetryOperationsInterceptor postgresRetryInterceptor(RetryTemplate retryTemplate) {
+        return RetryInterceptorBuilder.stateless()
+                .retryOperations(retryTemplate)
+                .build();
+    }
+}
@@ -0,0 +1,149 @@
+package io.crdb.spring.common;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.retry.RetryCallback;
+import org.springframework.retry.RetryContext;
+import org.springframework.retry.RetryListener;
+import org.springframework.retry.interceptor.MethodInvocationRetryCallback;
+import org.springframework.util.ClassUtils;
+
+import java.time.Duration;
+
+/**
+ * Records retry behaviour with Micrometer, tagged by the retried method and the SQL state of the failure:
+ * <ul>
+ *     <li>{@code demo.retry.attempts} - every attempt, including the first</li>
+ *     <li>{@code demo.retry.errors} - failed attempts</li>
+ *     <li>{@code demo.retry.retries} - attempts that were retried, recorded by {@link MeteredBackOffPolicy}</li>
+ *     <li>{@code demo.retry.backoff} - time spent backing off, recorded by {@link MeteredBackOffPolicy}</li>
+ *     <li>{@code demo.retry.exhausted} - calls that failed with a retryable error after giving up</li>
+ *     <li>{@code demo.retry.calls} - end to end latency of each call including all retries and backoff, tagged
+ *     with its outcome ({@code success}, {@code failure} or {@code exhausted})</li>
+ * </ul>
+ * Retry ratio is {@code demo.retry.retries / demo.retry.attempts}.
+ */
+public class RetryMetricsListener implements RetryListener {
+
+    static final String METHOD_ATTRIBUTE = "demo.retry.method";
+    private static final String SAMPLE_ATTRIBUTE = "demo.retry.sample";
+
+    private static final String NO_SQL_STATE = "none";
+    private static final String PROGRAMMATIC = "retryTemplate";
+
+    private final MeterRegistry registry;
+    private final ExceptionChecker exceptionChecker;
+
+    public RetryMetricsListener(MeterRegistry registry, ExceptionChecker exceptionChecker) {
+        this.registry = registry;
+        this.exceptionChecker = exceptionChecker;
+    }
+
+    @Override
+    public <T, E extends Throwable> boolean open(RetryContext context, RetryCallback<T, E> callback) {
+        context.setAttribute(METHOD_ATTRIBUTE, method(context, callback));
+        context.setAttribute(SAMPLE_ATTRIBUTE, Timer.start(registry));
+        return true;
+    }
+
+    @Override
+    public <T, E extends Throwable> void onError(RetryContext context, RetryCallback<T, E> callback, Throwable throwable) {
+        Counter.builder("demo.retry.errors")
+                .description("Failed attempts")
+                .tag("method", method(context))
+                .tag("sql.state", sqlState(throwable))
+                .register(registry)
+                .increment();
+    }
+
+    @Override
+    public <T, E extends Throwable> void close(RetryContext context, RetryCallback<T, E> callback, Throwable throwable) {
+        // not opened because an earlier listener rejected the call
+        if (!(context.getAttribute(SAMPLE_ATTRIBUTE) instanceof Timer.Sample sample)) {
+            return;
+        }
+
+        String method = method(context);
+
+        Counter.builder("demo.retry.attempts")
+                .description("Attempts including the first")
+                .tag("method", method)
+                .register(registry)
+                .increment(context.getRetryCount() + (throwable == null ? 1 : 0));
+
+        String outcome;
+
+        if (throwable == null) {
+            outcome = "success";
+        } else if (context.isExhaustedOnly() || isRetryable(throwable)) {
+            outcome = "exhausted";
+
+            Counter.builder("demo.retry.exhausted")
+                    .description("Calls that gave up on a retryable error")
+                    .tag("method", method)
+                    .tag("sql.state", sqlState(throwable))
+                    .register(registry)
+                    .increment();
+        } else {
+            outcome = "failure";
+        }
+
+        sample.stop(Timer.builder("demo.retry.calls")
+                .description("End to end latency including retries")
+                .tag("method", method)
+                .tag("outcome", outcome)
+                .register(registry));
+    }
+
+    /**
+     * Called by {@link MeteredBackOffPolicy} each time a failed attempt is retried.
+     */
+    void onBackOff(RetryContext context, Duration backOff) {
+        String method = method(context);
+        String sqlState = sqlState(context.getLastThrowable());
+
+        Counter.builder("demo.retry.retries")
+                .description("Attempts that were retried")
+                .tag("method", method)
+                .tag("sql.state", sqlState)
+                .register(registry)
+                .increment();
+
+        Timer.builder("demo.retry.backoff")
+                .description("Time spent backing off before a retry")
+                .tag("method", method)
+                .tag("sql.state", sqlState)
+                .register(registry)
+                .record(backOff);
+    }
+
+    // not shouldRetry, which would log and rate limit the "not a SQLException" warning a second time
+    private boolean isRetryable(Throwable throwable) {
+        String sqlState = exceptionChecker.sqlState(throwable);
+        return sqlState != null && ExceptionChecker.isRetryableState(sqlState);
+    }
+
+    private String sqlState(Throwable throwable) {
+        String sqlState = exceptionChecker.sqlState(throwable);
+        return sqlState != null ? sqlState : NO_SQL_STATE;
+    }
+
+    private static String method(RetryContext context) {
+        Object method = context != null ? context.getAttribute(METHOD_ATTRIBUTE) : null;
+        return method != null ? method.toString() : PROGRAMMATIC;
+    }
+
+    private static String method(RetryContext context, RetryCallback<?, ?> callback) {
+        if (callback instanceof MethodInvocationRetryCallback<?, ?> methodCallback) {
+            MethodInvocation invocation = methodCallback.getInvocation();
+            Object target = invocation.getThis();
+            Class<?> type = target != null ? ClassUtils.getUserClass(target) : invocation.getMethod().getDeclaringClass();
+            return type.getSimpleName() + "." + invocation.getMethod().getName();
+        }
+
+        Object name = context.getAttribute(RetryContext.NAME);
+        return name != null ? name.toString() : PROGRAMMATIC;
+    }
+}
@@ -0,0 +1,52 @@
+package io.crdb.spring.common;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Retry settings shared by the {@code RetryTemplate} and {@code @Retryable} paths.  See {@link RetryConfiguration}.
+ *
+ * @param maxAttempts           attempts, including the first, for retryable errors without a more specific setting
+ * @param maxAttemptsBySqlState attempts for specific SQL states, e.g. {@code demo.retry.max-attempts-by-sql-state[40001]=5}
+ * @param backoff               exponential backoff with full jitter between attempts
+ * @param budget                process wide limit on the ratio of retries to calls
+ */
+@ConfigurationProperties("demo.retry")
+public record RetryProperties(@DefaultValue("3") int maxAttempts,
+                              Map<String, Integer> maxAttemptsBySqlState,
+                              @DefaultValue Backoff backoff,
+                              @DefaultValue Budget budget) {
+
+    public RetryProperties {
+        maxAttemptsBySqlState = maxAttemptsBySqlState == null ? Map.of() : Map.copyOf(maxAttemptsBySqlState);
+    }
+
+    public static RetryProperties defaults() {
+        return new RetryProperties(3, Map.of(),
+                new Backoff(Duration.ofMillis(10), Duration.ofSeconds(1), 2.0),
+                new Budget(true, 0.2, 10));
+    }
+
+    /**
+     * @param initialInterval upper bound of the first backoff
+     * @param maxInterval     upper bound of any backoff
+     * @param multiplier      growth of the upper bound per attempt
+     */
+    public record Backoff(@DefaultValue("10ms") Duration initialInterval,
+                          @DefaultValue("1s") Duration maxInterval,
+                          @DefaultValue("2.0") double multiplier) {
+    }
+
+    /**
+     * @param enabled whether retries are limited by a {@link RetryBudget}
+     * @param ratio   retries allowed per call once the burst allowance is used up
+     * @param burst   retries that can be made back to back before the ratio applies
+     */
+    public record Budget(@DefaultValue("true") boolean enabled,
+                         @DefaultValue("0.2") double ratio,
+                         @DefaultValue("10") int burst) {
+    }
+}
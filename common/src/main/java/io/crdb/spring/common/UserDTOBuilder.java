@@ -1,22 +1,38 @@
 package io.crdb.spring.common;
 
 import com.github.javafaker.Faker;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import java.time.ZonedDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Locale;
+import java.util.Random;
 import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Stream;
 
 @Component
 public class UserDTOBuilder {
 
+    private static final Logger logger = LoggerFactory.getLogger(UserDTOBuilder.class);
+
     @Value("${demo.row.size}")
     private int rowSize;
 
+    @Value("${demo.generator.seed:0}")
+    private long generatorSeed;
+
+    @Value("${demo.generator.dictionary-size:1000}")
+    private int dictionarySize;
+
     private final Faker faker;
 
+    private UserGenerator generator;
+
     public UserDTOBuilder(Faker faker) {
         this.faker = faker;
     }
@@ -33,6 +49,39 @@ public class UserDTOBuilder {
         return users;
     }
 
+    /**
+     * Generates {@code demo.row.size} users in parallel with {@link #streamUsers(long)}.  Much faster than
+     * {@link #buildUsers()} for bulk loads.
+     */
+    public List<UserDTO> generateUsers() {
+        return streamUsers().parallel().toList();
+    }
+
+    /**
+     * Returns a lazy stream of {@code demo.row.size} users, see {@link #streamUsers(long)}.
+     */
+    public Stream<UserDTO> streamUsers() {
+        return streamUsers(rowSize);
+    }
+
+    /**
+     * Returns a lazy stream of {@code count} users from a seeded {@link UserGenerator}.  Its dictionaries come from a
+     * Faker seeded with {@code demo.generator.seed}, not from the injected one, and are built once.  With the seed set
+     * the ids and values repeat across runs (created timestamps stay relative to startup); the default of {@code 0}
+     * picks a random seed and logs it.
+     */
+    public Stream<UserDTO> streamUsers(long count) {
+        return generator().stream(count);
+    }
+
+    /**
+     * Returns the next user from the same seeded {@link UserGenerator} as {@link #streamUsers(long)}.  Thread safe,
+     * unlike {@link #buildUser()}.
+     */
+    public UserDTO nextUser() {
+        return generator().next();
+    }
+
     public UserDTO buildUser() {
         return new UserDTO(
                 UUID.randomUUID(),
@@ -47,4 +96,16 @@ public class UserDTOBuilder {
                 null
         );
     }
+
+    // built on first use because the @Value fields are not set in the constructor
+    private synchronized UserGenerator generator() {
+        if (generator == null) {
+            long seed = generatorSeed != 0 ? generatorSeed : ThreadLocalRandom.current().nextLong();
+            generator = UserGenerator.fromFaker(new Faker(Locale.US, new Random(seed)), dictionarySize, seed, ZonedDateTime.now());
+
+            logger.info("generating users with seed {}", seed);
+        }
+
+        return generator;
+    }
 }
@@ -0,0 +1,212 @@
+package io.crdb.spring.common;
+
+import com.github.javafaker.Faker;
+
+import java.time.ZonedDateTime;
+import java.util.Locale;
+import java.util.SplittableRandom;
+import java.util.Spliterator;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Generates {@link UserDTO} rows fast enough to keep up with bulk inserts.  Faker is only used up front to fill small
+ * dictionaries of names, streets, cities and states; rows are then assembled from those with a {@link SplittableRandom}
+ * seeded from the generator seed and the row number.  Every row is therefore a pure function of {@code (seed, row)}, so
+ * the same seed produces the same rows in the same order however a parallel stream is split across the fork-join pool.
+ * <p>
+ * Instances are thread safe.  Successive calls to {@link #stream(long)} and {@link #next()} continue the sequence
+ * rather than restarting it, so ids do not repeat within one generator.
+ */
+public final class UserGenerator {
+
+    private static final String[] EMAIL_DOMAINS = {"example.com", "example.org", "example.net"};
+
+    // created timestamps are spread over the year before the generator's base time
+    private static final long CREATED_SPREAD_SECONDS = 365L * 24 * 60 * 60;
+
+    // below this many rows a spliterator is not split further, so each fork-join task builds a useful amount
+    private static final long MIN_SPLIT_ROWS = 1024;
+
+    private final Dictionary dictionary;
+    private final long seed;
+    private final ZonedDateTime baseTimestamp;
+    private final AtomicLong nextRow = new AtomicLong();
+
+    UserGenerator(Dictionary dictionary, long seed, ZonedDateTime baseTimestamp) {
+        this.dictionary = dictionary;
+        this.seed = seed;
+        this.baseTimestamp = baseTimestamp;
+    }
+
+    /**
+     * Builds a generator whose dictionaries hold {@code dictionarySize} values drawn from {@code faker}.  Faker is not
+     * thread safe and is only used inside this call.
+     *
+     * @param faker         seed its {@link java.util.Random} too for repeatable dictionaries
+     * @param baseTimestamp newest created timestamp a row can have; fix it as well as the seed for repeatable rows
+     */
+    public static UserGenerator fromFaker(Faker faker, int dictionarySize, long seed, ZonedDateTime baseTimestamp) {
+        if (dictionarySize < 1) {
+            throw new IllegalArgumentException("dictionarySize must be positive but was " + dictionarySize);
+        }
+
+        String[] firstNames = new String[dictionarySize];
+        String[] lastNames = new String[dictionarySize];
+        String[] streetNames = new String[dictionarySize];
+        String[] cities = new String[dictionarySize];
+        String[] stateCodes = new String[dictionarySize];
+
+        for (int i = 0; i < dictionarySize; i++) {
+            firstNames[i] = faker.name().firstName();
+            lastNames[i] = faker.name().lastName();
+            streetNames[i] = faker.address().streetName();
+            cities[i] = faker.address().city();
+            stateCodes[i] = faker.address().stateAbbr();
+        }
+
+        return new UserGenerator(new Dictionary(firstNames, lastNames, streetNames, cities, stateCodes), seed, baseTimestamp);
+    }
+
+    public long seed() {
+        return seed;
+    }
+
+    /**
+     * Returns the next {@code count} rows of the sequence as a lazy, ordered stream.  Rows are only built as the stream
+     * is consumed; call {@link Stream#parallel()} to build them on the fork-join pool.
+     */
+    public Stream<UserDTO> stream(long count) {
+        if (count < 0) {
+            throw new IllegalArgumentException("count must not be negative but was " + count);
+        }
+
+        long first = nextRow.getAndAdd(count);
+        return StreamSupport.stream(new RowSpliterator(first, first + count), false);
+    }
+
+    /**
+     * Returns the next row of the sequence, for callers that need one user at a time from several threads.
+     */
+    public UserDTO next() {
+        return user(nextRow.getAndIncrement());
+    }
+
+    /**
+     * Builds row number {@code row} of the sequence.
+     */
+    public UserDTO user(long row) {
+        SplittableRandom random = new SplittableRandom(mix(seed, row));
+
+        String firstName = pick(dictionary.firstNames, random);
+        String lastName = pick(dictionary.lastNames, random);
+
+        return new UserDTO(
+                uuid(random),
+                firstName,
+                lastName,
+                email(firstName, lastName, random),
+                (random.nextInt(9999) + 1) + " " + pick(dictionary.streetNames, random),
+                pick(dictionary.cities, random),
+                pick(dictionary.stateCodes, random),
+                zipCode(random),
+                baseTimestamp.minusSeconds(random.nextLong(CREATED_SPREAD_SECONDS)),
+                null
+        );
+    }
+
+    // random version 4 UUID
+    private static UUID uuid(SplittableRandom random) {
+        long msb = (random.nextLong() & 0xFFFFFFFFFFFF0FFFL) | 0x0000000000004000L;
+        long lsb = (random.nextLong() & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L;
+        return new UUID(msb, lsb);
+    }
+
+    private static String email(String firstName, String lastName, SplittableRandom random) {
+        return (firstName + '.' + lastName).toLowerCase(Locale.ROOT).replace(' ', '.').replace("'", "")
+                + random.nextInt(1000) + '@' + EMAIL_DOMAINS[random.nextInt(EMAIL_DOMAINS.length)];
+    }
+
+    private static String zipCode(SplittableRandom random) {
+        char[] digits = new char[5];
+        int value = random.nextInt(100_000);
+        for (int i = digits.length - 1; i >= 0; i--) {
+            digits[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+        return new String(digits);
+    }
+
+    // murmur3 finalizer, so neighbouring rows get unrelated random sequences
+    private static long mix(long seed, long row) {
+        long z = seed + row * 0xD1B54A32D192ED03L;
+        z = (z ^ (z >>> 33)) * 0xFF51AFD7ED558CCDL;
+        z = (z ^ (z >>> 33)) * 0xC4CEB9FE1A85EC53L;
+        return z ^ (z >>> 33);
+    }
+
+    private static String pick(String[] values, SplittableRandom random) {
+        return values[random.nextInt(values.length)];
+    }
+
+    record Dictionary(String[] firstNames, String[] lastNames, String[] streetNames, String[] cities, String[] stateCodes) {
+    }
+
+    /**
+     * Covers rows {@code [next, end)} and splits in half for parallel streams.
+     */
+    private final class RowSpliterator implements Spliterator<UserDTO> {
+
+        private long next;
+        private final long end;
+
+        RowSpliterator(long next, long end) {
+            this.next = next;
+            this.end = end;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super UserDTO> action) {
+            if (next >= end) {
+                return false;
+            }
+
+            action.accept(user(next++));
+            return true;
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super UserDTO> action) {
+            while (next < end) {
+                action.accept(user(next++));
+            }
+        }
+
+        @Override
+        public Spliterator<UserDTO> trySplit() {
+            long remaining = end - next;
+
+            if (remaining < 2 * MIN_SPLIT_ROWS) {
+                return null;
+            }
+
+            long middle = next + remaining / 2;
+            RowSpliterator prefix = new RowSpliterator(next, middle);
+            next = middle;
+            return prefix;
+        }
+
+        @Override
+        public long estimateSize() {
+            return end - next;
+        }
+
+        @Override
+        public int characteristics() {
+            return ORDERED | SIZED | SUBSIZED | NONNULL | IMMUTABLE;
+        }
+    }
+}
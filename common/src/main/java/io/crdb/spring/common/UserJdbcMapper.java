@@ -0,0 +1,44 @@
+package io.crdb.spring.common;
+
+import org.springframework.jdbc.core.RowMapper;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Maps {@link UserDTO} to and from JDBC.  The datasource and jdbc-template user tables share the same columns in the
+ * same order, so both modules (and the benchmarks) use this one mapper.
+ */
+public final class UserJdbcMapper {
+
+    public static final RowMapper<UserDTO> ROW_MAPPER = (rs, rowNum) -> fromResultSet(rs);
+
+    private UserJdbcMapper() {
+    }
+
+    /**
+     * Binds every column of {@code user} to a single-row {@code INSERT ... VALUES (?,?,?,?,?,?,?,?,?,?)}.
+     */
+    public static void toStatement(PreparedStatement ps, UserDTO user) throws SQLException {
+        MultiRowUserInsert.bind(ps, 1, user);
+    }
+
+    /**
+     * Reads the current row of {@code rs}.
+     */
+    public static UserDTO fromResultSet(ResultSet rs) throws SQLException {
+        return new UserDTO(
+                JdbcTypes.getUuid(rs, "id"),
+                rs.getString("first_name"),
+                rs.getString("last_name"),
+                rs.getString("email"),
+                rs.getString("address"),
+                rs.getString("city"),
+                rs.getString("state_code"),
+                rs.getString("zip_code"),
+                JdbcTypes.getTimestamp(rs, "created_timestamp"),
+                JdbcTypes.getTimestamp(rs, "updated_timestamp")
+        );
+    }
+}
@@ -0,0 +1,74 @@
+package io.crdb.spring.common;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * A contiguous range of the UUID keyspace.  {@code lower} is inclusive and {@code upper} is exclusive; a {@code null}
+ * bound means the range is unbounded on that side.  Ranges are split on the leading 32 bits of the UUID and compared
+ * as unsigned bytes, which is how CockroachDB orders {@code uuid} columns, so each range maps to a contiguous span of
+ * the primary key.
+ */
+public record UuidKeyRange(UUID lower, UUID upper) {
+
+    /**
+     * Orders UUIDs the same way CockroachDB does (unsigned, byte by byte).  {@link UUID#compareTo(UUID)} compares signed
+     * longs and does not match the database.
+     */
+    public static final Comparator<UUID> ORDER = (a, b) -> {
+        int msb = Long.compareUnsigned(a.getMostSignificantBits(), b.getMostSignificantBits());
+        return msb != 0 ? msb : Long.compareUnsigned(a.getLeastSignificantBits(), b.getLeastSignificantBits());
+    };
+
+    private static final UuidKeyRange ALL = new UuidKeyRange(null, null);
+
+    public static UuidKeyRange all() {
+        return ALL;
+    }
+
+    /**
+     * Splits the UUID keyspace into {@code partitions} contiguous ranges of roughly equal size.
+     *
+     * @param partitions number of ranges, must be positive
+     * @return ranges ordered by key; the first has no lower bound and the last has no upper bound
+     */
+    public static List<UuidKeyRange> split(int partitions) {
+        checkPartitions(partitions);
+
+        List<UuidKeyRange> ranges = new ArrayList<>(partitions);
+        for (int i = 0; i < partitions; i++) {
+            UUID lower = i == 0 ? null : lowerBound(i, partitions);
+            UUID upper = i == partitions - 1 ? null : lowerBound(i + 1, partitions);
+            ranges.add(new UuidKeyRange(lower, upper));
+        }
+        return ranges;
+    }
+
+    /**
+     * Returns the index of the range produced by {@link #split(int)} that contains {@code id}.
+     */
+    public static int partitionOf(UUID id, int partitions) {
+        checkPartitions(partitions);
+
+        long prefix = id.getMostSignificantBits() >>> 32;
+        return (int) ((prefix * partitions) >>> 32);
+    }
+
+    public boolean contains(UUID id) {
+        return (lower == null || ORDER.compare(id, lower) >= 0) && (upper == null || ORDER.compare(id, upper) < 0);
+    }
+
+    // smallest 32 bit prefix p where p * partitions >= i * 2^32, keeps split() and partitionOf() consistent
+    private static UUID lowerBound(int i, int partitions) {
+        long prefix = (((long) i << 32) + partitions - 1) / partitions;
+        return new UUID(prefix << 32, 0L);
+    }
+
+    private static void checkPartitions(int partitions) {
+        if (partitions < 1) {
+            throw new IllegalArgumentException("partitions must be positive but was " + partitions);
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package io.crdb.spring.common;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.retry.support.RetryTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static io.crdb.spring.common.KeyResultSets.ids;
+import static io.crdb.spring.common.KeyResultSets.rows;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class ChunkedDeleterTest {
+
+    private static final String TABLE = "users";
+    private static final String PREDICATE = "updated_timestamp IS NOT NULL";
+
+    @Mock
+    private DataSource dataSource;
+
+    @Mock
+    private Connection connection;
+
+    @Mock
+    private PreparedStatement preparedStatement;
+
+    private SimpleMeterRegistry registry;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        MockitoAnnotations.openMocks(this);
+
+        when(dataSource.getConnection()).thenReturn(connection);
+        when(connection.prepareStatement(anyString())).thenReturn(preparedStatement);
+
+        registry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    @DisplayName("Should delete in chunks from the last key until a chunk comes back short")
+    void shouldDeleteInChunksUntilShortChunk() throws SQLException {
+        UUID[] ids = ids(5);
+        ResultSet first = rows(ids[1], ids[0]);
+        ResultSet second = rows(ids[2], ids[3]);
+        ResultSet last = rows(ids[4]);
+        when(preparedStatement.executeQuery()).thenReturn(first, second, last);
+
+        ChunkedDeleter.Result result = deleter(2, 1, 2, 0).delete(dataSource, TABLE, PREDICATE);
+
+        assertEquals(5, result.rows());
+        assertEquals(3, result.chunks());
+        assertEquals(ids[4], result.lastKey());
+        assertEquals(5, registry.get("demo.delete.rows").tag("table", TABLE).counter().count());
+        assertEquals(3, registry.get("demo.delete.chunks").tag("table", TABLE).timer().count());
+
+        InOrder inOrder = inOrder(connection, preparedStatement);
+        inOrder.verify(connection).prepareStatement(ChunkedDeleter.chunkSql(TABLE, PREDICATE, false));
+        inOrder.verify(preparedStatement).setInt(1, 2);
+        // RETURNING came back out of order, the larger key is the one to continue from
+        inOrder.verify(connection).prepareStatement(ChunkedDeleter.chunkSql(TABLE, PREDICATE, true));
+        inOrder.verify(preparedStatement).setObject(1, ids[1]);
+        inOrder.verify(preparedStatement).setObject(1, ids[3]);
+        verify(connection, times(3)).close();
+    }
+
+    @Test
+    @DisplayName("Should resume after the given key")
+    void shouldResumeAfterGivenKey() throws SQLException {
+        UUID resumeAfter = UUID.randomUUID();
+        ResultSet empty = rows();
+        when(preparedStatement.executeQuery()).thenReturn(empty);
+
+        ChunkedDeleter.Result result = deleter(10, 1, 10, 0).delete(dataSource, TABLE, PREDICATE, resumeAfter);
+
+        assertEquals(0, result.rows());
+        assertEquals(resumeAfter, result.lastKey());
+        verify(connection).prepareStatement(ChunkedDeleter.chunkSql(TABLE, PREDICATE, true));
+        verify(preparedStatement).setObject(1, resumeAfter);
+        verify(preparedStatement).setInt(2, 10);
+    }
+
+    @Test
+    @DisplayName("Should report the key to resume from when a chunk fails")
+    void shouldReportResumeKeyWhenChunkFails() throws SQLException {
+        UUID[] ids = ids(2);
+        SQLException failure = new SQLException("restart transaction", "40001");
+        ResultSet first = rows(ids[0], ids[1]);
+        when(preparedStatement.executeQuery()).thenReturn(first).thenThrow(failure);
+
+        ChunkedDeleteException thrown = assertThrows(ChunkedDeleteException.class,
+                () -> deleter(2, 1, 2, 0).delete(dataSource, TABLE, PREDICATE));
+
+        assertEquals(ids[1], thrown.resumeAfter());
+        assertEquals(2, thrown.deleted());
+        assertSame(failure, thrown.getCause());
+    }
+
+    @Test
+    @DisplayName("Should pace chunks to the configured rate")
+    void shouldPaceChunksToConfiguredRate() throws SQLException {
+        UUID[] ids = ids(9);
+        ResultSet first = rows(ids[0], ids[1], ids[2]);
+        ResultSet second = rows(ids[3], ids[4], ids[5]);
+        ResultSet third = rows(ids[6], ids[7], ids[8]);
+        ResultSet empty = rows();
+        when(preparedStatement.executeQuery()).thenReturn(first, second, third, empty);
+
+        ChunkedDeleter.Result result = deleter(3, 3, 3, 30).delete(dataSource, TABLE, PREDICATE);
+
+        // the first permits are free, the next six rows cost 200 ms at 30 rows/s
+        assertEquals(9, result.rows());
+        assertTrue(result.elapsed().toMillis() >= 150, () -> "took " + result.elapsed());
+    }
+
+    @Test
+    @DisplayName("Should shrink chunks over the latency budget and grow them well within it")
+    void shouldAdaptChunkSizeToLatencyBudget() {
+        ChunkedDeleter deleter = new ChunkedDeleter(new ChunkedDeleteProperties(1000, 100, 2000, Duration.ofMillis(200), 0),
+                new RetryTemplate(), registry);
+
+        assertEquals(500, deleter.nextChunkSize(1000, TimeUnit.MILLISECONDS.toNanos(300)));
+        assertEquals(100, deleter.nextChunkSize(150, TimeUnit.MILLISECONDS.toNanos(300)));
+        assertEquals(1000, deleter.nextChunkSize(1000, TimeUnit.MILLISECONDS.toNanos(150)));
+        assertEquals(1250, deleter.nextChunkSize(1000, TimeUnit.MILLISECONDS.toNanos(50)));
+        assertEquals(2000, deleter.nextChunkSize(1900, TimeUnit.MILLISECONDS.toNanos(50)));
+    }
+
+    @Test
+    @DisplayName("Should reject inconsistent chunk sizes")
+    void shouldRejectInconsistentChunkSizes() {
+        assertThrows(IllegalArgumentException.class, () -> new ChunkedDeleteProperties(100, 200, 1000, Duration.ofMillis(250), 0));
+        assertThrows(IllegalArgumentException.class, () -> new ChunkedDeleteProperties(2000, 100, 1000, Duration.ofMillis(250), 0));
+        assertThrows(IllegalArgumentException.class, () -> new ChunkedDeleteProperties(100, 0, 1000, Duration.ofMillis(250), 0));
+        assertThrows(IllegalArgumentException.class, () -> new ChunkedDeleteProperties(100, 10, 1000, Duration.ofMillis(250), -1));
+    }
+
+    private ChunkedDeleter deleter(int chunkSize, int minChunkSize, int maxChunkSize, double rowsPerSecond) {
+        RetryTemplate retryTemplate = RetryTemplate.builder().maxAttempts(1).build();
+        return new ChunkedDeleter(new ChunkedDeleteProperties(chunkSize, minChunkSize, maxChunkSize, Duration.ofMinutes(1), rowsPerSecond),
+                retryTemplate, registry);
+    }
+}
@@ -0,0 +1,169 @@
+package io.crdb.spring.common;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.retry.support.RetryTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static io.crdb.spring.common.KeyResultSets.ids;
+import static io.crdb.spring.common.KeyResultSets.rows;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class ChunkedUpdaterTest {
+
+    private static final String JOB = "users.updateUsers";
+    private static final String TABLE = "users";
+    private static final String ASSIGNMENTS = "updated_timestamp = ?";
+    private static final String PREDICATE = "updated_timestamp IS NULL";
+    private static final UUID MIN_KEY = new UUID(0L, 0L);
+
+    @Mock
+    private DataSource dataSource;
+
+    @Mock
+    private Connection connection;
+
+    @Mock
+    private PreparedStatement preparedStatement;
+
+    @Mock
+    private CheckpointStore checkpointStore;
+
+    private final Timestamp now = Timestamp.from(Instant.now());
+
+    private SimpleMeterRegistry registry;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        MockitoAnnotations.openMocks(this);
+
+        when(dataSource.getConnection()).thenReturn(connection);
+        when(connection.prepareStatement(anyString())).thenReturn(preparedStatement);
+        when(checkpointStore.load(eq(connection), eq(JOB), anyInt())).thenReturn(Map.of());
+
+        registry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    @DisplayName("Should update a key range in chunks, checkpointing each chunk in its own transaction")
+    void shouldUpdateRangeInCheckpointedChunks() throws SQLException {
+        UUID[] ids = ids(3);
+        ResultSet first = rows(ids[1], ids[0]);
+        ResultSet last = rows(ids[2]);
+        when(preparedStatement.executeQuery()).thenReturn(first, last);
+
+        ChunkedUpdater.Result result = updater(1).update(dataSource, JOB, TABLE, ASSIGNMENTS, PREDICATE, now);
+
+        assertEquals(3, result.rows());
+        assertEquals(2, result.chunks());
+        assertEquals(1, result.ranges());
+        assertEquals(0, result.resumed());
+        assertEquals(3, registry.get("demo.update.rows").tag("table", TABLE).counter().count());
+
+        InOrder inOrder = inOrder(connection, preparedStatement, checkpointStore);
+        inOrder.verify(connection).setAutoCommit(false);
+        inOrder.verify(connection).prepareStatement(ChunkedUpdater.chunkSql(TABLE, ASSIGNMENTS, PREDICATE, false, false));
+        inOrder.verify(preparedStatement).setObject(1, now);
+        inOrder.verify(preparedStatement).setObject(2, MIN_KEY);
+        inOrder.verify(preparedStatement).setInt(3, 2);
+        inOrder.verify(checkpointStore).save(connection, JOB, 1, 0, ids[1]);
+        inOrder.verify(connection).commit();
+        inOrder.verify(connection).prepareStatement(ChunkedUpdater.chunkSql(TABLE, ASSIGNMENTS, PREDICATE, true, false));
+        inOrder.verify(preparedStatement).setObject(2, ids[1]);
+        inOrder.verify(checkpointStore).save(connection, JOB, 1, 0, ids[2]);
+        inOrder.verify(connection).commit();
+        inOrder.verify(checkpointStore).clear(connection, JOB);
+    }
+
+    @Test
+    @DisplayName("Should resume a key range after its checkpoint")
+    void shouldResumeRangeAfterCheckpoint() throws SQLException {
+        UUID checkpoint = UUID.randomUUID();
+        when(checkpointStore.load(connection, JOB, 1)).thenReturn(Map.of(0, checkpoint));
+        ResultSet empty = rows();
+        when(preparedStatement.executeQuery()).thenReturn(empty);
+
+        ChunkedUpdater.Result result = updater(1).update(dataSource, JOB, TABLE, ASSIGNMENTS, PREDICATE, now);
+
+        assertEquals(0, result.rows());
+        assertEquals(1, result.resumed());
+        verify(connection).prepareStatement(ChunkedUpdater.chunkSql(TABLE, ASSIGNMENTS, PREDICATE, true, false));
+        verify(preparedStatement).setObject(2, checkpoint);
+        verify(checkpointStore, never()).save(any(), anyString(), anyInt(), anyInt(), any());
+        verify(checkpointStore).clear(connection, JOB);
+    }
+
+    @Test
+    @DisplayName("Should keep checkpoints and report committed rows when a chunk fails")
+    void shouldKeepCheckpointsWhenChunkFails() throws SQLException {
+        UUID[] ids = ids(2);
+        SQLException failure = new SQLException("restart transaction", "40001");
+        ResultSet first = rows(ids[0], ids[1]);
+        when(preparedStatement.executeQuery()).thenReturn(first).thenThrow(failure);
+
+        ChunkedUpdateException thrown = assertThrows(ChunkedUpdateException.class,
+                () -> updater(1).update(dataSource, JOB, TABLE, ASSIGNMENTS, PREDICATE, now));
+
+        assertEquals(JOB, thrown.job());
+        assertEquals(2, thrown.updated());
+        assertSame(failure, thrown.getCause());
+        verify(checkpointStore).save(connection, JOB, 1, 0, ids[1]);
+        verify(connection).rollback();
+        verify(checkpointStore, never()).clear(any(), anyString());
+    }
+
+    @Test
+    @DisplayName("Should walk each key range between its own bounds")
+    void shouldWalkEachRangeBetweenItsBounds() throws SQLException {
+        ResultSet lowerEmpty = rows();
+        ResultSet upperEmpty = rows();
+        when(preparedStatement.executeQuery()).thenReturn(lowerEmpty, upperEmpty);
+        List<UuidKeyRange> ranges = UuidKeyRange.split(2);
+
+        ChunkedUpdater.Result result = updater(2).update(dataSource, JOB, TABLE, ASSIGNMENTS, PREDICATE, now);
+
+        assertEquals(2, result.ranges());
+        verify(checkpointStore).load(connection, JOB, 2);
+        verify(connection).prepareStatement(ChunkedUpdater.chunkSql(TABLE, ASSIGNMENTS, PREDICATE, false, true));
+        verify(connection).prepareStatement(ChunkedUpdater.chunkSql(TABLE, ASSIGNMENTS, PREDICATE, false, false));
+        verify(preparedStatement).setObject(2, MIN_KEY);
+        verify(preparedStatement).setObject(3, ranges.get(0).upper());
+        verify(preparedStatement).setObject(2, ranges.get(1).lower());
+    }
+
+    @Test
+    @DisplayName("Should reject a non-positive number of threads")
+    void shouldRejectNonPositiveThreads() {
+        assertThrows(IllegalArgumentException.class, () -> new ChunkedUpdateProperties(100, 10, 1000, Duration.ofMillis(250), 0));
+    }
+
+    @Test
+    @DisplayName("Should reject chunk sizes out of order")
+    void shouldRejectChunkSizesOutOfOrder() {
+        assertThrows(IllegalArgumentException.class, () -> new ChunkedUpdateProperties(100, 200, 1000, Duration.ofMillis(250), 1));
+    }
+
+    private ChunkedUpdater updater(int threads) {
+        RetryTemplate retryTemplate = RetryTemplate.builder().maxAttempts(1).build();
+        return new ChunkedUpdater(new ChunkedUpdateProperties(2, 1, 2, Duration.ofMinutes(1), threads), retryTemplate,
+                checkpointStore, registry);
+    }
+}
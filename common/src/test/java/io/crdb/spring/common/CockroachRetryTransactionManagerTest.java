@@ -0,0 +1,194 @@
+package io.crdb.spring.common;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.DefaultTransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class CockroachRetryTransactionManagerTest {
+
+    @Mock
+    private DataSource dataSource;
+
+    @Mock
+    private Connection connection;
+
+    @Mock
+    private Statement statement;
+
+    private CockroachRetryTransactionManager transactionManager;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        MockitoAnnotations.openMocks(this);
+
+        when(dataSource.getConnection()).thenReturn(connection);
+        when(connection.getAutoCommit()).thenReturn(true);
+        when(connection.createStatement()).thenReturn(statement);
+
+        transactionManager = new CockroachRetryTransactionManager(dataSource, new ExceptionChecker(), 3);
+    }
+
+    @Test
+    @DisplayName("Should wrap transaction in cockroach_restart savepoint")
+    void shouldWrapTransactionInSavepoint() throws SQLException {
+        String result = new TransactionTemplate(transactionManager).execute(status -> "done");
+
+        assertEquals("done", result);
+
+        InOrder inOrder = inOrder(statement, connection);
+        inOrder.verify(statement).execute("SAVEPOINT cockroach_restart");
+        inOrder.verify(statement).execute("RELEASE SAVEPOINT cockroach_restart");
+        inOrder.verify(connection).commit();
+        verify(connection).close();
+    }
+
+    @Test
+    @DisplayName("Should roll back to savepoint and retry on serialization failure")
+    void shouldRollBackToSavepointAndRetry() throws SQLException {
+        AtomicInteger attempts = new AtomicInteger();
+
+        String result = new TransactionTemplate(transactionManager).execute(status -> {
+            if (attempts.incrementAndGet() < 3) {
+                throw new RuntimeException(new SQLException("restart transaction", "40001"));
+            }
+            return "done";
+        });
+
+        assertEquals("done", result);
+        assertEquals(3, attempts.get());
+        verify(statement, times(2)).execute("ROLLBACK TO SAVEPOINT cockroach_restart");
+        verify(statement).execute("RELEASE SAVEPOINT cockroach_restart");
+        verify(dataSource).getConnection();
+        verify(connection).commit();
+        verify(connection, never()).rollback();
+    }
+
+    @Test
+    @DisplayName("Should clear rollback-only left by a failed participant before retrying")
+    void shouldClearRollbackOnlyBeforeRetrying() throws SQLException {
+        AtomicInteger attempts = new AtomicInteger();
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+
+        String result = transactionTemplate.execute(outer -> {
+            if (attempts.incrementAndGet() == 1) {
+                assertThrows(RuntimeException.class, () -> transactionTemplate.execute(inner -> {
+                    throw new RuntimeException(new SQLException("restart transaction", "40001"));
+                }));
+                throw new RuntimeException(new SQLException("restart transaction", "40001"));
+            }
+            return "done";
+        });
+
+        assertEquals("done", result);
+        assertEquals(2, attempts.get());
+        verify(statement).execute("ROLLBACK TO SAVEPOINT cockroach_restart");
+        verify(connection).commit();
+        verify(connection, never()).rollback();
+    }
+
+    @Test
+    @DisplayName("Should retry when release reports serialization failure")
+    void shouldRetryWhenReleaseFails() throws SQLException {
+        AtomicInteger attempts = new AtomicInteger();
+        when(statement.execute("RELEASE SAVEPOINT cockroach_restart"))
+                .thenThrow(new SQLException("restart transaction", "40001"))
+                .thenReturn(false);
+
+        new TransactionTemplate(transactionManager).execute(status -> attempts.incrementAndGet());
+
+        assertEquals(2, attempts.get());
+        verify(statement).execute("ROLLBACK TO SAVEPOINT cockroach_restart");
+        verify(connection).commit();
+    }
+
+    @Test
+    @DisplayName("Should roll back and rethrow once attempts are exhausted")
+    void shouldRollBackOnceAttemptsExhausted() throws SQLException {
+        AtomicInteger attempts = new AtomicInteger();
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+
+        assertThrows(RuntimeException.class, () -> transactionTemplate.execute(status -> {
+            attempts.incrementAndGet();
+            throw new RuntimeException(new SQLException("restart transaction", "40001"));
+        }));
+
+        assertEquals(3, attempts.get());
+        verify(statement, times(2)).execute("ROLLBACK TO SAVEPOINT cockroach_restart");
+        verify(connection).rollback();
+        verify(connection, never()).commit();
+    }
+
+    @Test
+    @DisplayName("Should not retry other failures")
+    void shouldNotRetryOtherFailures() throws SQLException {
+        AtomicInteger attempts = new AtomicInteger();
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+
+        assertThrows(RuntimeException.class, () -> transactionTemplate.execute(status -> {
+            attempts.incrementAndGet();
+            throw new RuntimeException(new SQLException("duplicate key", "23505"));
+        }));
+
+        assertEquals(1, attempts.get());
+        verify(statement, never()).execute("ROLLBACK TO SAVEPOINT cockroach_restart");
+        verify(connection).rollback();
+    }
+
+    @Test
+    @DisplayName("Should not use savepoint for read-only transactions")
+    void shouldNotUseSavepointForReadOnlyTransactions() throws SQLException {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setReadOnly(true);
+
+        transactionTemplate.execute(status -> "done");
+
+        verify(connection, never()).createStatement();
+        verify(connection).commit();
+    }
+
+    @Test
+    @DisplayName("Should not use savepoint when joining an existing transaction")
+    void shouldNotUseSavepointWhenJoiningExistingTransaction() throws SQLException {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+
+        transactionTemplate.execute(outer -> transactionTemplate.execute(inner -> {
+            assertFalse(inner.isNewTransaction());
+            return "done";
+        }));
+
+        verify(statement, times(1)).execute("SAVEPOINT cockroach_restart");
+        verify(connection).commit();
+    }
+
+    @Test
+    @DisplayName("Should reject non-positive max attempts")
+    void shouldRejectNonPositiveMaxAttempts() {
+        assertThrows(IllegalArgumentException.class, () -> new CockroachRetryTransactionManager(dataSource, new ExceptionChecker(), 0));
+    }
+
+    @Test
+    @DisplayName("Should behave like JdbcTransactionManager for programmatic transactions")
+    void shouldBehaveLikeJdbcTransactionManagerForProgrammaticTransactions() throws SQLException {
+        TransactionStatus status = transactionManager.getTransaction(new DefaultTransactionDefinition(TransactionDefinition.PROPAGATION_REQUIRED));
+        transactionManager.commit(status);
+
+        verify(connection, never()).createStatement();
+        verify(connection).commit();
+    }
+}
@@ -0,0 +1,71 @@
+package io.crdb.spring.common;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.TransientDataAccessResourceException;
+import org.springframework.retry.support.RetryTemplate;
+
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConnectionCircuitBreakerListenerTest {
+
+    private final AtomicInteger evictions = new AtomicInteger();
+
+    private final ConnectionCircuitBreaker circuitBreaker = new ConnectionCircuitBreaker(2, Duration.ofMinutes(1), Duration.ofMinutes(1),
+            () -> false, evictions::incrementAndGet);
+
+    private final RetryTemplate retryTemplate = RetryTemplate.builder()
+            .maxAttempts(5)
+            .noBackoff()
+            .withListener(new ConnectionCircuitBreakerListener(circuitBreaker, new ExceptionChecker()))
+            .build();
+
+    @Test
+    @DisplayName("Should stop retrying once connection failures open the breaker")
+    void shouldStopRetryingOnceOpen() {
+        AtomicInteger attempts = new AtomicInteger();
+
+        assertThrows(TransientDataAccessResourceException.class, () -> retryTemplate.execute(context -> {
+            attempts.incrementAndGet();
+            throw connectionFailure();
+        }));
+
+        assertEquals(2, attempts.get());
+        assertTrue(circuitBreaker.isOpen());
+        assertEquals(1, evictions.get());
+    }
+
+    @Test
+    @DisplayName("Should fail fast without calling the database while open")
+    void shouldFailFastWhileOpen() {
+        circuitBreaker.recordConnectionFailure();
+        circuitBreaker.recordConnectionFailure();
+
+        AtomicInteger attempts = new AtomicInteger();
+
+        assertThrows(CircuitBreakerOpenException.class, () -> retryTemplate.execute(context -> attempts.incrementAndGet()));
+        assertEquals(0, attempts.get());
+    }
+
+    @Test
+    @DisplayName("Should not count other errors as connection failures")
+    void shouldIgnoreOtherErrors() {
+        AtomicInteger attempts = new AtomicInteger();
+
+        assertThrows(TransientDataAccessResourceException.class, () -> retryTemplate.execute(context -> {
+            attempts.incrementAndGet();
+            throw new TransientDataAccessResourceException("restart transaction", new SQLException("restart transaction", "40001"));
+        }));
+
+        assertEquals(5, attempts.get());
+        assertFalse(circuitBreaker.isOpen());
+    }
+
+    private static TransientDataAccessResourceException connectionFailure() {
+        return new TransientDataAccessResourceException("connection failure", new SQLException("connection failure", "08006"));
+    }
+}
@@ -0,0 +1,126 @@
+package io.crdb.spring.common;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConnectionCircuitBreakerTest {
+
+    private final AtomicLong clock = new AtomicLong();
+    private final AtomicBoolean healthy = new AtomicBoolean();
+    private final AtomicInteger probes = new AtomicInteger();
+    private final AtomicInteger opened = new AtomicInteger();
+
+    private ConnectionCircuitBreaker circuitBreaker() {
+        return new ConnectionCircuitBreaker(3, Duration.ofSeconds(10), Duration.ofSeconds(5),
+                () -> {
+                    probes.incrementAndGet();
+                    return healthy.get();
+                },
+                opened::incrementAndGet,
+                clock::get);
+    }
+
+    @Test
+    @DisplayName("Should open after threshold failures within window")
+    void shouldOpenAfterThresholdFailures() {
+        ConnectionCircuitBreaker circuitBreaker = circuitBreaker();
+
+        circuitBreaker.recordConnectionFailure();
+        circuitBreaker.recordConnectionFailure();
+        assertTrue(circuitBreaker.allowRequest());
+
+        circuitBreaker.recordConnectionFailure();
+
+        assertEquals(ConnectionCircuitBreaker.State.OPEN, circuitBreaker.state());
+        assertFalse(circuitBreaker.allowRequest());
+        assertEquals(1, opened.get());
+        assertEquals(0, probes.get());
+    }
+
+    @Test
+    @DisplayName("Should forget failures from an earlier window")
+    void shouldForgetFailuresFromEarlierWindow() {
+        ConnectionCircuitBreaker circuitBreaker = circuitBreaker();
+
+        circuitBreaker.recordConnectionFailure();
+        circuitBreaker.recordConnectionFailure();
+        clock.addAndGet(Duration.ofSeconds(11).toNanos());
+        circuitBreaker.recordConnectionFailure();
+
+        assertEquals(ConnectionCircuitBreaker.State.CLOSED, circuitBreaker.state());
+        assertEquals(0, opened.get());
+    }
+
+    @Test
+    @DisplayName("Should close when probe succeeds after open duration")
+    void shouldCloseWhenProbeSucceeds() {
+        ConnectionCircuitBreaker circuitBreaker = circuitBreaker();
+        trip(circuitBreaker);
+
+        clock.addAndGet(Duration.ofSeconds(5).toNanos());
+        healthy.set(true);
+
+        assertTrue(circuitBreaker.allowRequest());
+        assertEquals(ConnectionCircuitBreaker.State.CLOSED, circuitBreaker.state());
+        assertEquals(1, probes.get());
+
+        circuitBreaker.recordConnectionFailure();
+        assertEquals(ConnectionCircuitBreaker.State.CLOSED, circuitBreaker.state());
+    }
+
+    @Test
+    @DisplayName("Should stay open for another period when probe fails")
+    void shouldStayOpenWhenProbeFails() {
+        ConnectionCircuitBreaker circuitBreaker = circuitBreaker();
+        trip(circuitBreaker);
+
+        clock.addAndGet(Duration.ofSeconds(5).toNanos());
+
+        assertFalse(circuitBreaker.allowRequest());
+        assertEquals(ConnectionCircuitBreaker.State.OPEN, circuitBreaker.state());
+        assertEquals(2, opened.get());
+
+        clock.addAndGet(Duration.ofSeconds(4).toNanos());
+        assertFalse(circuitBreaker.allowRequest());
+        assertEquals(1, probes.get());
+    }
+
+    @Test
+    @DisplayName("Should treat a throwing probe as a failure")
+    void shouldTreatThrowingProbeAsFailure() {
+        ConnectionCircuitBreaker circuitBreaker = new ConnectionCircuitBreaker(1, Duration.ofSeconds(10), Duration.ZERO,
+                () -> {
+                    throw new IllegalStateException("pool closed");
+                },
+                () -> {
+                },
+                clock::get);
+
+        circuitBreaker.recordConnectionFailure();
+
+        assertFalse(circuitBreaker.allowRequest());
+        assertTrue(circuitBreaker.isOpen());
+    }
+
+    @Test
+    @DisplayName("Should reject non-positive threshold")
+    void shouldRejectNonPositiveThreshold() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new ConnectionCircuitBreaker(0, Duration.ofSeconds(1), Duration.ofSeconds(1), () -> true, () -> {
+                }));
+    }
+
+    private void trip(ConnectionCircuitBreaker circuitBreaker) {
+        for (int i = 0; i < 3; i++) {
+            circuitBreaker.recordConnectionFailure();
+        }
+        assertTrue(circuitBreaker.isOpen());
+    }
+}
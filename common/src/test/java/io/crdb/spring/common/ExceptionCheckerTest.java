@@ -7,6 +7,8 @@ import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.ValueSource;
 
 import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -128,4 +130,50 @@ class ExceptionCheckerTest {
         SQLException mixedCase = new SQLException("Test", "40001");
         assertTrue(exceptionChecker.shouldRetry(mixedCase));
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Should return SQL state of nested SQLException")
+    void shouldReturnSqlStateOfNestedSQLException() {
+        RuntimeException wrapped = new RuntimeException("Wrapped", new SQLException("Inner exception", "40001"));
+
+        assertEquals("40001", exceptionChecker.sqlState(wrapped));
+    }
+
+    @Test
+    @DisplayName("Should return null SQL state when there is no SQLException")
+    void shouldReturnNullSqlStateWithoutSQLException() {
+        assertNull(exceptionChecker.sqlState(new RuntimeException("Not a SQL exception")));
+        assertNull(exceptionChecker.sqlState(null));
+    }
+
+    @Test
+    @DisplayName("Should stop walking cyclic cause chains")
+    void shouldStopWalkingCyclicCauseChains() {
+        RuntimeException first = new RuntimeException("first");
+        RuntimeException second = new RuntimeException("second", first);
+        first.initCause(second);
+
+        assertFalse(exceptionChecker.shouldRetry(second));
+        assertNull(exceptionChecker.sqlState(second));
+    }
+
+    @Test
+    @DisplayName("Should rate limit warnings for non-SQLExceptions")
+    void shouldRateLimitWarningsForNonSQLExceptions() {
+        AtomicLong clock = new AtomicLong();
+        ExceptionChecker checker = new ExceptionChecker(clock::get);
+        RuntimeException notSql = new RuntimeException("Not a SQL exception");
+
+        checker.shouldRetry(notSql);
+        assertEquals(0, checker.suppressedWarnings());
+
+        clock.set(TimeUnit.SECONDS.toNanos(1));
+        checker.shouldRetry(notSql);
+        checker.shouldRetry(notSql);
+        assertEquals(2, checker.suppressedWarnings());
+
+        clock.set(TimeUnit.SECONDS.toNanos(11));
+        checker.shouldRetry(notSql);
+        assertEquals(0, checker.suppressedWarnings());
+    }
+}
@@ -0,0 +1,96 @@
+package io.crdb.spring.common;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcOperations;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class ExplainPlanTest {
+
+    private static final List<String> PARTIAL_INDEX_SCAN = List.of(
+            "distribution: local",
+            "vectorized: true",
+            "",
+            "• scan",
+            "  missing stats",
+            "  table: users@users_not_updated_idx (partial index)",
+            "  spans: FULL SCAN");
+
+    private static final List<String> PRIMARY_KEY_SCAN = List.of(
+            "distribution: full",
+            "vectorized: true",
+            "",
+            "• filter",
+            "│ filter: updated_timestamp IS NULL",
+            "│",
+            "└── • scan",
+            "      missing stats",
+            "      table: users@users_pkey",
+            "      spans: FULL SCAN");
+
+    private static final List<String> INDEX_JOIN = List.of(
+            "• index join",
+            "│ table: users@users_pkey",
+            "│",
+            "└── • scan",
+            "      table: users@users_updated_idx (partial index)",
+            "      spans: FULL SCAN");
+
+    @Test
+    @DisplayName("Should explain the statement with its arguments")
+    void shouldExplainStatementWithArguments() {
+        JdbcOperations jdbcOperations = mock(JdbcOperations.class);
+        when(jdbcOperations.queryForList(eq("EXPLAIN SELECT * FROM users WHERE id = ?"), eq(String.class), eq("42")))
+                .thenReturn(List.of("• scan", "  table: users@users_pkey", "  spans: [/'42' - /'42']"));
+
+        ExplainPlan plan = ExplainPlan.of(jdbcOperations, "SELECT * FROM users WHERE id = ?", "42");
+
+        assertTrue(plan.usesIndex("users_pkey"));
+        assertFalse(plan.hasFullTableScan());
+        assertTrue(plan.text().startsWith("SELECT * FROM users WHERE id = ?"));
+    }
+
+    @Test
+    @DisplayName("Should recognise a partial index scan")
+    void shouldRecognisePartialIndexScan() {
+        ExplainPlan plan = new ExplainPlan("SELECT * FROM users WHERE updated_timestamp IS NULL", PARTIAL_INDEX_SCAN);
+
+        assertTrue(plan.usesIndex("users_not_updated_idx"));
+        assertFalse(plan.usesIndex("users_pkey"));
+        assertFalse(plan.hasFullTableScan());
+        assertFalse(plan.hasIndexJoin());
+    }
+
+    @Test
+    @DisplayName("Should recognise a filtered primary key scan")
+    void shouldRecogniseFilteredPrimaryKeyScan() {
+        ExplainPlan plan = new ExplainPlan("SELECT * FROM users WHERE updated_timestamp IS NULL", PRIMARY_KEY_SCAN);
+
+        assertTrue(plan.usesIndex("users_pkey"));
+        assertFalse(plan.usesIndex("users_not_updated_idx"));
+        assertTrue(plan.hasFullTableScan());
+    }
+
+    @Test
+    @DisplayName("Should recognise an index join")
+    void shouldRecogniseIndexJoin() {
+        ExplainPlan plan = new ExplainPlan("SELECT * FROM users WHERE updated_timestamp IS NOT NULL", INDEX_JOIN);
+
+        assertTrue(plan.hasIndexJoin());
+        assertTrue(plan.usesIndex("users_updated_idx"));
+        assertFalse(plan.hasFullTableScan());
+    }
+
+    @Test
+    @DisplayName("Should not match an index whose name starts with the requested one")
+    void shouldNotMatchIndexWithSamePrefix() {
+        ExplainPlan plan = new ExplainPlan("SELECT 1", List.of("  table: users@users_not_updated_idx_v2"));
+
+        assertFalse(plan.usesIndex("users_not_updated_idx"));
+    }
+}
@@ -0,0 +1,46 @@
+package io.crdb.spring.common;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FollowerReadsTest {
+
+    @Test
+    @DisplayName("Should build AS OF SYSTEM TIME clause from configured expression")
+    void shouldBuildAsOfSystemTimeClause() {
+        FollowerReads followerReads = new FollowerReads("follower_read_timestamp()");
+
+        assertEquals("AS OF SYSTEM TIME follower_read_timestamp()", followerReads.asOfSystemTime());
+        assertEquals("SET TRANSACTION AS OF SYSTEM TIME follower_read_timestamp()", followerReads.setTransactionSql());
+    }
+
+    @Test
+    @DisplayName("Should support explicit staleness bound")
+    void shouldSupportExplicitStalenessBound() {
+        FollowerReads followerReads = new FollowerReads("'-10s'");
+
+        assertEquals("AS OF SYSTEM TIME '-10s'", followerReads.asOfSystemTime());
+    }
+
+    @Test
+    @DisplayName("Should count stale reads per operation")
+    void shouldCountStaleReadsPerOperation() {
+        FollowerReads followerReads = new FollowerReads("follower_read_timestamp()");
+
+        followerReads.record("selectUsers");
+        followerReads.record("selectUsers");
+        followerReads.record("selectUser");
+
+        assertEquals(Map.of("selectUser", 1L, "selectUsers", 2L), followerReads.staleReadCounts());
+    }
+
+    @Test
+    @DisplayName("Should report no stale reads initially")
+    void shouldReportNoStaleReadsInitially() {
+        assertTrue(new FollowerReads("follower_read_timestamp()").staleReadCounts().isEmpty());
+    }
+}
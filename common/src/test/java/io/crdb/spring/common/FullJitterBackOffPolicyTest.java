@@ -0,0 +1,92 @@
+package io.crdb.spring.common;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.retry.backoff.BackOffContext;
+import org.springframework.retry.backoff.BackOffInterruptedException;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FullJitterBackOffPolicyTest {
+
+    @Test
+    @DisplayName("Should grow ceiling exponentially up to max interval")
+    void shouldGrowCeilingExponentiallyUpToMaxInterval() {
+        FullJitterBackOffPolicy policy = new FullJitterBackOffPolicy(Duration.ofMillis(10), Duration.ofMillis(100), 2.0);
+
+        assertEquals(10, policy.ceiling(0));
+        assertEquals(20, policy.ceiling(1));
+        assertEquals(40, policy.ceiling(2));
+        assertEquals(80, policy.ceiling(3));
+        assertEquals(100, policy.ceiling(4));
+        assertEquals(100, policy.ceiling(1_000));
+    }
+
+    @Test
+    @DisplayName("Should sleep a random fraction of the ceiling")
+    void shouldSleepRandomFractionOfCeiling() {
+        List<Long> sleeps = new ArrayList<>();
+        FullJitterBackOffPolicy policy = new FullJitterBackOffPolicy(10, 100, 2.0, sleeps::add, () -> 0.5);
+
+        BackOffContext context = policy.start(null);
+        policy.backOff(context);
+        policy.backOff(context);
+        policy.backOff(context);
+
+        assertEquals(List.of(5L, 10L, 20L), sleeps);
+    }
+
+    @Test
+    @DisplayName("Should sleep between zero and the ceiling")
+    void shouldSleepBetweenZeroAndCeiling() {
+        List<Long> sleeps = new ArrayList<>();
+        FullJitterBackOffPolicy low = new FullJitterBackOffPolicy(10, 100, 2.0, sleeps::add, () -> 0.0);
+        FullJitterBackOffPolicy high = new FullJitterBackOffPolicy(10, 100, 2.0, sleeps::add, () -> 0.9999);
+
+        low.backOff(low.start(null));
+        high.backOff(high.start(null));
+
+        assertEquals(List.of(0L, 10L), sleeps);
+    }
+
+    @Test
+    @DisplayName("Should keep attempt count per retry context")
+    void shouldKeepAttemptCountPerContext() {
+        List<Long> sleeps = new ArrayList<>();
+        FullJitterBackOffPolicy policy = new FullJitterBackOffPolicy(10, 100, 2.0, sleeps::add, () -> 0.5);
+
+        BackOffContext first = policy.start(null);
+        policy.backOff(first);
+        policy.backOff(first);
+        policy.backOff(policy.start(null));
+
+        assertEquals(List.of(5L, 10L, 5L), sleeps);
+    }
+
+    @Test
+    @DisplayName("Should translate interrupt into BackOffInterruptedException")
+    void shouldTranslateInterrupt() {
+        FullJitterBackOffPolicy policy = new FullJitterBackOffPolicy(10, 100, 2.0, millis -> {
+            throw new InterruptedException();
+        }, () -> 0.5);
+
+        try {
+            assertThrows(BackOffInterruptedException.class, () -> policy.backOff(policy.start(null)));
+            assertTrue(Thread.currentThread().isInterrupted());
+        } finally {
+            Thread.interrupted();
+        }
+    }
+
+    @Test
+    @DisplayName("Should reject invalid intervals")
+    void shouldRejectInvalidIntervals() {
+        assertThrows(IllegalArgumentException.class, () -> new FullJitterBackOffPolicy(Duration.ZERO, Duration.ofSeconds(1), 2.0));
+        assertThrows(IllegalArgumentException.class, () -> new FullJitterBackOffPolicy(Duration.ofSeconds(2), Duration.ofSeconds(1), 2.0));
+        assertThrows(IllegalArgumentException.class, () -> new FullJitterBackOffPolicy(Duration.ofMillis(10), Duration.ofSeconds(1), 0.5));
+    }
+}
@@ -0,0 +1,58 @@
+package io.crdb.spring.common;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class HikariPoolsTest {
+
+    @Test
+    @DisplayName("Should pass the probe when a valid connection is checked out")
+    void shouldPassWithValidConnection() throws SQLException {
+        DataSource dataSource = mock(DataSource.class);
+        Connection connection = mock(Connection.class);
+        when(dataSource.getConnection()).thenReturn(connection);
+        when(connection.isValid(anyInt())).thenReturn(true);
+
+        assertTrue(HikariPools.probe(dataSource, Duration.ofSeconds(2)));
+        verify(connection).close();
+    }
+
+    @Test
+    @DisplayName("Should fail the probe when the connection cannot be checked out")
+    void shouldFailWhenCheckoutFails() throws SQLException {
+        DataSource dataSource = mock(DataSource.class);
+        when(dataSource.getConnection()).thenThrow(new SQLException("Connection is not available", "08001"));
+
+        assertFalse(HikariPools.probe(dataSource, Duration.ofSeconds(2)));
+    }
+
+    @Test
+    @DisplayName("Should give up on a checkout that blocks past the probe timeout and close its connection later")
+    void shouldBoundBlockedCheckout() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        DataSource dataSource = mock(DataSource.class);
+        Connection connection = mock(Connection.class);
+        when(dataSource.getConnection()).thenAnswer(invocation -> {
+            release.await();
+            return connection;
+        });
+
+        boolean healthy = assertTimeoutPreemptively(Duration.ofSeconds(5),
+                () -> HikariPools.probe(dataSource, Duration.ofMillis(100)));
+
+        assertFalse(healthy);
+
+        release.countDown();
+        verify(connection, timeout(TimeUnit.SECONDS.toMillis(5))).close();
+    }
+}
@@ -0,0 +1,155 @@
+package io.crdb.spring.common;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IngestionPipelineTest {
+
+    private SimpleMeterRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    @DisplayName("Should write every generated row in fixed size batches")
+    void shouldWriteEveryRowInBatches() {
+        Set<UUID> written = ConcurrentHashMap.newKeySet();
+        Set<Integer> batchSizes = ConcurrentHashMap.newKeySet();
+
+        IngestionPipeline.Result result = pipeline(4, 100, 2).run(users(1_050, new AtomicLong()), batch -> {
+            batchSizes.add(batch.size());
+            batch.forEach(user -> written.add(user.id()));
+        });
+
+        assertEquals(1_050, result.rows());
+        assertEquals(11, result.batches());
+        assertEquals(1_050, written.size());
+        assertEquals(Set.of(100, 50), batchSizes);
+        assertEquals(1_050, registry.get("demo.ingest.rows").tag("stage", "written").counter().count());
+        assertEquals(1_050, registry.get("demo.ingest.rows").tag("stage", "generated").counter().count());
+    }
+
+    @Test
+    @DisplayName("Should block generation when writers fall behind")
+    void shouldBlockGenerationWhenWritersFallBehind() {
+        AtomicLong generated = new AtomicLong();
+        AtomicLong maxAhead = new AtomicLong();
+        AtomicLong consumed = new AtomicLong();
+
+        IngestionPipeline.Result result = pipeline(1, 10, 2).run(users(500, generated), batch -> {
+            maxAhead.accumulateAndGet(generated.get() - consumed.get(), Math::max);
+            sleep(5);
+            consumed.addAndGet(batch.size());
+        });
+
+        assertEquals(500, result.rows());
+        assertTrue(result.maxQueueDepth() <= 2);
+        // one batch being written, two queued, one waiting to be queued and the iterator's read ahead
+        assertTrue(maxAhead.get() <= 41, "generation ran " + maxAhead.get() + " rows ahead");
+        assertTrue(result.blocked().toMillis() > result.idle().toMillis(), result::format);
+    }
+
+    @Test
+    @DisplayName("Should stop generating and rethrow when a batch fails")
+    void shouldStopAndRethrowWhenBatchFails() {
+        AtomicLong generated = new AtomicLong();
+        AtomicInteger batches = new AtomicInteger();
+
+        IllegalStateException thrown = assertThrows(IllegalStateException.class, () ->
+                pipeline(2, 10, 2).run(users(100_000, generated), batch -> {
+                    if (batches.incrementAndGet() == 3) {
+                        throw new IllegalStateException("batch failed");
+                    }
+                }));
+
+        assertEquals("batch failed", thrown.getMessage());
+        assertTrue(generated.get() < 1_000, "generated " + generated.get() + " rows after the failure");
+    }
+
+    @Test
+    @DisplayName("Should release the writers and rethrow when the source fails")
+    void shouldRethrowWhenSourceFails() {
+        AtomicLong generated = new AtomicLong();
+        Stream<UserDTO> failing = users(1_000, generated).peek(user -> {
+            if (generated.get() == 250) {
+                throw new IllegalStateException("generator failed");
+            }
+        });
+
+        IllegalStateException thrown = assertTimeoutPreemptively(Duration.ofSeconds(10), () ->
+                assertThrows(IllegalStateException.class, () -> pipeline(3, 10, 2).run(failing, batch -> {
+                })));
+
+        assertEquals("generator failed", thrown.getMessage());
+    }
+
+    @Test
+    @DisplayName("Should keep draining and rethrow when a writer throws an Error")
+    void shouldRethrowWhenWriterThrowsError() {
+        AtomicLong generated = new AtomicLong();
+
+        LinkageError thrown = assertTimeoutPreemptively(Duration.ofSeconds(10), () ->
+                assertThrows(LinkageError.class, () -> pipeline(1, 10, 1).run(users(100_000, generated), batch -> {
+                    throw new LinkageError("writer failed");
+                })));
+
+        assertEquals("writer failed", thrown.getMessage());
+        assertTrue(generated.get() < 1_000, "generated " + generated.get() + " rows after the failure");
+    }
+
+    @Test
+    @DisplayName("Should finish without writing when the source is empty")
+    void shouldFinishWhenSourceIsEmpty() {
+        IngestionPipeline.Result result = pipeline(3, 10, 1).run(Stream.empty(), batch -> fail("no batch expected"));
+
+        assertEquals(0, result.rows());
+        assertEquals(0, result.batches());
+        assertEquals(0, result.throughput());
+    }
+
+    @Test
+    @DisplayName("Should reject invalid settings")
+    void shouldRejectInvalidSettings() {
+        assertThrows(IllegalArgumentException.class, () -> new IngestionProperties(0, 10, 1));
+        assertThrows(IllegalArgumentException.class, () -> new IngestionProperties(1, 0, 1));
+        assertThrows(IllegalArgumentException.class, () -> new IngestionProperties(1, 10, 0));
+    }
+
+    private IngestionPipeline pipeline(int writers, int batchSize, int queueCapacity) {
+        return new IngestionPipeline(new IngestionProperties(writers, batchSize, queueCapacity), registry);
+    }
+
+    private static Stream<UserDTO> users(long count, AtomicLong generated) {
+        ZonedDateTime now = ZonedDateTime.now();
+
+        return LongStream.range(0, count).mapToObj(i -> {
+            generated.incrementAndGet();
+            return new UserDTO(UUID.randomUUID(), "Jane", "Doe", "jane@example.com", "1 Main St", "Springfield", "IL",
+                    "62701", now, null);
+        });
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package io.crdb.spring.common;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Statement;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InsertCountsTest {
+
+    @Test
+    @DisplayName("Should count rows that were already present as skipped")
+    void shouldCountExistingRowsAsSkipped() {
+        InsertCounts counts = InsertCounts.ofBatch(4, new int[]{1, 0, 1, 0});
+
+        assertEquals(new InsertCounts(4, 2, 2, 0), counts);
+    }
+
+    @Test
+    @DisplayName("Should count rows without a result as unknown")
+    void shouldCountRowsWithoutResultAsUnknown() {
+        assertEquals(new InsertCounts(3, 1, 0, 2), InsertCounts.ofBatches(3, new int[][]{{1}, {Statement.SUCCESS_NO_INFO}}));
+        assertEquals(new InsertCounts(3, 0, 0, 3), InsertCounts.ofBatch(3, null));
+    }
+
+    @Test
+    @DisplayName("Should derive skipped rows from a multi-row statement")
+    void shouldDeriveSkippedRowsFromStatement() {
+        assertEquals(new InsertCounts(128, 100, 28, 0), InsertCounts.ofStatement(128, 100));
+    }
+
+    @Test
+    @DisplayName("Should add counts")
+    void shouldAddCounts() {
+        InsertCounts total = InsertCounts.NONE
+                .plus(InsertCounts.ofBatch(2, new int[]{1, 1}))
+                .plus(InsertCounts.ofBatch(2, new int[]{0, 0}));
+
+        assertEquals(new InsertCounts(4, 2, 2, 0), total);
+    }
+}
@@ -0,0 +1,71 @@
+package io.crdb.spring.common;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.ZonedDateTime;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class JdbcTypesTest {
+
+    @Test
+    @DisplayName("Should bind a UUID as an object rather than a string")
+    void shouldBindUuidAsObject() throws SQLException {
+        UUID id = UUID.randomUUID();
+        PreparedStatement ps = mock(PreparedStatement.class);
+
+        JdbcTypes.setUuid(ps, 3, id);
+
+        verify(ps).setObject(3, id);
+        verify(ps, never()).setString(anyInt(), anyString());
+    }
+
+    @Test
+    @DisplayName("Should bind a null UUID as a typed null")
+    void shouldBindNullUuidAsTypedNull() throws SQLException {
+        PreparedStatement ps = mock(PreparedStatement.class);
+
+        JdbcTypes.setUuid(ps, 1, null);
+
+        verify(ps).setNull(1, Types.OTHER);
+    }
+
+    @Test
+    @DisplayName("Should read a UUID without parsing a string")
+    void shouldReadUuidWithoutParsingString() throws SQLException {
+        UUID id = UUID.randomUUID();
+        ResultSet rs = mock(ResultSet.class);
+        when(rs.getObject("id", UUID.class)).thenReturn(id);
+        when(rs.getObject(1, UUID.class)).thenReturn(id);
+
+        assertEquals(id, JdbcTypes.getUuid(rs, "id"));
+        assertEquals(id, JdbcTypes.getUuid(rs, 1));
+        verify(rs, never()).getString(anyString());
+    }
+
+    @Test
+    @DisplayName("Should round trip timestamps and keep nulls")
+    void shouldRoundTripTimestampsAndKeepNulls() throws SQLException {
+        ZonedDateTime now = ZonedDateTime.now();
+        PreparedStatement ps = mock(PreparedStatement.class);
+        ResultSet rs = mock(ResultSet.class);
+        when(rs.getTimestamp("created_timestamp")).thenReturn(Timestamp.from(now.toInstant()));
+
+        JdbcTypes.setTimestamp(ps, 9, now);
+        JdbcTypes.setTimestamp(ps, 10, null);
+
+        verify(ps).setTimestamp(9, Timestamp.from(now.toInstant()));
+        verify(ps).setTimestamp(10, null);
+        assertEquals(now.toInstant(), JdbcTypes.getTimestamp(rs, "created_timestamp").toInstant());
+        assertNull(JdbcTypes.getTimestamp(rs, "updated_timestamp"));
+    }
+}
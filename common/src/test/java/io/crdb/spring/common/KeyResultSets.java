@@ -0,0 +1,52 @@
+package io.crdb.spring.common;
+
+import org.mockito.stubbing.OngoingStubbing;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.UUID;
+
+import static org.mockito.Mockito.*;
+
+/**
+ * Mock {@link ResultSet}s of {@code uuid} keys, as returned by the {@code RETURNING id} chunk statements of
+ * {@link ChunkedDeleter} and {@link ChunkedUpdater}.
+ */
+final class KeyResultSets {
+
+    private KeyResultSets() {
+    }
+
+    /**
+     * Returns {@code count} ascending keys.
+     */
+    static UUID[] ids(int count) {
+        UUID[] ids = new UUID[count];
+        for (int i = 0; i < count; i++) {
+            ids[i] = new UUID(i + 1, 0);
+        }
+        return ids;
+    }
+
+    /**
+     * Returns a result set with one row per key, read with {@code getObject(1, UUID.class)}.
+     */
+    static ResultSet rows(UUID... ids) throws SQLException {
+        ResultSet resultSet = mock(ResultSet.class);
+
+        OngoingStubbing<Boolean> next = when(resultSet.next());
+        for (UUID id : ids) {
+            next = next.thenReturn(true);
+        }
+        next.thenReturn(false);
+
+        if (ids.length > 0) {
+            OngoingStubbing<UUID> key = when(resultSet.getObject(1, UUID.class));
+            for (UUID id : ids) {
+                key = key.thenReturn(id);
+            }
+        }
+
+        return resultSet;
+    }
+}
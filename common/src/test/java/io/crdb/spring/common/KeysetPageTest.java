@@ -0,0 +1,55 @@
+package io.crdb.spring.common;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class KeysetPageTest {
+
+    @Test
+    @DisplayName("Should continue from last key when page is full")
+    void shouldContinueFromLastKeyWhenPageIsFull() {
+        List<UUID> keys = List.of(UUID.randomUUID(), UUID.randomUUID());
+
+        KeysetPage<UUID> page = KeysetPage.of(keys, 2, key -> key);
+
+        assertTrue(page.hasNext());
+        assertEquals(keys.get(1), page.continuation());
+        assertEquals(keys, page.content());
+    }
+
+    @Test
+    @DisplayName("Should end scan when page is short")
+    void shouldEndScanWhenPageIsShort() {
+        KeysetPage<UUID> page = KeysetPage.of(List.of(UUID.randomUUID()), 2, key -> key);
+
+        assertFalse(page.hasNext());
+        assertNull(page.continuation());
+    }
+
+    @Test
+    @DisplayName("Should end scan when page is empty")
+    void shouldEndScanWhenPageIsEmpty() {
+        KeysetPage<UUID> page = KeysetPage.of(List.of(), 2, key -> key);
+
+        assertFalse(page.hasNext());
+        assertTrue(page.content().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should copy content")
+    void shouldCopyContent() {
+        List<UUID> keys = new ArrayList<>(List.of(UUID.randomUUID()));
+
+        KeysetPage<UUID> page = KeysetPage.of(keys, 1, key -> key);
+        keys.clear();
+
+        assertEquals(1, page.content().size());
+        assertThrows(UnsupportedOperationException.class, () -> page.content().clear());
+    }
+}
@@ -0,0 +1,128 @@
+package io.crdb.spring.common;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class MultiRowUserInsertTest {
+
+    @Mock
+    private Connection connection;
+
+    @Mock
+    private PreparedStatement fullStatement;
+
+    @Mock
+    private PreparedStatement remainderStatement;
+
+    private MultiRowUserInsert multiRowInsert;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        multiRowInsert = new MultiRowUserInsert("test_users");
+    }
+
+    @Test
+    @DisplayName("Should build a VALUES tuple per row")
+    void shouldBuildValuesTuplePerRow() {
+        assertEquals("INSERT INTO test_users VALUES (?,?,?,?,?,?,?,?,?,?)", multiRowInsert.sql(1));
+        assertEquals("INSERT INTO test_users VALUES (?,?,?,?,?,?,?,?,?,?),(?,?,?,?,?,?,?,?,?,?)", multiRowInsert.sql(2));
+    }
+
+    @Test
+    @DisplayName("Should skip existing rows when idempotent")
+    void shouldSkipExistingRowsWhenIdempotent() {
+        MultiRowUserInsert idempotent = new MultiRowUserInsert("test_users", true);
+
+        assertEquals("INSERT INTO test_users VALUES (?,?,?,?,?,?,?,?,?,?),(?,?,?,?,?,?,?,?,?,?) ON CONFLICT (id) DO NOTHING", idempotent.sql(2));
+    }
+
+    @Test
+    @DisplayName("Should cache SQL per row count")
+    void shouldCacheSqlPerRowCount() {
+        assertSame(multiRowInsert.sql(128), multiRowInsert.sql(128));
+    }
+
+    @Test
+    @DisplayName("Should reject non-positive row counts")
+    void shouldRejectNonPositiveRowCounts() {
+        assertThrows(IllegalArgumentException.class, () -> multiRowInsert.sql(0));
+    }
+
+    @Test
+    @DisplayName("Should prepare one statement per row count and reuse it")
+    void shouldPrepareOneStatementPerRowCount() throws SQLException {
+        when(connection.prepareStatement(multiRowInsert.sql(3))).thenReturn(fullStatement);
+        when(connection.prepareStatement(multiRowInsert.sql(1))).thenReturn(remainderStatement);
+        when(fullStatement.executeUpdate()).thenReturn(3);
+        when(remainderStatement.executeUpdate()).thenReturn(1);
+
+        List<UserDTO> users = createTestUsers(7);
+
+        int inserted = 0;
+        try (MultiRowUserInsert.Session session = multiRowInsert.open(connection)) {
+            inserted += session.execute(users.subList(0, 3));
+            inserted += session.execute(users.subList(3, 6));
+            inserted += session.execute(users.subList(6, 7));
+        }
+
+        assertEquals(7, inserted);
+        verify(connection, times(2)).prepareStatement(anyString());
+        verify(fullStatement, times(2)).executeUpdate();
+        verify(fullStatement).close();
+        verify(remainderStatement).close();
+        verify(connection, never()).close();
+    }
+
+    @Test
+    @DisplayName("Should bind user fields at consecutive offsets")
+    void shouldBindUserFieldsAtConsecutiveOffsets() throws SQLException {
+        List<UserDTO> users = createTestUsers(2);
+        when(connection.prepareStatement(anyString())).thenReturn(fullStatement);
+
+        try (MultiRowUserInsert.Session session = multiRowInsert.open(connection)) {
+            session.execute(users);
+        }
+
+        verify(fullStatement).setObject(1, users.get(0).id());
+        verify(fullStatement).setString(2, "First0");
+        verify(fullStatement).setTimestamp(eq(9), any(Timestamp.class));
+        verify(fullStatement).setTimestamp(10, null);
+        verify(fullStatement).setObject(11, users.get(1).id());
+        verify(fullStatement).setString(12, "First1");
+        verify(fullStatement).setTimestamp(20, null);
+    }
+
+    @Test
+    @DisplayName("Should not prepare a statement for an empty chunk")
+    void shouldNotPrepareStatementForEmptyChunk() throws SQLException {
+        try (MultiRowUserInsert.Session session = multiRowInsert.open(connection)) {
+            assertEquals(0, session.execute(List.of()));
+        }
+
+        verify(connection, never()).prepareStatement(anyString());
+    }
+
+    private List<UserDTO> createTestUsers(int count) {
+        return IntStream.range(0, count)
+                .mapToObj(i -> new UserDTO(UUID.randomUUID(), "First" + i, "Last" + i, "email" + i + "@example.com",
+                        "123 Test St", "City", "ST", "10001", ZonedDateTime.now(), null))
+                .toList();
+    }
+}
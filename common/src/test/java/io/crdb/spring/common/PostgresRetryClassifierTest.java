@@ -10,6 +10,7 @@ import org.springframework.retry.policy.NeverRetryPolicy;
 import org.springframework.retry.policy.AlwaysRetryPolicy;
 
 import java.sql.SQLException;
+import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -131,4 +132,31 @@ class PostgresRetryClassifierTest {
 
         verify(exceptionChecker, times(3)).shouldRetry(retryableException);
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Should reuse the same policy for repeated exceptions")
+    void shouldReuseSamePolicyForRepeatedExceptions() {
+        SQLException first = new SQLException("Retry me", "40001");
+        SQLException second = new SQLException("Retry me again", "40001");
+        when(exceptionChecker.shouldRetry(any())).thenReturn(true);
+
+        assertSame(classifier.classify(first), classifier.classify(second));
+    }
+
+    @Test
+    @DisplayName("Should apply max attempts configured for SQL state")
+    void shouldApplyMaxAttemptsConfiguredForSqlState() {
+        RetryProperties properties = new RetryProperties(3, Map.of("40001", 7),
+                RetryProperties.defaults().backoff(), RetryProperties.defaults().budget());
+        PostgresRetryClassifier configured = new PostgresRetryClassifier(exceptionChecker, properties);
+
+        SQLException serializationFailure = new SQLException("Serialization failure", "40001");
+        SQLException connectionFailure = new SQLException("Connection failure", "08006");
+        when(exceptionChecker.shouldRetry(any())).thenReturn(true);
+        when(exceptionChecker.sqlState(serializationFailure)).thenReturn("40001");
+        when(exceptionChecker.sqlState(connectionFailure)).thenReturn("08006");
+
+        assertEquals(7, configured.classify(serializationFailure).getMaxAttempts());
+        assertEquals(3, configured.classify(connectionFailure).getMaxAttempts());
+    }
+}
@@ -0,0 +1,55 @@
+package io.crdb.spring.common;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RetryBudgetTest {
+
+    @Test
+    @DisplayName("Should allow burst of retries then shed")
+    void shouldAllowBurstThenShed() {
+        RetryBudget budget = new RetryBudget(0.1, 3);
+
+        assertTrue(budget.tryAcquireRetry());
+        assertTrue(budget.tryAcquireRetry());
+        assertTrue(budget.tryAcquireRetry());
+        assertFalse(budget.tryAcquireRetry());
+        assertEquals(1, budget.shedRetries());
+    }
+
+    @Test
+    @DisplayName("Should earn retries in proportion to calls")
+    void shouldEarnRetriesInProportionToCalls() {
+        RetryBudget budget = new RetryBudget(0.2, 0);
+
+        assertFalse(budget.tryAcquireRetry());
+
+        for (int i = 0; i < 5; i++) {
+            budget.recordCall();
+        }
+
+        assertTrue(budget.tryAcquireRetry());
+        assertFalse(budget.tryAcquireRetry());
+    }
+
+    @Test
+    @DisplayName("Should cap balance at burst size")
+    void shouldCapBalanceAtBurst() {
+        RetryBudget budget = new RetryBudget(1.0, 2);
+
+        for (int i = 0; i < 100; i++) {
+            budget.recordCall();
+        }
+
+        assertEquals(2.0, budget.available());
+    }
+
+    @Test
+    @DisplayName("Should reject negative settings")
+    void shouldRejectNegativeSettings() {
+        assertThrows(IllegalArgumentException.class, () -> new RetryBudget(-0.1, 1));
+        assertThrows(IllegalArgumentException.class, () -> new RetryBudget(0.1, -1));
+    }
+}
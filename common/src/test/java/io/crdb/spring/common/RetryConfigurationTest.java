@@ -0,0 +1,122 @@
+package io.crdb.spring.common;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.retry.support.RetryTemplate;
+
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RetryConfigurationTest {
+
+    private final RetryConfiguration configuration = new RetryConfiguration();
+
+    @Test
+    @DisplayName("Should retry serialization failures up to the per state limit")
+    void shouldRetryUpToPerStateLimit() {
+        RetryProperties properties = properties(3, Map.of("40001", 5), new RetryProperties.Budget(false, 0.2, 10));
+        RetryTemplate retryTemplate = retryTemplate(properties);
+
+        AtomicInteger attempts = new AtomicInteger();
+
+        assertThrows(RuntimeException.class, () -> retryTemplate.execute(context -> {
+            attempts.incrementAndGet();
+            throw new RuntimeException(new SQLException("restart transaction", "40001"));
+        }));
+
+        assertEquals(5, attempts.get());
+    }
+
+    @Test
+    @DisplayName("Should use default limit for states without override")
+    void shouldUseDefaultLimitForOtherStates() {
+        RetryProperties properties = properties(2, Map.of("40001", 5), new RetryProperties.Budget(false, 0.2, 10));
+        RetryTemplate retryTemplate = retryTemplate(properties);
+
+        AtomicInteger attempts = new AtomicInteger();
+
+        assertThrows(RuntimeException.class, () -> retryTemplate.execute(context -> {
+            attempts.incrementAndGet();
+            throw new RuntimeException(new SQLException("connection failure", "08006"));
+        }));
+
+        assertEquals(2, attempts.get());
+    }
+
+    @Test
+    @DisplayName("Should not retry non-retryable exceptions")
+    void shouldNotRetryNonRetryableExceptions() {
+        RetryTemplate retryTemplate = retryTemplate(properties(3, Map.of(), new RetryProperties.Budget(true, 0.2, 10)));
+
+        AtomicInteger attempts = new AtomicInteger();
+
+        assertThrows(RuntimeException.class, () -> retryTemplate.execute(context -> {
+            attempts.incrementAndGet();
+            throw new RuntimeException(new SQLException("duplicate key", "23505"));
+        }));
+
+        assertEquals(1, attempts.get());
+    }
+
+    @Test
+    @DisplayName("Should shed retries once the budget is exhausted")
+    void shouldShedRetriesOnceBudgetExhausted() {
+        RetryProperties properties = properties(5, Map.of(), new RetryProperties.Budget(true, 0.0, 2));
+        RetryBudget budget = configuration.retryBudget(properties);
+        RetryTemplate retryTemplate = RetryConfiguration.buildRetryTemplate(new PostgresRetryClassifier(new ExceptionChecker(), properties), properties, budget, metrics(), null);
+
+        AtomicInteger attempts = new AtomicInteger();
+
+        assertThrows(RuntimeException.class, () -> retryTemplate.execute(context -> {
+            attempts.incrementAndGet();
+            throw new RuntimeException(new SQLException("restart transaction", "40001"));
+        }));
+
+        assertEquals(3, attempts.get());
+        assertEquals(1, budget.shedRetries());
+    }
+
+    @Test
+    @DisplayName("Should return result after successful retry")
+    void shouldReturnResultAfterSuccessfulRetry() {
+        RetryTemplate retryTemplate = retryTemplate(properties(3, Map.of(), new RetryProperties.Budget(true, 0.2, 10)));
+
+        AtomicInteger attempts = new AtomicInteger();
+
+        String result = retryTemplate.execute(context -> {
+            if (attempts.incrementAndGet() < 3) {
+                throw new RuntimeException(new SQLException("restart transaction", "40001"));
+            }
+            return "done";
+        });
+
+        assertEquals("done", result);
+        assertEquals(3, attempts.get());
+    }
+
+    @Test
+    @DisplayName("Should create stateless interceptor")
+    void shouldCreateStatelessInterceptor() {
+        RetryTemplate retryTemplate = retryTemplate(RetryProperties.defaults());
+
+        assertNotNull(configuration.postgresRetryInterceptor(retryTemplate));
+    }
+
+    private RetryTemplate retryTemplate(RetryProperties properties) {
+        return RetryConfiguration.buildRetryTemplate(new PostgresRetryClassifier(new ExceptionChecker(), properties), properties, configuration.retryBudget(properties), metrics(), null);
+    }
+
+    private static RetryMetricsListener metrics() {
+        return new RetryMetricsListener(new SimpleMeterRegistry(), new ExceptionChecker());
+    }
+
+    private static RetryProperties properties(int maxAttempts, Map<String, Integer> maxAttemptsBySqlState, RetryProperties.Budget budget) {
+        return new RetryProperties(maxAttempts, maxAttemptsBySqlState,
+                new RetryProperties.Backoff(Duration.ofMillis(1), Duration.ofMillis(2), 2.0), budget);
+    }
+}
@@ -0,0 +1,131 @@
+package io.crdb.spring.common;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.retry.backoff.NoBackOffPolicy;
+import org.springframework.retry.interceptor.RetryInterceptorBuilder;
+import org.springframework.retry.policy.ExceptionClassifierRetryPolicy;
+import org.springframework.retry.support.RetryTemplate;
+
+import java.sql.SQLException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RetryMetricsListenerTest {
+
+    private SimpleMeterRegistry registry;
+    private ExceptionChecker exceptionChecker;
+    private RetryTemplate retryTemplate;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+
+        exceptionChecker = new ExceptionChecker();
+        RetryMetricsListener listener = new RetryMetricsListener(registry, exceptionChecker);
+
+        ExceptionClassifierRetryPolicy policy = new ExceptionClassifierRetryPolicy();
+        policy.setExceptionClassifier(new PostgresRetryClassifier(exceptionChecker));
+
+        retryTemplate = RetryTemplate.builder()
+                .customPolicy(policy)
+                .customBackoff(new MeteredBackOffPolicy(new NoBackOffPolicy(), listener))
+                .withListener(listener)
+                .build();
+    }
+
+    @Test
+    @DisplayName("Should record attempts, retries and backoff for a call that eventually succeeds")
+    void shouldRecordRetriesForEventualSuccess() {
+        AtomicInteger attempts = new AtomicInteger();
+
+        retryTemplate.execute(context -> {
+            if (attempts.incrementAndGet() < 3) {
+                throw new RuntimeException(new SQLException("restart transaction", "40001"));
+            }
+            return null;
+        });
+
+        assertEquals(3, registry.get("demo.retry.attempts").tag("method", "retryTemplate").counter().count());
+        assertEquals(2, registry.get("demo.retry.errors").tag("sql.state", "40001").counter().count());
+        assertEquals(2, registry.get("demo.retry.retries").tag("sql.state", "40001").counter().count());
+        assertEquals(2, registry.get("demo.retry.backoff").tag("sql.state", "40001").timer().count());
+        assertEquals(1, registry.get("demo.retry.calls").tag("outcome", "success").timer().count());
+        assertNull(registry.find("demo.retry.exhausted").counter());
+    }
+
+    @Test
+    @DisplayName("Should record give up when retries are exhausted")
+    void shouldRecordGiveUpWhenExhausted() {
+        assertThrows(RuntimeException.class, () -> retryTemplate.execute(context -> {
+            throw new RuntimeException(new SQLException("connection failure", "08006"));
+        }));
+
+        assertEquals(3, registry.get("demo.retry.attempts").counter().count());
+        assertEquals(3, registry.get("demo.retry.errors").tag("sql.state", "08006").counter().count());
+        assertEquals(2, registry.get("demo.retry.retries").tag("sql.state", "08006").counter().count());
+        assertEquals(1, registry.get("demo.retry.exhausted").tag("sql.state", "08006").counter().count());
+        assertEquals(1, registry.get("demo.retry.calls").tag("outcome", "exhausted").timer().count());
+    }
+
+    @Test
+    @DisplayName("Should record non-retryable failure without retries")
+    void shouldRecordNonRetryableFailure() {
+        assertThrows(RuntimeException.class, () -> retryTemplate.execute(context -> {
+            throw new RuntimeException(new SQLException("duplicate key", "23505"));
+        }));
+
+        assertEquals(1, registry.get("demo.retry.attempts").counter().count());
+        assertEquals(1, registry.get("demo.retry.errors").tag("sql.state", "23505").counter().count());
+        assertNull(registry.find("demo.retry.retries").counter());
+        assertEquals(1, registry.get("demo.retry.calls").tag("outcome", "failure").timer().count());
+    }
+
+    @Test
+    @DisplayName("Should not check a non-SQL failure with shouldRetry again when closing")
+    void shouldNotRecheckNonSqlFailureWhenClosing() {
+        assertThrows(IllegalStateException.class, () -> retryTemplate.execute(context -> {
+            throw new IllegalStateException("not a SQL exception");
+        }));
+
+        // the retry policy's check logged the only warning, so none was rate limited
+        assertEquals(0, exceptionChecker.suppressedWarnings());
+        assertEquals(1, registry.get("demo.retry.calls").tag("outcome", "failure").timer().count());
+    }
+
+    @Test
+    @DisplayName("Should tag metrics with the intercepted method")
+    void shouldTagMetricsWithInterceptedMethod() {
+        Greeter target = new FlakyGreeter();
+        ProxyFactory proxyFactory = new ProxyFactory(target);
+        proxyFactory.addInterface(Greeter.class);
+        proxyFactory.addAdvice(RetryInterceptorBuilder.stateless().retryOperations(retryTemplate).build());
+        Greeter greeter = (Greeter) proxyFactory.getProxy();
+
+        assertEquals("hello", greeter.greet());
+
+        assertEquals(2, registry.get("demo.retry.attempts").tag("method", "FlakyGreeter.greet").counter().count());
+        assertEquals(1, registry.get("demo.retry.retries").tag("method", "FlakyGreeter.greet").counter().count());
+    }
+
+    interface Greeter {
+        String greet();
+    }
+
+    static class FlakyGreeter implements Greeter {
+
+        private int calls;
+
+        @Override
+        public String greet() {
+            if (calls++ == 0) {
+                throw new RuntimeException(new SQLException("restart transaction", "40001"));
+            }
+            return "hello";
+        }
+    }
+}
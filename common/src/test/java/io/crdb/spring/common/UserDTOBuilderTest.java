@@ -260,4 +260,27 @@ class UserDTOBuilderTest {
         
         assertFalse(anyIdMatch, "IDs should be unique across batches");
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Should stream the same users from builders with the same seed")
+    void shouldStreamSameUsersFromBuildersWithSameSeed() {
+        List<UserDTO> first = seededBuilder(42).streamUsers(200).map(UserDTOBuilderTest::withoutTimestamps).toList();
+        List<UserDTO> second = seededBuilder(42).streamUsers(200).map(UserDTOBuilderTest::withoutTimestamps).toList();
+
+        assertEquals(first, second);
+        verifyNoInteractions(faker);
+    }
+
+    private UserDTOBuilder seededBuilder(long seed) {
+        UserDTOBuilder builder = new UserDTOBuilder(faker);
+        ReflectionTestUtils.setField(builder, "generatorSeed", seed);
+        ReflectionTestUtils.setField(builder, "dictionarySize", 100);
+        return builder;
+    }
+
+    // created timestamps are relative to when each builder started
+    private static UserDTO withoutTimestamps(UserDTO user) {
+        return new UserDTO(user.id(), user.firstName(), user.lastName(), user.email(), user.address(), user.city(),
+                user.stateCode(), user.zipCode(), null, null);
+    }
+}
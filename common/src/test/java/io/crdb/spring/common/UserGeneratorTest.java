@@ -0,0 +1,123 @@
+package io.crdb.spring.common;
+
+import com.github.javafaker.Faker;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UserGeneratorTest {
+
+    private static final ZonedDateTime BASE = ZonedDateTime.parse("2024-06-01T12:00:00Z");
+
+    private static Faker faker;
+
+    @BeforeAll
+    static void setUp() {
+        faker = new Faker(Locale.US);
+    }
+
+    @Test
+    @DisplayName("Should generate the same rows from the same seed")
+    void shouldGenerateSameRowsFromSameSeed() {
+        List<UserDTO> first = UserGenerator.fromFaker(new Faker(Locale.US, new Random(1)), 100, 42, BASE).stream(500).toList();
+        List<UserDTO> second = UserGenerator.fromFaker(new Faker(Locale.US, new Random(1)), 100, 42, BASE).stream(500).toList();
+
+        assertEquals(first, second);
+    }
+
+    @Test
+    @DisplayName("Should generate the same rows in parallel as sequentially")
+    void shouldGenerateSameRowsInParallel() {
+        UserGenerator.Dictionary dictionary = dictionary();
+
+        List<UserDTO> sequential = new UserGenerator(dictionary, 7, BASE).stream(50_000).toList();
+        List<UserDTO> parallel = new UserGenerator(dictionary, 7, BASE).stream(50_000).parallel().toList();
+
+        assertEquals(sequential, parallel);
+    }
+
+    @Test
+    @DisplayName("Should continue the sequence on each call")
+    void shouldContinueSequenceOnEachCall() {
+        UserGenerator generator = new UserGenerator(dictionary(), 7, BASE);
+
+        List<UserDTO> first = generator.stream(10).toList();
+        List<UserDTO> second = generator.stream(10).toList();
+
+        assertEquals(generator.user(0), first.get(0));
+        assertEquals(generator.user(10), second.get(0));
+        assertTrue(first.stream().noneMatch(second::contains));
+    }
+
+    @Test
+    @DisplayName("Should continue the same sequence one row at a time")
+    void shouldContinueSequenceOneRowAtATime() {
+        UserGenerator generator = new UserGenerator(dictionary(), 7, BASE);
+
+        List<UserDTO> first = generator.stream(10).toList();
+
+        assertEquals(generator.user(0), first.get(0));
+        assertEquals(generator.user(10), generator.next());
+        assertEquals(generator.user(11), generator.stream(1).findFirst().orElseThrow());
+    }
+
+    @Test
+    @DisplayName("Should generate distinct version 4 ids")
+    void shouldGenerateDistinctVersion4Ids() {
+        List<UserDTO> users = new UserGenerator(dictionary(), 3, BASE).stream(100_000).parallel().toList();
+
+        Set<UUID> ids = users.stream().map(UserDTO::id).collect(Collectors.toSet());
+
+        assertEquals(users.size(), ids.size());
+        assertTrue(ids.stream().allMatch(id -> id.version() == 4 && id.variant() == 2));
+    }
+
+    @Test
+    @DisplayName("Should fill every column from the dictionaries")
+    void shouldFillEveryColumn() {
+        UserGenerator generator = UserGenerator.fromFaker(faker, 50, 11, BASE);
+
+        generator.stream(1_000).forEach(user -> {
+            assertNotNull(user.firstName());
+            assertNotNull(user.lastName());
+            assertTrue(user.email().matches("[a-z.\\-]+\\d+@example\\.(com|org|net)"), user.email());
+            assertTrue(user.address().matches("\\d+ .+"), user.address());
+            assertNotNull(user.city());
+            assertEquals(2, user.stateCode().length());
+            assertTrue(user.zipCode().matches("\\d{5}"), user.zipCode());
+            assertFalse(user.createdTimestamp().isAfter(BASE));
+            assertTrue(user.createdTimestamp().isAfter(BASE.minusDays(366)));
+            assertNull(user.updatedTimestamp());
+        });
+    }
+
+    @Test
+    @DisplayName("Should be lazy and sized")
+    void shouldBeLazyAndSized() {
+        UserGenerator generator = new UserGenerator(dictionary(), 5, BASE);
+
+        assertEquals(10_000_000L, generator.stream(10_000_000L).spliterator().getExactSizeIfKnown());
+        assertEquals(3, generator.stream(10_000_000L).limit(3).count());
+        assertEquals(0, generator.stream(0).count());
+        assertThrows(IllegalArgumentException.class, () -> generator.stream(-1));
+    }
+
+    private static UserGenerator.Dictionary dictionary() {
+        return new UserGenerator.Dictionary(
+                new String[]{"Ada", "Grace", "Alan"},
+                new String[]{"Lovelace", "Hopper", "Turing"},
+                new String[]{"Main St", "Oak Ave"},
+                new String[]{"Springfield", "Shelbyville"},
+                new String[]{"IL", "NY"});
+    }
+}
@@ -0,0 +1,55 @@
+package io.crdb.spring.common;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.ZonedDateTime;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class UserJdbcMapperTest {
+
+    @Test
+    @DisplayName("Should map every column of the current row")
+    void shouldMapEveryColumn() throws SQLException {
+        UUID id = UUID.randomUUID();
+        ZonedDateTime created = ZonedDateTime.now();
+
+        ResultSet rs = mock(ResultSet.class);
+        when(rs.getObject("id", UUID.class)).thenReturn(id);
+        when(rs.getString("first_name")).thenReturn("Jane");
+        when(rs.getString("zip_code")).thenReturn("62701");
+        when(rs.getTimestamp("created_timestamp")).thenReturn(Timestamp.from(created.toInstant()));
+
+        UserDTO user = UserJdbcMapper.fromResultSet(rs);
+
+        assertEquals(id, user.id());
+        assertEquals("Jane", user.firstName());
+        assertEquals("62701", user.zipCode());
+        assertEquals(created.toInstant(), user.createdTimestamp().toInstant());
+        assertNull(user.updatedTimestamp());
+    }
+
+    @Test
+    @DisplayName("Should bind a user starting at the first parameter")
+    void shouldBindUserFromFirstParameter() throws SQLException {
+        UserDTO user = new UserDTO(UUID.randomUUID(), "Jane", "Doe", "jane@example.com", "1 Main St", "Springfield", "IL",
+                "62701", ZonedDateTime.now(), null);
+        PreparedStatement ps = mock(PreparedStatement.class);
+
+        UserJdbcMapper.toStatement(ps, user);
+
+        verify(ps).setObject(1, user.id());
+        verify(ps).setString(8, "62701");
+        verify(ps).setTimestamp(eq(9), any(Timestamp.class));
+        verify(ps).setTimestamp(10, null);
+    }
+}
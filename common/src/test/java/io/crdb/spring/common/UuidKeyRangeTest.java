@@ -0,0 +1,79 @@
+package io.crdb.spring.common;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UuidKeyRangeTest {
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 2, 3, 7, 16, 100})
+    @DisplayName("Should split keyspace into contiguous ranges")
+    void shouldSplitKeyspaceIntoContiguousRanges(int partitions) {
+        List<UuidKeyRange> ranges = UuidKeyRange.split(partitions);
+
+        assertEquals(partitions, ranges.size());
+        assertNull(ranges.get(0).lower());
+        assertNull(ranges.get(partitions - 1).upper());
+
+        for (int i = 1; i < partitions; i++) {
+            assertEquals(ranges.get(i - 1).upper(), ranges.get(i).lower());
+            assertTrue(UuidKeyRange.ORDER.compare(ranges.get(i - 1).upper(), ranges.get(i).upper() == null ? new UUID(-1L, -1L) : ranges.get(i).upper()) < 0);
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 3, 8, 13})
+    @DisplayName("Should assign each key to the range that contains it")
+    void shouldAssignKeyToContainingRange(int partitions) {
+        List<UuidKeyRange> ranges = UuidKeyRange.split(partitions);
+
+        for (int i = 0; i < 10_000; i++) {
+            UUID id = UUID.randomUUID();
+            int partition = UuidKeyRange.partitionOf(id, partitions);
+
+            assertTrue(ranges.get(partition).contains(id), () -> id + " not in partition " + partition);
+        }
+    }
+
+    @Test
+    @DisplayName("Should assign range boundaries to the upper range")
+    void shouldAssignBoundariesToUpperRange() {
+        List<UuidKeyRange> ranges = UuidKeyRange.split(3);
+
+        assertEquals(1, UuidKeyRange.partitionOf(ranges.get(1).lower(), 3));
+        assertEquals(2, UuidKeyRange.partitionOf(ranges.get(2).lower(), 3));
+        assertEquals(2, UuidKeyRange.partitionOf(new UUID(-1L, -1L), 3));
+        assertEquals(0, UuidKeyRange.partitionOf(new UUID(0L, 0L), 3));
+    }
+
+    @Test
+    @DisplayName("Should order UUIDs as unsigned values")
+    void shouldOrderUuidsAsUnsignedValues() {
+        UUID low = UUID.fromString("7fffffff-ffff-ffff-ffff-ffffffffffff");
+        UUID high = UUID.fromString("80000000-0000-0000-0000-000000000000");
+
+        assertTrue(low.compareTo(high) > 0);
+        assertTrue(UuidKeyRange.ORDER.compare(low, high) < 0);
+    }
+
+    @Test
+    @DisplayName("Should reject non-positive partition counts")
+    void shouldRejectNonPositivePartitionCounts() {
+        assertThrows(IllegalArgumentException.class, () -> UuidKeyRange.split(0));
+        assertThrows(IllegalArgumentException.class, () -> UuidKeyRange.partitionOf(UUID.randomUUID(), -1));
+    }
+
+    @Test
+    @DisplayName("Should contain every key when unbounded")
+    void shouldContainEveryKeyWhenUnbounded() {
+        assertTrue(UuidKeyRange.all().contains(UUID.randomUUID()));
+        assertTrue(UuidKeyRange.all().contains(new UUID(-1L, -1L)));
+    }
+}
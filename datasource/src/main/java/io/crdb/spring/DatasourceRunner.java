@@ -1,25 +1,41 @@
 package io.crdb.spring;
 
+import io.crdb.spring.common.IngestionPipeline;
 import io.crdb.spring.common.UserDTO;
 import io.crdb.spring.common.UserDTOBuilder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.ApplicationArguments;
 import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.UncategorizedSQLException;
 import org.springframework.stereotype.Component;
 
+import java.sql.SQLException;
 import java.util.List;
 
 @Component
+@Profile("!workload")
 public class DatasourceRunner implements ApplicationRunner {
     private static final Logger logger = LoggerFactory.getLogger(DatasourceRunner.class);
 
+    private static final String CHUNKED_MODE = "chunked";
+
+    @Value("${demo.update.mode:single}")
+    private String updateMode;
+
+    @Value("${demo.delete.mode:single}")
+    private String deleteMode;
+
     private final UserDTOBuilder userDTOBuilder;
     private final UserService userService;
+    private final IngestionPipeline ingestionPipeline;
 
-    public DatasourceRunner(UserDTOBuilder userDTOBuilder, UserService userService) {
+    public DatasourceRunner(UserDTOBuilder userDTOBuilder, UserService userService, IngestionPipeline ingestionPipeline) {
         this.userDTOBuilder = userDTOBuilder;
         this.userService = userService;
+        this.ingestionPipeline = ingestionPipeline;
     }
 
     @Override
@@ -27,7 +43,13 @@ public class DatasourceRunner implements ApplicationRunner {
 
         logger.debug("***************************************************** Starting Insert *****************************************************");
 
-        userService.insertUsers(userDTOBuilder.buildUsers());
+        ingestionPipeline.run(userDTOBuilder.streamUsers(), batch -> {
+            try {
+                userService.insertUsers(batch);
+            } catch (SQLException e) {
+                throw new UncategorizedSQLException("insert", null, e);
+            }
+        });
 
         logger.debug("***************************************************** Starting Select All *****************************************************");
 
@@ -37,7 +59,8 @@ public class DatasourceRunner implements ApplicationRunner {
 
         logger.debug("***************************************************** Starting Update *****************************************************");
 
-        int updateUsers = userService.updateUsers();
+        // chunked walks key ranges in short transactions and resumes from checkpoints, single is one statement
+        int updateUsers = CHUNKED_MODE.equalsIgnoreCase(updateMode) ? userService.updateUsersInChunks() : userService.updateUsers();
 
         logger.debug("updated {} users", updateUsers);
 
@@ -45,7 +68,8 @@ public class DatasourceRunner implements ApplicationRunner {
 
         logger.debug("***************************************************** Starting Delete *****************************************************");
 
-        int deletedUsers = userService.deleteUsers();
+        // chunked deletes in short, paced transactions, single is one statement
+        int deletedUsers = CHUNKED_MODE.equalsIgnoreCase(deleteMode) ? userService.deleteUsersInChunks() : userService.deleteUsers();
 
         logger.debug("deleted {} users", deletedUsers);
 
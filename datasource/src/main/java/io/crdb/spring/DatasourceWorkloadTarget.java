@@ -0,0 +1,71 @@
+package io.crdb.spring;
+
+import io.crdb.spring.common.UserDTO;
+import io.crdb.spring.workload.WorkloadTarget;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.UncategorizedSQLException;
+import org.springframework.stereotype.Component;
+
+import java.sql.SQLException;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Runs the workload through the datasource {@link UserService}.
+ */
+@Component
+@Profile("workload")
+public class DatasourceWorkloadTarget implements WorkloadTarget {
+
+    private final UserService userService;
+
+    public DatasourceWorkloadTarget(UserService userService) {
+        this.userService = userService;
+    }
+
+    @Override
+    public String name() {
+        return "datasource";
+    }
+
+    @Override
+    public void load(List<UserDTO> users) {
+        try {
+            userService.insertUsers(users);
+        } catch (SQLException e) {
+            throw new UncategorizedSQLException("load", null, e);
+        }
+    }
+
+    @Override
+    public void insert(UserDTO user) {
+        load(List.of(user));
+    }
+
+    @Override
+    public boolean read(UUID id) {
+        try {
+            return userService.selectUser(id) != null;
+        } catch (SQLException e) {
+            throw new UncategorizedSQLException("read", null, e);
+        }
+    }
+
+    @Override
+    public boolean update(UUID id) {
+        try {
+            return userService.updateUser(id) > 0;
+        } catch (SQLException e) {
+            throw new UncategorizedSQLException("update", null, e);
+        }
+    }
+
+    @Override
+    public int scan(UUID after, int limit) {
+        try {
+            return userService.selectPage(after, limit).content().size();
+        } catch (SQLException e) {
+            throw new UncategorizedSQLException("scan", null, e);
+        }
+    }
+}
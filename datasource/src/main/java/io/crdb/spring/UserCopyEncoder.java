@@ -0,0 +1,74 @@
+package io.crdb.spring;
+
+import io.crdb.spring.common.UserDTO;
+
+import java.nio.charset.StandardCharsets;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+/**
+ * Encodes {@link UserDTO} rows using the PostgreSQL {@code COPY ... FROM STDIN} text format (tab delimited,
+ * {@code \N} for null).  Column order matches the {@code datasource_users} table.  Instances reuse an internal
+ * buffer and are not thread safe.
+ */
+public class UserCopyEncoder {
+
+    private static final char DELIMITER = '\t';
+    private static final String NULL = "\\N";
+    private static final DateTimeFormatter TIMESTAMP_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss.SSSSSS");
+
+    private final StringBuilder buffer = new StringBuilder(256);
+
+    public byte[] encode(List<UserDTO> users) {
+        buffer.setLength(0);
+
+        for (UserDTO user : users) {
+            appendRow(user);
+        }
+
+        return buffer.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private void appendRow(UserDTO user) {
+        appendValue(user.id().toString()).append(DELIMITER);
+        appendValue(user.firstName()).append(DELIMITER);
+        appendValue(user.lastName()).append(DELIMITER);
+        appendValue(user.email()).append(DELIMITER);
+        appendValue(user.address()).append(DELIMITER);
+        appendValue(user.city()).append(DELIMITER);
+        appendValue(user.stateCode()).append(DELIMITER);
+        appendValue(user.zipCode()).append(DELIMITER);
+        appendValue(toTimestamp(user.createdTimestamp())).append(DELIMITER);
+        appendValue(toTimestamp(user.updatedTimestamp())).append('\n');
+    }
+
+    private StringBuilder appendValue(String value) {
+        if (value == null) {
+            return buffer.append(NULL);
+        }
+
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '\\' -> buffer.append("\\\\");
+                case '\t' -> buffer.append("\\t");
+                case '\n' -> buffer.append("\\n");
+                case '\r' -> buffer.append("\\r");
+                default -> buffer.append(c);
+            }
+        }
+
+        return buffer;
+    }
+
+    // matches the JDBC driver, which binds java.sql.Timestamp in the JVM default time zone
+    private String toTimestamp(ZonedDateTime timestamp) {
+        if (timestamp == null) {
+            return null;
+        }
+
+        return TIMESTAMP_FORMAT.format(timestamp.withZoneSameInstant(ZoneId.systemDefault()));
+    }
+}
@@ -1,80 +1,217 @@
 package io.crdb.spring;
 
+import com.google.common.collect.Lists;
+import io.crdb.spring.common.ChunkedDeleter;
+import io.crdb.spring.common.ChunkedUpdater;
+import io.crdb.spring.common.FollowerReads;
+import io.crdb.spring.common.InsertCounts;
+import io.crdb.spring.common.JdbcTypes;
+import io.crdb.spring.common.KeysetPage;
+import io.crdb.spring.common.MultiRowUserInsert;
+import io.crdb.spring.common.ReadConsistency;
 import io.crdb.spring.common.UserDTO;
+import io.crdb.spring.common.UserJdbcMapper;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.postgresql.copy.CopyManager;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.UncategorizedSQLException;
 import org.springframework.retry.support.RetryTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import javax.sql.DataSource;
 import java.sql.*;
-import java.time.ZoneId;
 import java.time.ZonedDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
 import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 @Service
 public class UserService {
 
     private static final Logger logger = LoggerFactory.getLogger(UserService.class);
 
+    private static final String COPY_MODE = "copy";
+    private static final String MULTI_ROW_MODE = "multi-row";
+    private static final String UPDATE_USERS_JOB = "datasource_users.updateUsers";
+
+    private final MultiRowUserInsert multiRowInsert = new MultiRowUserInsert("datasource_users");
+    private final MultiRowUserInsert multiRowInsertIfAbsent = new MultiRowUserInsert("datasource_users", true);
+
+    private static final String INSERT_SQL = "INSERT INTO datasource_users VALUES (?,?,?,?,?,?,?,?,?,?)";
+    private static final String INSERT_IF_ABSENT_SQL = INSERT_SQL + MultiRowUserInsert.ON_CONFLICT_DO_NOTHING;
+    private static final String SELECT_NOT_UPDATED_SQL = "SELECT * FROM datasource_users WHERE updated_timestamp IS NULL";
+    private static final String SELECT_CREATED_BETWEEN_SQL = "SELECT * FROM datasource_users WHERE created_timestamp >= ? AND created_timestamp < ? ORDER BY created_timestamp";
+
     @Value("${demo.batch.size}")
     private int batchSize;
 
+    @Value("${demo.insert.mode:batch}")
+    private String insertMode;
+
+    @Value("${demo.insert.idempotent:false}")
+    private boolean idempotent;
+
+    @Value("${demo.fetch.size:256}")
+    private int fetchSize;
+
     private final DataSource dataSource;
     private final RetryTemplate retryTemplate;
+    private final FollowerReads followerReads;
+    private final ChunkedDeleter chunkedDeleter;
+    private final ChunkedUpdater chunkedUpdater;
 
-    public UserService(DataSource dataSource, RetryTemplate retryTemplate) {
+    public UserService(DataSource dataSource, RetryTemplate retryTemplate, FollowerReads followerReads, ChunkedDeleter chunkedDeleter,
+                       ChunkedUpdater chunkedUpdater) {
         this.dataSource = dataSource;
         this.retryTemplate = retryTemplate;
+        this.followerReads = followerReads;
+        this.chunkedDeleter = chunkedDeleter;
+        this.chunkedUpdater = chunkedUpdater;
     }
 
+    /**
+     * Inserts users in batches of {@code demo.batch.size}.  Each batch is bound and executed inside its own retry, so a
+     * retried batch resends its rows rather than an empty batch.  With {@code demo.insert.idempotent} rows that are
+     * already present are skipped, which makes replaying a batch that committed before a {@code 40003} a no-op.
+     *
+     * @param users users to insert
+     * @return reconciled counts for every batch, or {@link InsertCounts#NONE} for {@code copy} mode
+     * @throws SQLException if a batch fails and cannot be retried
+     */
     @Transactional
-    public void insertUsers(List<UserDTO> users) throws SQLException {
-        final String sql = "INSERT INTO datasource_users VALUES (?,?,?,?,?,?,?,?,?,?)";
+    public InsertCounts insertUsers(List<UserDTO> users) throws SQLException {
+        if (COPY_MODE.equalsIgnoreCase(insertMode)) {
+            copyUsers(users);
+            return InsertCounts.NONE;
+        }
+
+        if (MULTI_ROW_MODE.equalsIgnoreCase(insertMode)) {
+            return InsertCounts.ofStatement(users.size(), insertUsersMultiRow(users));
+        }
+
+        InsertCounts total = InsertCounts.NONE;
 
         try (Connection conn = dataSource.getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql)) {
+             PreparedStatement ps = conn.prepareStatement(idempotent ? INSERT_IF_ABSENT_SQL : INSERT_SQL)) {
 
-            int count = 0;
+            for (List<UserDTO> chunk : Lists.partition(users, batchSize)) {
+                int[] batch = retryTemplate.execute(context -> {
+                    ps.clearBatch();
 
-            for (UserDTO user : users) {
+                    for (UserDTO user : chunk) {
+                        MultiRowUserInsert.bind(ps, 1, user);
+                        ps.addBatch();
+                    }
 
-                ps.setString(1, user.id().toString());
-                ps.setString(2, user.firstName());
-                ps.setString(3, user.lastName());
-                ps.setString(4, user.email());
-                ps.setString(5, user.address());
-                ps.setString(6, user.city());
-                ps.setString(7, user.stateCode());
-                ps.setString(8, user.zipCode());
-                ps.setTimestamp(9, Timestamp.from(user.createdTimestamp().toInstant()));
-                ps.setTimestamp(10, null);
+                    return ps.executeBatch();
+                });
 
-                ps.addBatch();
+                InsertCounts counts = InsertCounts.ofBatch(chunk.size(), batch);
 
-                if (++count % batchSize == 0) {
-                    int[] batch = retryTemplate.execute(context -> ps.executeBatch());
+                logger.debug("inserted {} users, skipped {} already present", counts.inserted(), counts.skipped());
 
-                    logger.debug("inserted {} users", batch.length);
-                }
+                total = total.plus(counts);
+            }
+        }
 
+        return total;
+    }
+
+    /**
+     * Inserts users with multi-row {@code VALUES} statements of {@code demo.batch.size} rows each.  Each statement is
+     * retried on its own using the {@link RetryTemplate} and, with {@code demo.insert.idempotent}, skips rows that are
+     * already present.
+     *
+     * @param users users to insert
+     * @return number of rows inserted
+     * @throws SQLException if a statement fails and cannot be retried
+     */
+    public int insertUsersMultiRow(List<UserDTO> users) throws SQLException {
+        int total = 0;
+
+        try (Connection conn = dataSource.getConnection();
+             MultiRowUserInsert.Session session = (idempotent ? multiRowInsertIfAbsent : multiRowInsert).open(conn)) {
+
+            for (List<UserDTO> chunk : Lists.partition(users, batchSize)) {
+                int inserted = retryTemplate.execute(context -> session.execute(chunk));
+
+                logger.debug("inserted {} users, skipped {} already present", inserted, chunk.size() - inserted);
+
+                total += inserted;
             }
+        }
+
+        return total;
+    }
+
+    /**
+     * Bulk loads users using {@code COPY ... FROM STDIN}.  Rows are streamed to the server in chunks of
+     * {@code demo.batch.size}; each chunk is a separate COPY that is retried on its own using the {@link RetryTemplate}.
+     * COPY cannot skip existing rows, so {@code demo.insert.idempotent} does not apply.
+     *
+     * @param users users to load
+     * @return number of rows copied
+     * @throws SQLException if a chunk fails and cannot be retried
+     */
+    public long copyUsers(List<UserDTO> users) throws SQLException {
+        final String sql = "COPY datasource_users FROM STDIN";
+
+        UserCopyEncoder encoder = new UserCopyEncoder();
+        long total = 0;
+
+        try (Connection conn = dataSource.getConnection()) {
+
+            CopyManager copyManager = conn.unwrap(PGConnection.class).getCopyAPI();
+
+            for (List<UserDTO> chunk : Lists.partition(users, batchSize)) {
+                byte[] rows = encoder.encode(chunk);
 
-            int[] remainingBatch = retryTemplate.execute(context -> ps.executeBatch());
+                long copied = retryTemplate.execute(context -> copyChunk(copyManager, sql, rows));
 
-            logger.debug("inserted remaining {} users", remainingBatch.length);
+                logger.debug("copied {} users", copied);
+
+                total += copied;
+            }
         }
+
+        return total;
     }
 
     @Transactional(readOnly = true)
     public List<UserDTO> selectUsers() throws SQLException {
-        List<UserDTO> users = new ArrayList<>();
+        return selectUsers(ReadConsistency.STRONG);
+    }
 
-        final String sql = "SELECT * FROM datasource_users WHERE updated_timestamp IS NULL";
+    /**
+     * Returns every user where {@code updated_timestamp IS NULL}.  With {@link ReadConsistency#FOLLOWER} the query
+     * reads {@code AS OF SYSTEM TIME} and may miss writes from the last few seconds, but it can be served by any
+     * replica and never conflicts with concurrent writers.
+     *
+     * @param consistency how fresh the result has to be
+     * @return the users
+     * @throws SQLException if the query fails
+     */
+    @Transactional(readOnly = true)
+    public List<UserDTO> selectUsers(ReadConsistency consistency) throws SQLException {
+        final String sql;
+
+        if (consistency == ReadConsistency.FOLLOWER) {
+            sql = "SELECT * FROM datasource_users " + followerReads.asOfSystemTime() + " WHERE updated_timestamp IS NULL";
+            followerReads.record("datasource.selectUsers");
+        } else {
+            sql = SELECT_NOT_UPDATED_SQL;
+        }
+
+        List<UserDTO> users = new ArrayList<>();
 
         try (Connection conn = dataSource.getConnection();
              PreparedStatement ps = conn.prepareStatement(sql);
@@ -82,18 +219,7 @@ public class UserService {
 
             if (rs != null) {
                 while (rs.next()) {
-                    users.add(new UserDTO(
-                            UUID.fromString(rs.getString("id")),
-                            rs.getString("first_name"),
-                            rs.getString("last_name"),
-                            rs.getString("email"),
-                            rs.getString("address"),
-                            rs.getString("city"),
-                            rs.getString("state_code"),
-                            rs.getString("zip_code"),
-                            fromTimestamp(rs.getTimestamp("created_timestamp")),
-                            fromTimestamp(rs.getTimestamp("updated_timestamp"))
-                    ));
+                    users.add(UserJdbcMapper.fromResultSet(rs));
                 }
             }
         }
@@ -101,6 +227,174 @@ public class UserService {
         return users;
     }
 
+    /**
+     * Returns the users created in {@code [from, to)}, oldest first, from the hash-sharded
+     * {@code datasource_users_created_idx}.
+     *
+     * @param from start of the window, inclusive
+     * @param to   end of the window, exclusive
+     * @return the users
+     * @throws SQLException if the query fails
+     */
+    @Transactional(readOnly = true)
+    public List<UserDTO> findCreatedBetween(ZonedDateTime from, ZonedDateTime to) throws SQLException {
+        List<UserDTO> users = new ArrayList<>();
+
+        try (Connection conn = dataSource.getConnection();
+             PreparedStatement ps = conn.prepareStatement(SELECT_CREATED_BETWEEN_SQL)) {
+
+            ps.setTimestamp(1, Timestamp.from(from.toInstant()));
+            ps.setTimestamp(2, Timestamp.from(to.toInstant()));
+
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    users.add(UserJdbcMapper.fromResultSet(rs));
+                }
+            }
+        }
+
+        return users;
+    }
+
+    /**
+     * Passes every user where {@code updated_timestamp IS NULL} to {@code consumer} without holding the result in memory.
+     *
+     * @param consumer receives each user in turn
+     * @return number of users read
+     * @throws SQLException if the query fails
+     */
+    @Transactional(readOnly = true)
+    public long selectUsers(Consumer<UserDTO> consumer) throws SQLException {
+        long count = 0;
+
+        try (Stream<UserDTO> users = streamUsers()) {
+            for (UserDTO user : (Iterable<UserDTO>) users::iterator) {
+                consumer.accept(user);
+                count++;
+            }
+        }
+
+        return count;
+    }
+
+    /**
+     * Streams every user where {@code updated_timestamp IS NULL}.  The query runs in a read-only transaction with a
+     * fetch size of {@code demo.fetch.size}, so the driver uses a cursor and pulls rows in chunks instead of buffering
+     * the whole result.  The stream holds a connection and must be closed, ideally with try-with-resources.
+     *
+     * @return a stream of users that must be closed
+     * @throws SQLException if the query cannot be started
+     */
+    public Stream<UserDTO> streamUsers() throws SQLException {
+        Connection conn = dataSource.getConnection();
+        PreparedStatement ps = null;
+
+        try {
+            // the driver ignores the fetch size unless auto-commit is off
+            conn.setAutoCommit(false);
+            conn.setReadOnly(true);
+
+            ps = conn.prepareStatement(SELECT_NOT_UPDATED_SQL);
+            ps.setFetchSize(fetchSize);
+
+            ResultSet rs = ps.executeQuery();
+
+            PreparedStatement statement = ps;
+
+            return StreamSupport.stream(new ResultSetSpliterator(rs), false)
+                    .onClose(() -> closeStream(conn, statement, rs));
+        } catch (SQLException e) {
+            PreparedStatement statement = ps;
+
+            // closes both even if the rollback or the statement fails, which is likely once the connection is broken
+            try (conn; statement) {
+                conn.rollback();
+            } catch (SQLException cleanupFailure) {
+                e.addSuppressed(cleanupFailure);
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Returns up to {@code limit} users ordered by id, starting after {@code after}.  Pass {@code null} for the first
+     * page and {@link KeysetPage#continuation()} for each following page.
+     *
+     * @param after continuation from the previous page, or {@code null} to start at the beginning
+     * @param limit maximum number of users on the page
+     * @return the page
+     * @throws SQLException if the query fails
+     */
+    @Transactional(readOnly = true)
+    public KeysetPage<UserDTO> selectPage(UUID after, int limit) throws SQLException {
+        final String sql = after == null
+                ? "SELECT * FROM datasource_users ORDER BY id LIMIT ?"
+                : "SELECT * FROM datasource_users WHERE id > ? ORDER BY id LIMIT ?";
+
+        List<UserDTO> users = new ArrayList<>(limit);
+
+        try (Connection conn = dataSource.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+
+            int index = 1;
+            if (after != null) {
+                JdbcTypes.setUuid(ps, index++, after);
+            }
+            ps.setInt(index, limit);
+
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    users.add(UserJdbcMapper.fromResultSet(rs));
+                }
+            }
+        }
+
+        return KeysetPage.of(users, limit, UserDTO::id);
+    }
+
+    /**
+     * Returns the user with {@code id}, or {@code null} if there is none.
+     *
+     * @param id the user's id
+     * @return the user or {@code null}
+     * @throws SQLException if the query fails
+     */
+    @Transactional(readOnly = true)
+    public UserDTO selectUser(UUID id) throws SQLException {
+        final String sql = "SELECT * FROM datasource_users WHERE id = ?";
+
+        try (Connection conn = dataSource.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+
+            JdbcTypes.setUuid(ps, 1, id);
+
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() ? UserJdbcMapper.fromResultSet(rs) : null;
+            }
+        }
+    }
+
+    /**
+     * Sets {@code updated_timestamp} on the user with {@code id}.
+     *
+     * @param id the user's id
+     * @return number of rows updated
+     * @throws SQLException if the update fails and cannot be retried
+     */
+    @Transactional
+    public int updateUser(UUID id) throws SQLException {
+        final String sql = "UPDATE datasource_users SET updated_timestamp = ? WHERE id = ?";
+
+        try (Connection conn = dataSource.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+
+            ps.setTimestamp(1, Timestamp.from(ZonedDateTime.now().toInstant()));
+            JdbcTypes.setUuid(ps, 2, id);
+
+            return retryTemplate.execute(context -> ps.executeUpdate());
+        }
+    }
+
     @Transactional
     public int updateUsers() throws SQLException {
         final String sql = "UPDATE datasource_users SET updated_timestamp = ? WHERE updated_timestamp IS NULL";
@@ -114,6 +408,19 @@ public class UserService {
         }
     }
 
+    /**
+     * Sets {@code updated_timestamp} on every user where it is {@code NULL} with {@link ChunkedUpdater}: short
+     * per-chunk transactions over parallel key ranges instead of {@link #updateUsers()}'s single statement.  If an
+     * earlier run failed this one resumes from its checkpoints.  Not {@code @Transactional}, each chunk commits on its own.
+     *
+     * @return number of rows updated
+     * @throws io.crdb.spring.common.ChunkedUpdateException if a key range fails after its retries
+     */
+    public int updateUsersInChunks() {
+        return Math.toIntExact(chunkedUpdater.update(dataSource, UPDATE_USERS_JOB, "datasource_users", "updated_timestamp = ?",
+                "updated_timestamp IS NULL", Timestamp.from(ZonedDateTime.now().toInstant())).rows());
+    }
+
     @Transactional
     public int deleteUsers() throws SQLException {
         final String sql = "DELETE FROM datasource_users WHERE updated_timestamp IS NOT NULL";
@@ -125,12 +432,58 @@ public class UserService {
         }
     }
 
+    /**
+     * Deletes updated users with {@link ChunkedDeleter}, one committed chunk at a time, instead of {@link #deleteUsers()}'s
+     * single transaction.  Not {@code @Transactional}, each chunk commits on its own.
+     *
+     * @return number of rows deleted
+     * @throws io.crdb.spring.common.ChunkedDeleteException if a chunk fails after its retries
+     */
+    public int deleteUsersInChunks() {
+        return Math.toIntExact(chunkedDeleter.delete(dataSource, "datasource_users", "updated_timestamp IS NOT NULL").rows());
+    }
+
+
+    private void closeStream(Connection conn, PreparedStatement ps, ResultSet rs) {
+        try (conn; ps; rs) {
+            conn.commit();
+        } catch (SQLException e) {
+            throw new UncategorizedSQLException("streamUsers", SELECT_NOT_UPDATED_SQL, e);
+        }
+    }
+
+    private long copyChunk(CopyManager copyManager, String sql, byte[] rows) throws SQLException {
+        CopyIn copyIn = copyManager.copyIn(sql);
+        try {
+            copyIn.writeToCopy(rows, 0, rows.length);
+            return copyIn.endCopy();
+        } finally {
+            if (copyIn.isActive()) {
+                copyIn.cancelCopy();
+            }
+        }
+    }
+
+    private class ResultSetSpliterator extends Spliterators.AbstractSpliterator<UserDTO> {
+
+        private final ResultSet rs;
 
-    private ZonedDateTime fromTimestamp(java.sql.Timestamp timestamp) {
-        if (timestamp == null) {
-            return null;
+        ResultSetSpliterator(ResultSet rs) {
+            super(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL);
+            this.rs = rs;
         }
 
-        return ZonedDateTime.ofInstant(timestamp.toInstant(), ZoneId.systemDefault());
+        @Override
+        public boolean tryAdvance(Consumer<? super UserDTO> action) {
+            try {
+                if (!rs.next()) {
+                    return false;
+                }
+                action.accept(UserJdbcMapper.fromResultSet(rs));
+                return true;
+            } catch (SQLException e) {
+                throw new UncategorizedSQLException("streamUsers", SELECT_NOT_UPDATED_SQL, e);
+            }
+        }
     }
 }
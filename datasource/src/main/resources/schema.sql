@@ -10,4 +10,28 @@ CREATE TABLE IF NOT EXISTS datasource_users
     zip_code          varchar(50)      NOT NULL,
     created_timestamp timestamp        NOT NULL,
     updated_timestamp timestamp        NULL
-);
\ No newline at end of file
+);
+
+-- rows not yet updated, read by selectUsers and updateUsers
+CREATE INDEX IF NOT EXISTS datasource_users_not_updated_idx ON datasource_users (id)
+    STORING (first_name, last_name, email, address, city, state_code, zip_code, created_timestamp, updated_timestamp)
+    WHERE updated_timestamp IS NULL;
+
+-- rows already updated, found by deleteUsers
+CREATE INDEX IF NOT EXISTS datasource_users_updated_idx ON datasource_users (id)
+    WHERE updated_timestamp IS NOT NULL;
+
+-- rows by creation time, read by findCreatedBetween; hash-sharded so inserts do not all land on one range
+CREATE INDEX IF NOT EXISTS datasource_users_created_idx ON datasource_users (created_timestamp) USING HASH
+    STORING (first_name, last_name, email, address, city, state_code, zip_code, updated_timestamp);
+
+-- progress of resumable chunked jobs, one row per key range, see CheckpointStore
+CREATE TABLE IF NOT EXISTS job_checkpoints
+(
+    job         varchar(100) NOT NULL,
+    range_count int          NOT NULL,
+    range_index int          NOT NULL,
+    last_key    uuid         NOT NULL,
+    updated_at  timestamp    NOT NULL,
+    PRIMARY KEY (job, range_count, range_index)
+);
@@ -0,0 +1,73 @@
+package io.crdb.spring.datasource;
+
+import io.crdb.spring.UserCopyEncoder;
+import io.crdb.spring.common.UserDTO;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UserCopyEncoderTest {
+
+    private final UserCopyEncoder encoder = new UserCopyEncoder();
+
+    @Test
+    @DisplayName("Should encode one tab delimited line per user")
+    void shouldEncodeOneLinePerUser() {
+        List<UserDTO> users = List.of(createUser("John"), createUser("Jane"));
+
+        String encoded = new String(encoder.encode(users), StandardCharsets.UTF_8);
+        String[] lines = encoded.split("\n");
+
+        assertEquals(2, lines.length);
+        assertTrue(encoded.endsWith("\n"));
+
+        String[] columns = lines[0].split("\t");
+        assertEquals(10, columns.length);
+        assertEquals(users.get(0).id().toString(), columns[0]);
+        assertEquals("John", columns[1]);
+        assertEquals("2024-01-02 03:04:05.123456", columns[8]);
+    }
+
+    @Test
+    @DisplayName("Should encode null values as \\N")
+    void shouldEncodeNullValues() {
+        String encoded = new String(encoder.encode(List.of(createUser("John"))), StandardCharsets.UTF_8);
+
+        assertTrue(encoded.endsWith("\t\\N\n"));
+    }
+
+    @Test
+    @DisplayName("Should escape delimiters, newlines and backslashes")
+    void shouldEscapeSpecialCharacters() {
+        String encoded = new String(encoder.encode(List.of(createUser("Jo\thn\\\n"))), StandardCharsets.UTF_8);
+
+        String[] columns = encoded.split("\t");
+        assertEquals("Jo\\thn\\\\\\n", columns[1]);
+        assertEquals(1, encoded.split("\n").length);
+    }
+
+    @Test
+    @DisplayName("Should reuse buffer between calls")
+    void shouldReuseBufferBetweenCalls() {
+        byte[] first = encoder.encode(List.of(createUser("John")));
+        byte[] second = encoder.encode(List.of(createUser("Jane")));
+
+        assertEquals(first.length, second.length);
+        assertTrue(new String(second, StandardCharsets.UTF_8).contains("Jane"));
+        assertFalse(new String(second, StandardCharsets.UTF_8).contains("John"));
+    }
+
+    private UserDTO createUser(String firstName) {
+        ZonedDateTime created = ZonedDateTime.of(2024, 1, 2, 3, 4, 5, 123456000, ZoneId.systemDefault());
+
+        return new UserDTO(UUID.randomUUID(), firstName, "Doe", "john@example.com", "123 Main St",
+                "New York", "NY", "10001", created, null);
+    }
+}
@@ -1,12 +1,21 @@
 package io.crdb.spring.datasource;
 
 import io.crdb.spring.UserService;
+import io.crdb.spring.common.ChunkedDeleter;
+import io.crdb.spring.common.ChunkedUpdater;
+import io.crdb.spring.common.FollowerReads;
+import io.crdb.spring.common.InsertCounts;
+import io.crdb.spring.common.KeysetPage;
+import io.crdb.spring.common.ReadConsistency;
 import io.crdb.spring.common.UserDTO;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.DisplayName;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.postgresql.copy.CopyManager;
 import org.springframework.retry.RetryCallback;
 import org.springframework.retry.RetryContext;
 import org.springframework.retry.support.RetryTemplate;
@@ -14,9 +23,12 @@ import org.springframework.test.util.ReflectionTestUtils;
 
 import javax.sql.DataSource;
 import java.sql.*;
+import java.time.Duration;
 import java.time.ZonedDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -39,6 +51,14 @@ class UserServiceTest {
     @Mock
     private RetryTemplate retryTemplate;
 
+    @Mock
+    private ChunkedDeleter chunkedDeleter;
+
+    @Mock
+    private ChunkedUpdater chunkedUpdater;
+
+    private FollowerReads followerReads;
+
     private UserService userService;
 
     @BeforeEach
@@ -47,7 +67,8 @@ class UserServiceTest {
         
         when(dataSource.getConnection()).thenReturn(connection);
         
-        userService = new UserService(dataSource, retryTemplate);
+        followerReads = new FollowerReads("follower_read_timestamp()");
+        userService = new UserService(dataSource, retryTemplate, followerReads, chunkedDeleter, chunkedUpdater);
         
         // Set batchSize to avoid division by zero
         ReflectionTestUtils.setField(userService, "batchSize", 1000);
@@ -68,7 +89,7 @@ class UserServiceTest {
         userService.insertUsers(users);
 
         verify(connection).prepareStatement(contains("INSERT INTO datasource_users"));
-        verify(preparedStatement, times(3)).setString(eq(1), anyString());
+        verify(preparedStatement, times(3)).setObject(eq(1), any(UUID.class));
         verify(preparedStatement, times(3)).setString(eq(2), anyString());
         verify(preparedStatement, times(3)).setString(eq(3), anyString());
         verify(preparedStatement, times(3)).addBatch();
@@ -95,6 +116,88 @@ class UserServiceTest {
         verify(connection).close();
     }
 
+    @Test
+    @DisplayName("Should copy users in chunks when insert mode is copy")
+    void shouldCopyUsersInChunksWhenInsertModeIsCopy() throws SQLException {
+        ReflectionTestUtils.setField(userService, "insertMode", "copy");
+        ReflectionTestUtils.setField(userService, "batchSize", 2);
+
+        PGConnection pgConnection = mock(PGConnection.class);
+        CopyManager copyManager = mock(CopyManager.class);
+        CopyIn copyIn = mock(CopyIn.class);
+
+        when(connection.unwrap(PGConnection.class)).thenReturn(pgConnection);
+        when(pgConnection.getCopyAPI()).thenReturn(copyManager);
+        when(copyManager.copyIn(anyString())).thenReturn(copyIn);
+        when(copyIn.endCopy()).thenReturn(2L, 1L);
+
+        when(retryTemplate.execute(any(RetryCallback.class))).thenAnswer(invocation -> {
+            RetryCallback<?, ?> callback = invocation.getArgument(0);
+            return callback.doWithRetry(mock(RetryContext.class));
+        });
+
+        userService.insertUsers(createTestUsers(3));
+
+        verify(copyManager, times(2)).copyIn(contains("COPY datasource_users FROM STDIN"));
+        verify(copyIn, times(2)).writeToCopy(any(byte[].class), eq(0), anyInt());
+        verify(copyIn, times(2)).endCopy();
+        verify(connection, never()).prepareStatement(anyString());
+        verify(connection).close();
+    }
+
+    @Test
+    @DisplayName("Should insert users with multi-row statements when insert mode is multi-row")
+    void shouldInsertUsersWithMultiRowStatements() throws SQLException {
+        ReflectionTestUtils.setField(userService, "insertMode", "multi-row");
+        ReflectionTestUtils.setField(userService, "batchSize", 2);
+
+        when(connection.prepareStatement(anyString())).thenReturn(preparedStatement);
+        when(preparedStatement.executeUpdate()).thenReturn(2, 1);
+
+        when(retryTemplate.execute(any(RetryCallback.class))).thenAnswer(invocation -> {
+            RetryCallback<?, ?> callback = invocation.getArgument(0);
+            return callback.doWithRetry(mock(RetryContext.class));
+        });
+
+        InsertCounts counts = userService.insertUsers(createTestUsers(3));
+
+        assertEquals(new InsertCounts(3, 3, 0, 0), counts);
+        verify(connection).prepareStatement("INSERT INTO datasource_users VALUES (?,?,?,?,?,?,?,?,?,?),(?,?,?,?,?,?,?,?,?,?)");
+        verify(connection).prepareStatement("INSERT INTO datasource_users VALUES (?,?,?,?,?,?,?,?,?,?)");
+        verify(preparedStatement, times(2)).executeUpdate();
+        verify(preparedStatement, never()).addBatch();
+        verify(connection).close();
+    }
+
+    @Test
+    @DisplayName("Should rebind and skip existing rows when a batch is replayed in idempotent mode")
+    void shouldRebindAndSkipExistingRowsWhenReplayed() throws SQLException {
+        ReflectionTestUtils.setField(userService, "idempotent", true);
+        ReflectionTestUtils.setField(userService, "batchSize", 2);
+
+        when(connection.prepareStatement(anyString())).thenReturn(preparedStatement);
+        when(preparedStatement.executeBatch())
+                .thenThrow(new SQLException("result is ambiguous", "40003"))
+                .thenReturn(new int[]{0, 0}, new int[]{1});
+
+        when(retryTemplate.execute(any(RetryCallback.class))).thenAnswer(invocation -> {
+            RetryCallback<Object, SQLException> callback = invocation.getArgument(0);
+            try {
+                return callback.doWithRetry(mock(RetryContext.class));
+            } catch (SQLException e) {
+                return callback.doWithRetry(mock(RetryContext.class));
+            }
+        });
+
+        InsertCounts counts = userService.insertUsers(createTestUsers(3));
+
+        assertEquals(new InsertCounts(3, 1, 2, 0), counts);
+        verify(connection).prepareStatement("INSERT INTO datasource_users VALUES (?,?,?,?,?,?,?,?,?,?) ON CONFLICT (id) DO NOTHING");
+        verify(preparedStatement, times(3)).executeBatch();
+        verify(preparedStatement, times(5)).addBatch();
+        verify(connection).close();
+    }
+
     @Test
     @DisplayName("Should select users and map results correctly")
     void shouldSelectUsersAndMapResultsCorrectly() throws SQLException {
@@ -119,6 +222,126 @@ class UserServiceTest {
         verify(connection).close();
     }
 
+    @Test
+    @DisplayName("Should select users created within a time window")
+    void shouldSelectUsersCreatedWithinWindow() throws SQLException {
+        setupResultSetForSelectUsers();
+        when(connection.prepareStatement(anyString())).thenReturn(preparedStatement);
+        when(preparedStatement.executeQuery()).thenReturn(resultSet);
+        ZonedDateTime to = ZonedDateTime.now();
+        ZonedDateTime from = to.minusHours(1);
+
+        List<UserDTO> result = userService.findCreatedBetween(from, to);
+
+        assertEquals(2, result.size());
+        verify(connection).prepareStatement(
+                "SELECT * FROM datasource_users WHERE created_timestamp >= ? AND created_timestamp < ? ORDER BY created_timestamp");
+        verify(preparedStatement).setTimestamp(1, Timestamp.from(from.toInstant()));
+        verify(preparedStatement).setTimestamp(2, Timestamp.from(to.toInstant()));
+        verify(connection).close();
+    }
+
+    @Test
+    @DisplayName("Should select users as of follower read timestamp")
+    void shouldSelectUsersAsOfFollowerReadTimestamp() throws SQLException {
+        setupResultSetForSelectUsers();
+        when(connection.prepareStatement(anyString())).thenReturn(preparedStatement);
+        when(preparedStatement.executeQuery()).thenReturn(resultSet);
+
+        List<UserDTO> result = userService.selectUsers(ReadConsistency.FOLLOWER);
+
+        assertEquals(2, result.size());
+        verify(connection).prepareStatement("SELECT * FROM datasource_users AS OF SYSTEM TIME follower_read_timestamp() WHERE updated_timestamp IS NULL");
+        assertEquals(1L, followerReads.staleReadCounts().get("datasource.selectUsers"));
+    }
+
+    @Test
+    @DisplayName("Should select users at current timestamp by default")
+    void shouldSelectUsersAtCurrentTimestampByDefault() throws SQLException {
+        when(connection.prepareStatement(anyString())).thenReturn(preparedStatement);
+        when(preparedStatement.executeQuery()).thenReturn(resultSet);
+
+        userService.selectUsers(ReadConsistency.STRONG);
+
+        verify(connection).prepareStatement("SELECT * FROM datasource_users WHERE updated_timestamp IS NULL");
+        assertTrue(followerReads.staleReadCounts().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should stream users using a cursor and release the connection on close")
+    void shouldStreamUsersUsingCursor() throws SQLException {
+        ReflectionTestUtils.setField(userService, "fetchSize", 50);
+        setupResultSetForSelectUsers();
+        when(connection.prepareStatement(anyString())).thenReturn(preparedStatement);
+        when(preparedStatement.executeQuery()).thenReturn(resultSet);
+
+        try (Stream<UserDTO> users = userService.streamUsers()) {
+            assertEquals(2, users.count());
+            verify(connection, never()).close();
+        }
+
+        verify(connection).setAutoCommit(false);
+        verify(connection).setReadOnly(true);
+        verify(preparedStatement).setFetchSize(50);
+        verify(connection).commit();
+        verify(resultSet).close();
+        verify(preparedStatement).close();
+        verify(connection).close();
+    }
+
+    @Test
+    @DisplayName("Should close the connection when a stream fails to start and cleanup fails too")
+    void shouldCloseConnectionWhenStreamFailsToStart() throws SQLException {
+        SQLException queryFailure = new SQLException("connection reset", "08006");
+        SQLException rollbackFailure = new SQLException("connection closed", "08003");
+
+        when(connection.prepareStatement(anyString())).thenReturn(preparedStatement);
+        when(preparedStatement.executeQuery()).thenThrow(queryFailure);
+        doThrow(rollbackFailure).when(connection).rollback();
+        doThrow(new SQLException("connection closed", "08003")).when(preparedStatement).close();
+
+        SQLException thrown = assertThrows(SQLException.class, () -> userService.streamUsers());
+
+        assertSame(queryFailure, thrown);
+        assertSame(rollbackFailure, thrown.getSuppressed()[0]);
+        assertEquals(1, rollbackFailure.getSuppressed().length);
+        verify(connection).close();
+    }
+
+    @Test
+    @DisplayName("Should pass streamed users to consumer")
+    void shouldPassStreamedUsersToConsumer() throws SQLException {
+        setupResultSetForSelectUsers();
+        when(connection.prepareStatement(anyString())).thenReturn(preparedStatement);
+        when(preparedStatement.executeQuery()).thenReturn(resultSet);
+
+        List<UserDTO> consumed = new ArrayList<>();
+        long count = userService.selectUsers(consumed::add);
+
+        assertEquals(2, count);
+        assertEquals("John", consumed.get(0).firstName());
+        assertEquals("Jane", consumed.get(1).firstName());
+        verify(connection).close();
+    }
+
+    @Test
+    @DisplayName("Should select page after continuation ordered by id")
+    void shouldSelectPageAfterContinuation() throws SQLException {
+        setupResultSetForSelectUsers();
+        when(connection.prepareStatement(anyString())).thenReturn(preparedStatement);
+        when(preparedStatement.executeQuery()).thenReturn(resultSet);
+        UUID after = UUID.randomUUID();
+
+        KeysetPage<UserDTO> page = userService.selectPage(after, 2);
+
+        assertEquals(2, page.content().size());
+        assertEquals(page.content().get(1).id(), page.continuation());
+        verify(connection).prepareStatement("SELECT * FROM datasource_users WHERE id > ? ORDER BY id LIMIT ?");
+        verify(preparedStatement).setObject(1, after);
+        verify(preparedStatement).setInt(2, 2);
+        verify(connection).close();
+    }
+
     @Test
     @DisplayName("Should update users successfully")
     void shouldUpdateUsersSuccessfully() throws SQLException {
@@ -139,6 +362,19 @@ class UserServiceTest {
         verify(connection).close();
     }
 
+    @Test
+    @DisplayName("Should update users in chunks with the chunked updater")
+    void shouldUpdateUsersInChunks() {
+        when(chunkedUpdater.update(eq(dataSource), eq("datasource_users.updateUsers"), eq("datasource_users"),
+                eq("updated_timestamp = ?"), eq("updated_timestamp IS NULL"), any(Timestamp.class)))
+                .thenReturn(new ChunkedUpdater.Result("datasource_users.updateUsers", "datasource_users", 7, 2, 4, 0, Duration.ofMillis(5)));
+
+        int result = userService.updateUsersInChunks();
+
+        assertEquals(7, result);
+        verifyNoInteractions(connection);
+    }
+
     @Test
     @DisplayName("Should delete users successfully")
     void shouldDeleteUsersSuccessfully() throws SQLException {
@@ -156,6 +392,29 @@ class UserServiceTest {
         verify(connection).prepareStatement(contains("DELETE FROM datasource_users WHERE updated_timestamp IS NOT NULL"));
         verify(preparedStatement).executeUpdate();
         verify(connection).close();
+        verifyNoInteractions(chunkedDeleter);
+    }
+
+    @Test
+    @DisplayName("Should delete users in chunks with the chunked deleter")
+    void shouldDeleteUsersInChunks() {
+        when(chunkedDeleter.delete(dataSource, "datasource_users", "updated_timestamp IS NOT NULL"))
+                .thenReturn(new ChunkedDeleter.Result("datasource_users", 3, 1, Duration.ofMillis(5), UUID.randomUUID(), 1000));
+
+        int result = userService.deleteUsersInChunks();
+
+        assertEquals(3, result);
+        verify(chunkedDeleter).delete(dataSource, "datasource_users", "updated_timestamp IS NOT NULL");
+        verifyNoInteractions(connection);
+    }
+
+    @Test
+    @DisplayName("Should reject a chunked delete count that does not fit an int")
+    void shouldRejectOverflowingChunkedDeleteCount() {
+        when(chunkedDeleter.delete(dataSource, "datasource_users", "updated_timestamp IS NOT NULL"))
+                .thenReturn(new ChunkedDeleter.Result("datasource_users", Integer.MAX_VALUE + 1L, 1, Duration.ofMillis(5), UUID.randomUUID(), 1000));
+
+        assertThrows(ArithmeticException.class, () -> userService.deleteUsersInChunks());
     }
 
     @Test
@@ -191,9 +450,9 @@ class UserServiceTest {
                 .thenReturn(true)
                 .thenReturn(false);
 
-        when(resultSet.getString(eq("id")))
-                .thenReturn("00000000-0000-0000-0000-000000000001")
-                .thenReturn("00000000-0000-0000-0000-000000000002");
+        when(resultSet.getObject("id", UUID.class))
+                .thenReturn(UUID.fromString("00000000-0000-0000-0000-000000000001"))
+                .thenReturn(UUID.fromString("00000000-0000-0000-0000-000000000002"));
 
         when(resultSet.getString("first_name"))
                 .thenReturn("John")
@@ -1,16 +1,17 @@
 package io.crdb.spring;
 
 import com.github.javafaker.Faker;
+import io.crdb.spring.common.CockroachRetryTransactionManager;
 import io.crdb.spring.common.ExceptionChecker;
-import io.crdb.spring.common.PostgresRetryClassifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.ConfigurableApplicationContext;
 import org.springframework.context.annotation.Bean;
 import org.springframework.retry.annotation.EnableRetry;
-import org.springframework.retry.policy.ExceptionClassifierRetryPolicy;
-import org.springframework.retry.support.RetryTemplate;
 
+import javax.sql.DataSource;
 import java.util.Locale;
 
 @SpringBootApplication
@@ -28,22 +29,18 @@ public class JdbcTemplateApplication {
 	}
 
 	/**
-	 * Configure the RetryTemplate to use custom ExceptionClassifierRetryPolicy for determining
-	 * if exceptions are retryable.  {@link PostgresRetryClassifier} uses {@link ExceptionChecker} to
-	 * inspect Exceptions.  The RetryTemplate is not used by the
-	 * {@link org.springframework.retry.annotation.Retryable} annotation.
+	 * Replaces the auto-configured transaction manager with one that retries serialization failures inside the
+	 * transaction using CockroachDB's {@code SAVEPOINT cockroach_restart} protocol.
 	 *
-	 * @param exceptionChecker utility for checking if exception is "retryable"
-	 * @return RetryTemplate
+	 * @param dataSource       the application DataSource
+	 * @param exceptionChecker utility for reading the SQL state of exceptions
+	 * @param maxAttempts      attempts within one transaction before the failure is rethrown
+	 * @return CockroachRetryTransactionManager
 	 */
 	@Bean
-	public RetryTemplate retryTemplate(ExceptionChecker exceptionChecker) {
-		ExceptionClassifierRetryPolicy policy = new ExceptionClassifierRetryPolicy();
-		policy.setExceptionClassifier(new PostgresRetryClassifier(exceptionChecker));
-
-		return RetryTemplate.builder()
-				.customPolicy(policy)
-				.fixedBackoff(2)
-				.build();
+	@ConditionalOnProperty(name = "demo.transaction.savepoint-retry.enabled", havingValue = "true")
+	public CockroachRetryTransactionManager transactionManager(DataSource dataSource, ExceptionChecker exceptionChecker,
+															   @Value("${demo.transaction.savepoint-retry.max-attempts:5}") int maxAttempts) {
+		return new CockroachRetryTransactionManager(dataSource, exceptionChecker, maxAttempts);
 	}
 }
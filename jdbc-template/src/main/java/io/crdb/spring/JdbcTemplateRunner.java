@@ -1,9 +1,11 @@
 package io.crdb.spring;
 
+import io.crdb.spring.common.IngestionPipeline;
 import io.crdb.spring.common.UserDTO;
 import io.crdb.spring.common.UserDTOBuilder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.ApplicationArguments;
 import org.springframework.boot.ApplicationRunner;
 import org.springframework.context.annotation.Profile;
@@ -12,16 +14,32 @@ import org.springframework.stereotype.Component;
 import java.util.List;
 
 @Component
-@Profile("!test")
+@Profile("!test & !workload")
 public class JdbcTemplateRunner implements ApplicationRunner {
     private static final Logger logger = LoggerFactory.getLogger(JdbcTemplateRunner.class);
 
+    private static final String CHUNKED_MODE = "chunked";
+
+    @Value("${demo.insert.threads:1}")
+    private int insertThreads;
+
+    @Value("${demo.update.mode:single}")
+    private String updateMode;
+
+    @Value("${demo.delete.mode:single}")
+    private String deleteMode;
+
     private final UserDTOBuilder userDTOBuilder;
     private final UserService userService;
+    private final ParallelInsertService parallelInsertService;
+    private final IngestionPipeline ingestionPipeline;
 
-    public JdbcTemplateRunner(UserDTOBuilder userDTOBuilder, UserService userService) {
+    public JdbcTemplateRunner(UserDTOBuilder userDTOBuilder, UserService userService, ParallelInsertService parallelInsertService,
+                              IngestionPipeline ingestionPipeline) {
         this.userDTOBuilder = userDTOBuilder;
         this.userService = userService;
+        this.parallelInsertService = parallelInsertService;
+        this.ingestionPipeline = ingestionPipeline;
     }
 
     @Override
@@ -29,7 +47,16 @@ public class JdbcTemplateRunner implements ApplicationRunner {
 
         logger.debug("***************************************************** Starting Insert *****************************************************");
 
-        userService.insertUsers(userDTOBuilder.buildUsers());
+        if (insertThreads > 1) {
+            // each pipeline batch is further split by key range across demo.insert.threads connections
+            ingestionPipeline.run(userDTOBuilder.streamUsers(), batch -> {
+                ParallelInsertService.InsertResult result = parallelInsertService.insertUsers(batch);
+
+                logger.debug("inserted {} users in {} partitions with {} retries", result.rows(), result.partitions().size(), result.retries());
+            });
+        } else {
+            ingestionPipeline.run(userDTOBuilder.streamUsers(), userService::insertUsers);
+        }
 
         logger.debug("***************************************************** Starting Select All *****************************************************");
 
@@ -39,7 +66,8 @@ public class JdbcTemplateRunner implements ApplicationRunner {
 
         logger.debug("***************************************************** Starting Update *****************************************************");
 
-        int updateUsers = userService.updateUsers();
+        // chunked walks key ranges in short transactions and resumes from checkpoints, single is one statement
+        int updateUsers = CHUNKED_MODE.equalsIgnoreCase(updateMode) ? userService.updateUsersInChunks() : userService.updateUsers();
 
         logger.debug("updated {} users", updateUsers);
 
@@ -47,7 +75,8 @@ public class JdbcTemplateRunner implements ApplicationRunner {
 
         logger.debug("***************************************************** Starting Delete *****************************************************");
 
-        int deletedUsers = userService.deleteUsers();
+        // chunked deletes in short, paced transactions, single is one statement
+        int deletedUsers = CHUNKED_MODE.equalsIgnoreCase(deleteMode) ? userService.deleteUsersInChunks() : userService.deleteUsers();
 
         logger.debug("deleted {} users", deletedUsers);
 
@@ -0,0 +1,58 @@
+package io.crdb.spring;
+
+import io.crdb.spring.common.UserDTO;
+import io.crdb.spring.workload.WorkloadTarget;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Runs the workload through the jdbc-template {@link UserService}.
+ */
+@Component
+@Profile("workload")
+public class JdbcTemplateWorkloadTarget implements WorkloadTarget {
+
+    private final UserService userService;
+
+    public JdbcTemplateWorkloadTarget(UserService userService) {
+        this.userService = userService;
+    }
+
+    @Override
+    public String name() {
+        return "jdbc-template";
+    }
+
+    @Override
+    public void load(List<UserDTO> users) {
+        userService.insertUsers(users);
+    }
+
+    @Override
+    public void insert(UserDTO user) {
+        userService.insertUser(user);
+    }
+
+    @Override
+    public boolean read(UUID id) {
+        try {
+            return userService.selectUser(id) != null;
+        } catch (EmptyResultDataAccessException e) {
+            return false;
+        }
+    }
+
+    @Override
+    public boolean update(UUID id) {
+        return userService.updateUser(id) > 0;
+    }
+
+    @Override
+    public int scan(UUID after, int limit) {
+        return userService.selectPage(after, limit).content().size();
+    }
+}
@@ -0,0 +1,164 @@
+package io.crdb.spring;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import io.crdb.spring.common.InsertCounts;
+import io.crdb.spring.common.UserDTO;
+import io.crdb.spring.common.UserJdbcMapper;
+import io.crdb.spring.common.UuidKeyRange;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.retry.support.RetryTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Inserts users in parallel.  The incoming list is partitioned by {@link UuidKeyRange} so each worker writes to its
+ * own contiguous span of the primary key, and each partition is inserted in its own transaction on its own
+ * connection.  A serialization failure only retries the partition it occurred in rather than the whole list, and with
+ * {@code demo.insert.idempotent} a partition replayed after an ambiguous commit skips the rows it already wrote.  The
+ * {@code demo.insert.threads} workers live as long as the bean, so each batch reuses them instead of starting a pool.
+ */
+@Service
+public class ParallelInsertService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ParallelInsertService.class);
+
+    @Value("${demo.batch.size}")
+    private int batchSize;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final RetryTemplate retryTemplate;
+    private final UserService userService;
+    private final int threads;
+    private final ExecutorService executorService;
+
+    public ParallelInsertService(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate, RetryTemplate retryTemplate,
+                                 UserService userService, @Value("${demo.insert.threads:1}") int threads) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.retryTemplate = retryTemplate;
+        this.userService = userService;
+        this.threads = threads;
+
+        ThreadFactory threadFactory = new ThreadFactoryBuilder().setNameFormat("user-insert-thread-%d").build();
+        this.executorService = Executors.newFixedThreadPool(threads, threadFactory);
+    }
+
+    public InsertResult insertUsers(List<UserDTO> users) {
+        List<List<UserDTO>> partitions = partition(users, threads);
+
+        List<Future<PartitionResult>> futures = new ArrayList<>(partitions.size());
+
+        for (int i = 0; i < partitions.size(); i++) {
+            final int partition = i;
+            final List<UserDTO> partitionUsers = partitions.get(i);
+
+            if (!partitionUsers.isEmpty()) {
+                futures.add(executorService.submit(() -> insertPartition(partition, partitionUsers)));
+            }
+        }
+
+        List<PartitionResult> results = new ArrayList<>(futures.size());
+
+        for (Future<PartitionResult> future : futures) {
+            results.add(getResult(future));
+        }
+
+        InsertResult result = new InsertResult(results);
+
+        logger.debug("inserted {} users across {} partitions with {} retries, skipped {} already present, {} without a count",
+                result.rows(), results.size(), result.retries(), result.skipped(), result.unknown());
+
+        return result;
+    }
+
+    /**
+     * Stops the insert workers, letting partitions already submitted finish.
+     */
+    @PreDestroy
+    public void close() {
+        executorService.close();
+    }
+
+    static List<List<UserDTO>> partition(List<UserDTO> users, int partitions) {
+        List<List<UserDTO>> partitioned = new ArrayList<>(partitions);
+        for (int i = 0; i < partitions; i++) {
+            partitioned.add(new ArrayList<>(users.size() / partitions + 1));
+        }
+
+        for (UserDTO user : users) {
+            partitioned.get(UuidKeyRange.partitionOf(user.id(), partitions)).add(user);
+        }
+
+        return partitioned;
+    }
+
+    private PartitionResult insertPartition(int partition, List<UserDTO> users) {
+        int[] retries = new int[1];
+        String sql = userService.insertSql();
+
+        int[][] batches = retryTemplate.execute(context -> {
+            retries[0] = context.getRetryCount();
+            return transactionTemplate.execute(status -> jdbcTemplate.batchUpdate(sql, users, batchSize, UserJdbcMapper::toStatement));
+        });
+
+        InsertCounts counts = InsertCounts.ofBatches(users.size(), batches);
+
+        logger.debug("partition {} inserted {} users with {} retries, skipped {}, {} without a count", partition, counts.inserted(),
+                retries[0], counts.skipped(), counts.unknown());
+
+        return new PartitionResult(partition, counts.inserted(), counts.skipped(), counts.unknown(), retries[0]);
+    }
+
+    private PartitionResult getResult(Future<PartitionResult> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("interrupted while waiting for partition insert", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("partition insert failed", e.getCause());
+        }
+    }
+
+    /**
+     * @param rows    rows the database reported as inserted
+     * @param unknown rows without a count, e.g. when the driver rewrites batches
+     */
+    public record PartitionResult(int partition, int rows, int skipped, int unknown, int retries) {
+    }
+
+    public record InsertResult(List<PartitionResult> partitions) {
+
+        public int rows() {
+            return partitions.stream().mapToInt(PartitionResult::rows).sum();
+        }
+
+        public int skipped() {
+            return partitions.stream().mapToInt(PartitionResult::skipped).sum();
+        }
+
+        public int unknown() {
+            return partitions.stream().mapToInt(PartitionResult::unknown).sum();
+        }
+
+        public int retries() {
+            return partitions.stream().mapToInt(PartitionResult::retries).sum();
+        }
+    }
+}
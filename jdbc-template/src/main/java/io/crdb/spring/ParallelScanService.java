@@ -0,0 +1,142 @@
+package io.crdb.spring;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import io.crdb.spring.common.JdbcTypes;
+import io.crdb.spring.common.UserDTO;
+import io.crdb.spring.common.UserJdbcMapper;
+import io.crdb.spring.common.UuidKeyRange;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Reads the same rows as {@link UserService#selectUsers()} by splitting the UUID keyspace into {@link UuidKeyRange}s and
+ * scanning each range concurrently on its own connection and read-only transaction.  Ranges map to different
+ * CockroachDB ranges (and usually different leaseholders), so a full read is no longer bound by a single scan through
+ * one gateway.
+ */
+@Service
+public class ParallelScanService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ParallelScanService.class);
+
+    @Value("${demo.fetch.size:256}")
+    private int fetchSize;
+
+    @Value("${demo.scan.threads:4}")
+    private int threads;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    public ParallelScanService(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+    }
+
+    public long scanUsers(Consumer<UserDTO> consumer) {
+        return scanUsers(threads, consumer);
+    }
+
+    /**
+     * Scans {@code partitions} key ranges concurrently, passing every row to {@code consumer}.  The consumer is called
+     * from several threads at once and must be thread safe; rows arrive in key order within a range but ranges are
+     * interleaved.
+     *
+     * @param partitions number of key ranges to scan
+     * @param consumer   receives each user
+     * @return number of users read
+     */
+    public long scanUsers(int partitions, Consumer<UserDTO> consumer) {
+        List<UuidKeyRange> ranges = UuidKeyRange.split(partitions);
+
+        ThreadFactory threadFactory = new ThreadFactoryBuilder().setNameFormat("user-scan-thread-%d").build();
+
+        long rows = 0;
+
+        try (ExecutorService executorService = Executors.newFixedThreadPool(Math.min(threads, partitions), threadFactory)) {
+            List<Future<Long>> futures = new ArrayList<>(partitions);
+
+            for (UuidKeyRange range : ranges) {
+                futures.add(executorService.submit(() -> transactionTemplate.execute(status -> scanRange(range, consumer))));
+            }
+
+            for (Future<Long> future : futures) {
+                rows += getResult(future);
+            }
+        }
+
+        logger.debug("scanned {} users across {} ranges", rows, partitions);
+
+        return rows;
+    }
+
+    private long scanRange(UuidKeyRange range, Consumer<UserDTO> consumer) {
+        List<UUID> args = new ArrayList<>(2);
+        StringBuilder sql = new StringBuilder(UserService.SELECT_NOT_UPDATED_SQL);
+
+        if (range.lower() != null) {
+            sql.append(" AND id >= ?");
+            args.add(range.lower());
+        }
+
+        if (range.upper() != null) {
+            sql.append(" AND id < ?");
+            args.add(range.upper());
+        }
+
+        long count = 0;
+
+        try (Stream<UserDTO> users = jdbcTemplate.queryForStream(con -> {
+                    PreparedStatement ps = con.prepareStatement(sql.toString());
+                    ps.setFetchSize(fetchSize);
+                    for (int i = 0; i < args.size(); i++) {
+                        JdbcTypes.setUuid(ps, i + 1, args.get(i));
+                    }
+                    return ps;
+                },
+                UserJdbcMapper.ROW_MAPPER)) {
+
+            for (UserDTO user : (Iterable<UserDTO>) users::iterator) {
+                consumer.accept(user);
+                count++;
+            }
+        }
+
+        logger.debug("scanned {} users in range {}", count, range);
+
+        return count;
+    }
+
+    private long getResult(Future<Long> future) {
+        try {
+            Long rows = future.get();
+            return rows != null ? rows : 0;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("interrupted while waiting for range scan", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("range scan failed", e.getCause());
+        }
+    }
+}
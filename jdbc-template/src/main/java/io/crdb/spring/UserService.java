@@ -1,93 +1,304 @@
 package io.crdb.spring;
 
+import com.google.common.collect.Lists;
+import io.crdb.spring.common.ChunkedDeleter;
+import io.crdb.spring.common.ChunkedUpdater;
+import io.crdb.spring.common.FollowerReads;
+import io.crdb.spring.common.InsertCounts;
+import io.crdb.spring.common.KeysetPage;
+import io.crdb.spring.common.MultiRowUserInsert;
+import io.crdb.spring.common.ReadConsistency;
 import io.crdb.spring.common.UserDTO;
+import io.crdb.spring.common.UserJdbcMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.retry.annotation.Retryable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.sql.PreparedStatement;
-import java.sql.ResultSet;
-import java.sql.SQLException;
 import java.sql.Timestamp;
-import java.time.ZoneId;
 import java.time.ZonedDateTime;
 import java.util.List;
 import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
 public class UserService {
 
-    private static final String INSERT_SQL = "INSERT INTO jdbc_template_users VALUES (?,?,?,?,?,?,?,?,?,?)";
+    private static final Logger logger = LoggerFactory.getLogger(UserService.class);
+
+    static final String INSERT_SQL = "INSERT INTO jdbc_template_users VALUES (?,?,?,?,?,?,?,?,?,?)";
+    static final String INSERT_IF_ABSENT_SQL = INSERT_SQL + MultiRowUserInsert.ON_CONFLICT_DO_NOTHING;
+    public static final String SELECT_NOT_UPDATED_SQL = "SELECT * FROM jdbc_template_users WHERE updated_timestamp IS NULL";
+    public static final String SELECT_CREATED_BETWEEN_SQL = "SELECT * FROM jdbc_template_users WHERE created_timestamp >= ? AND created_timestamp < ? ORDER BY created_timestamp";
     public static final String SELECT_SQL = "SELECT * FROM jdbc_template_users WHERE id = ?";
+    public static final String SELECT_FIRST_PAGE_SQL = "SELECT * FROM jdbc_template_users ORDER BY id LIMIT ?";
+    public static final String SELECT_NEXT_PAGE_SQL = "SELECT * FROM jdbc_template_users WHERE id > ? ORDER BY id LIMIT ?";
     public static final String UPDATE_SQL = "UPDATE jdbc_template_users SET updated_timestamp = ? WHERE id = ?";
+    static final String UPDATE_NOT_UPDATED_SQL = "UPDATE jdbc_template_users SET updated_timestamp = ? WHERE updated_timestamp IS NULL";
+    static final String DELETE_UPDATED_SQL = "DELETE FROM jdbc_template_users WHERE updated_timestamp IS NOT NULL";
+    static final String TABLE = "jdbc_template_users";
+    static final String UPDATED_PREDICATE = "updated_timestamp IS NOT NULL";
+    static final String NOT_UPDATED_PREDICATE = "updated_timestamp IS NULL";
+    static final String UPDATE_USERS_JOB = "jdbc_template_users.updateUsers";
+
+    private static final String MULTI_ROW_MODE = "multi-row";
 
     @Value("${demo.batch.size}")
     private int batchSize;
 
+    @Value("${demo.insert.mode:batch}")
+    private String insertMode;
+
+    @Value("${demo.insert.idempotent:false}")
+    private boolean idempotent;
+
+    @Value("${demo.fetch.size:256}")
+    private int fetchSize;
+
+    private final MultiRowUserInsert multiRowInsert = new MultiRowUserInsert("jdbc_template_users");
+    private final MultiRowUserInsert multiRowInsertIfAbsent = new MultiRowUserInsert("jdbc_template_users", true);
+
     private final JdbcTemplate jdbcTemplate;
+    private final FollowerReads followerReads;
+    private final ChunkedDeleter chunkedDeleter;
+    private final ChunkedUpdater chunkedUpdater;
+    private final TransactionTemplate followerReadTemplate;
 
-    public UserService(JdbcTemplate jdbcTemplate) {
+    public UserService(JdbcTemplate jdbcTemplate, FollowerReads followerReads, ChunkedDeleter chunkedDeleter, ChunkedUpdater chunkedUpdater,
+                       PlatformTransactionManager transactionManager) {
         this.jdbcTemplate = jdbcTemplate;
+        this.followerReads = followerReads;
+        this.chunkedDeleter = chunkedDeleter;
+        this.chunkedUpdater = chunkedUpdater;
+        this.followerReadTemplate = new TransactionTemplate(transactionManager);
+        this.followerReadTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.followerReadTemplate.setReadOnly(true);
     }
 
+    /**
+     * Inserts users in batches of {@code demo.batch.size}.  The whole transaction is retried, so with
+     * {@code demo.insert.idempotent} rows that are already present are skipped and replaying a transaction whose
+     * {@code COMMIT} outcome was unknown ({@code 40003}) is a no-op instead of a primary key violation.
+     *
+     * @param users users to insert
+     * @return reconciled counts across all batches
+     */
     @Transactional
-    @Retryable(exceptionExpression = "@exceptionChecker.shouldRetry(#root)")
-    public void insertUsers(List<UserDTO> users) {
-        jdbcTemplate.batchUpdate(INSERT_SQL, users, batchSize, this::mapUserToStatement);
+    @Retryable(interceptor = "postgresRetryInterceptor")
+    public InsertCounts insertUsers(List<UserDTO> users) {
+        if (MULTI_ROW_MODE.equalsIgnoreCase(insertMode)) {
+            return insertUsersMultiRow(users);
+        }
+
+        int[][] batches = jdbcTemplate.batchUpdate(insertSql(), users, batchSize, UserJdbcMapper::toStatement);
+
+        return reconcile(InsertCounts.ofBatches(users.size(), batches));
     }
 
+    private InsertCounts insertUsersMultiRow(List<UserDTO> users) {
+        Integer inserted = jdbcTemplate.execute((ConnectionCallback<Integer>) conn -> {
+            int rows = 0;
+
+            try (MultiRowUserInsert.Session session = (idempotent ? multiRowInsertIfAbsent : multiRowInsert).open(conn)) {
+                for (List<UserDTO> chunk : Lists.partition(users, batchSize)) {
+                    rows += session.execute(chunk);
+                }
+            }
+
+            return rows;
+        });
+
+        return reconcile(inserted != null ? InsertCounts.ofStatement(users.size(), inserted) : InsertCounts.ofBatch(users.size(), null));
+    }
+
+    /**
+     * The statement {@link #insertUsers(List)} and {@link ParallelInsertService} use for a single row.
+     */
+    public String insertSql() {
+        return idempotent ? INSERT_IF_ABSENT_SQL : INSERT_SQL;
+    }
+
+    private static InsertCounts reconcile(InsertCounts counts) {
+        if (counts.skipped() > 0) {
+            logger.debug("skipped {} of {} users already present, batch was replayed", counts.skipped(), counts.attempted());
+        }
+
+        return counts;
+    }
 
     @Transactional
-    @Retryable(exceptionExpression = "@exceptionChecker.shouldRetry(#root)")
+    @Retryable(interceptor = "postgresRetryInterceptor")
     public void insertUser(UserDTO user) {
-        jdbcTemplate.update(INSERT_SQL, ps -> mapUserToStatement(ps, user)
+        jdbcTemplate.update(insertSql(), ps -> UserJdbcMapper.toStatement(ps, user)
         );
     }
 
 
     @Transactional(readOnly = true)
     public List<UserDTO> selectUsers() {
-        final String sql = "SELECT * FROM jdbc_template_users WHERE updated_timestamp IS NULL";
+        return jdbcTemplate.query(SELECT_NOT_UPDATED_SQL,
+                UserJdbcMapper.ROW_MAPPER
+        );
+    }
+
+    /**
+     * Returns every user where {@code updated_timestamp IS NULL}.  With {@link ReadConsistency#FOLLOWER} the
+     * transaction reads {@code AS OF SYSTEM TIME}, so it may miss the most recent writes but can be served by the
+     * nearest replica and never conflicts with writers.  The timestamp has to be set before any other statement, so a
+     * follower read always runs in its own transaction; a strong read is {@link #selectUsers()} and joins the caller's.
+     */
+    public List<UserDTO> selectUsers(ReadConsistency consistency) {
+        if (consistency != ReadConsistency.FOLLOWER) {
+            return selectUsers();
+        }
+
+        return followerReadTemplate.execute(status -> {
+            asOf("jdbc-template.selectUsers");
+            return selectUsers();
+        });
+    }
+
+    /**
+     * Returns the users created in {@code [from, to)}, oldest first, from the hash-sharded
+     * {@code jdbc_template_users_created_idx}.
+     */
+    @Transactional(readOnly = true)
+    public List<UserDTO> findCreatedBetween(ZonedDateTime from, ZonedDateTime to) {
+        return jdbcTemplate.query(SELECT_CREATED_BETWEEN_SQL,
+                UserJdbcMapper.ROW_MAPPER,
+                Timestamp.from(from.toInstant()), Timestamp.from(to.toInstant())
+        );
+    }
+
+    /**
+     * Passes every user where {@code updated_timestamp IS NULL} to {@code consumer} without holding the result in memory.
+     *
+     * @param consumer receives each user in turn
+     * @return number of users read
+     */
+    @Transactional(readOnly = true)
+    public long selectUsers(Consumer<UserDTO> consumer) {
+        long count = 0;
+
+        try (Stream<UserDTO> users = streamUsers()) {
+            for (UserDTO user : (Iterable<UserDTO>) users::iterator) {
+                consumer.accept(user);
+                count++;
+            }
+        }
+
+        return count;
+    }
 
-        return jdbcTemplate.query(sql,
-                (rs, rowNum) -> getUserFromResultSet(rs)
+    /**
+     * Streams every user where {@code updated_timestamp IS NULL} using a fetch size of {@code demo.fetch.size}.  The
+     * driver only fetches in chunks inside a transaction, so this must be called from an existing (read-only)
+     * transaction, and the stream must be closed to release the cursor.
+     *
+     * @return a stream of users that must be closed
+     */
+    @Transactional(readOnly = true, propagation = Propagation.MANDATORY)
+    public Stream<UserDTO> streamUsers() {
+        return jdbcTemplate.queryForStream(con -> {
+                    PreparedStatement ps = con.prepareStatement(SELECT_NOT_UPDATED_SQL);
+                    ps.setFetchSize(fetchSize);
+                    return ps;
+                },
+                UserJdbcMapper.ROW_MAPPER
         );
     }
 
+    /**
+     * Returns up to {@code limit} users ordered by id, starting after {@code after}.  Pass {@code null} for the first
+     * page and {@link KeysetPage#continuation()} for each following page.
+     */
+    @Transactional(readOnly = true)
+    public KeysetPage<UserDTO> selectPage(UUID after, int limit) {
+        List<UserDTO> users = after == null
+                ? jdbcTemplate.query(SELECT_FIRST_PAGE_SQL, UserJdbcMapper.ROW_MAPPER, limit)
+                : jdbcTemplate.query(SELECT_NEXT_PAGE_SQL, UserJdbcMapper.ROW_MAPPER, after, limit);
+
+        return KeysetPage.of(users, limit, UserDTO::id);
+    }
+
     @Transactional(readOnly = true)
     public UserDTO selectUser(UUID id) {
         return jdbcTemplate.queryForObject(SELECT_SQL,
-                (rs, rowNum) -> getUserFromResultSet(rs),
-                id.toString()
+                UserJdbcMapper.ROW_MAPPER,
+                id
         );
     }
 
+    /**
+     * Returns the user with {@code id}, optionally as a follower read.  See {@link #selectUsers(ReadConsistency)}.
+     */
+    public UserDTO selectUser(UUID id, ReadConsistency consistency) {
+        if (consistency != ReadConsistency.FOLLOWER) {
+            return selectUser(id);
+        }
+
+        return followerReadTemplate.execute(status -> {
+            asOf("jdbc-template.selectUser");
+            return selectUser(id);
+        });
+    }
+
     @Transactional
-    @Retryable(exceptionExpression = "@exceptionChecker.shouldRetry(#root)")
+    @Retryable(interceptor = "postgresRetryInterceptor")
     public int updateUsers() {
-        final String sql = "UPDATE jdbc_template_users SET updated_timestamp = ? WHERE updated_timestamp IS NULL";
-
-        return jdbcTemplate.update(sql, Timestamp.from(ZonedDateTime.now().toInstant()));
+        return jdbcTemplate.update(UPDATE_NOT_UPDATED_SQL, Timestamp.from(ZonedDateTime.now().toInstant()));
     }
 
     @Transactional
-    @Retryable(exceptionExpression = "@exceptionChecker.shouldRetry(#root)")
+    @Retryable(interceptor = "postgresRetryInterceptor")
     public int updateUser(UUID id) {
-        return jdbcTemplate.update(UPDATE_SQL, Timestamp.from(ZonedDateTime.now().toInstant()), id.toString());
+        return jdbcTemplate.update(UPDATE_SQL, Timestamp.from(ZonedDateTime.now().toInstant()), id);
+    }
+
+    /**
+     * Sets {@code updated_timestamp} on every user where it is {@code NULL} with {@link ChunkedUpdater}: short
+     * per-chunk transactions over parallel key ranges instead of {@link #updateUsers()}'s single statement.  If an
+     * earlier run failed this one resumes from its checkpoints.  Not {@code @Transactional} or {@code @Retryable}, each
+     * chunk commits and is retried on its own.
+     *
+     * @return number of rows updated
+     * @throws io.crdb.spring.common.ChunkedUpdateException if a key range fails after its retries
+     */
+    public int updateUsersInChunks() {
+        return Math.toIntExact(chunkedUpdater.update(jdbcTemplate.getDataSource(), UPDATE_USERS_JOB, TABLE, "updated_timestamp = ?",
+                NOT_UPDATED_PREDICATE, Timestamp.from(ZonedDateTime.now().toInstant())).rows());
     }
 
     @Transactional
-    @Retryable(exceptionExpression = "@exceptionChecker.shouldRetry(#root)")
+    @Retryable(interceptor = "postgresRetryInterceptor")
     public int deleteUsers() {
-        final String sql = "DELETE FROM jdbc_template_users WHERE updated_timestamp IS NOT NULL";
+        return jdbcTemplate.update(DELETE_UPDATED_SQL);
+    }
 
-        return jdbcTemplate.update(sql);
+    /**
+     * Deletes updated users with {@link ChunkedDeleter}, one committed chunk at a time, instead of {@link #deleteUsers()}'s
+     * single transaction.  Not {@code @Transactional} or {@code @Retryable}: an enclosing transaction would hold every
+     * chunk until the end, and each chunk is retried on its own.
+     *
+     * @return number of rows deleted
+     * @throws io.crdb.spring.common.ChunkedDeleteException if a chunk fails after its retries
+     */
+    public int deleteUsersInChunks() {
+        return Math.toIntExact(chunkedDeleter.delete(jdbcTemplate.getDataSource(), TABLE, UPDATED_PREDICATE).rows());
     }
 
     @Transactional
-    @Retryable(exceptionExpression = "@exceptionChecker.shouldRetry(#root)")
+    @Retryable(interceptor = "postgresRetryInterceptor")
     public int truncate() {
         final String sql = "TRUNCATE TABLE jdbc_template_users";
 
@@ -96,44 +307,12 @@ public class UserService {
 
     @Transactional
     public void blocker(UUID id, Runnable runnable) {
-        jdbcTemplate.update(UPDATE_SQL, Timestamp.from(ZonedDateTime.now().toInstant()), id.toString());
+        jdbcTemplate.update(UPDATE_SQL, Timestamp.from(ZonedDateTime.now().toInstant()), id);
         runnable.run();
     }
 
-    private void mapUserToStatement(PreparedStatement ps, UserDTO user) throws SQLException {
-        ps.setString(1, user.id().toString());
-        ps.setString(2, user.firstName());
-        ps.setString(3, user.lastName());
-        ps.setString(4, user.email());
-        ps.setString(5, user.address());
-        ps.setString(6, user.city());
-        ps.setString(7, user.stateCode());
-        ps.setString(8, user.zipCode());
-        ps.setTimestamp(9, Timestamp.from(user.createdTimestamp().toInstant()));
-        ps.setTimestamp(10, null);
-    }
-
-    private UserDTO getUserFromResultSet(ResultSet rs) throws SQLException {
-        return new UserDTO(
-                UUID.fromString(rs.getString("id")),
-                rs.getString("first_name"),
-                rs.getString("last_name"),
-                rs.getString("email"),
-                rs.getString("address"),
-                rs.getString("city"),
-                rs.getString("state_code"),
-                rs.getString("zip_code"),
-                fromTimestamp(rs.getTimestamp("created_timestamp")),
-                fromTimestamp(rs.getTimestamp("updated_timestamp"))
-        );
-    }
-
-
-    private ZonedDateTime fromTimestamp(Timestamp timestamp) {
-        if (timestamp == null) {
-            return null;
-        }
-
-        return ZonedDateTime.ofInstant(timestamp.toInstant(), ZoneId.systemDefault());
+    private void asOf(String operation) {
+        jdbcTemplate.execute(followerReads.setTransactionSql());
+        followerReads.record(operation);
     }
 }
@@ -0,0 +1,171 @@
+package io.crdb.spring;
+
+import io.crdb.spring.common.UserDTO;
+import io.crdb.spring.common.UuidKeyRange;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.retry.support.RetryTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.SQLException;
+import java.time.ZonedDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ParallelInsertServiceTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private UserService userService;
+
+    private ParallelInsertService parallelInsertService;
+
+    @BeforeEach
+    void setUp() {
+        parallelInsertService = new ParallelInsertService(jdbcTemplate, new TransactionTemplate(transactionManager), new RetryTemplate(),
+                userService, 4);
+        ReflectionTestUtils.setField(parallelInsertService, "batchSize", 100);
+    }
+
+    @AfterEach
+    void tearDown() {
+        parallelInsertService.close();
+    }
+
+    @Test
+    @DisplayName("Should partition users by key range")
+    void shouldPartitionUsersByKeyRange() {
+        List<UserDTO> users = createTestUsers(1000);
+
+        List<List<UserDTO>> partitions = ParallelInsertService.partition(users, 4);
+
+        assertEquals(4, partitions.size());
+        assertEquals(1000, partitions.stream().mapToInt(List::size).sum());
+
+        List<UuidKeyRange> ranges = UuidKeyRange.split(4);
+        for (int i = 0; i < partitions.size(); i++) {
+            UuidKeyRange range = ranges.get(i);
+            assertTrue(partitions.get(i).stream().allMatch(user -> range.contains(user.id())));
+        }
+    }
+
+    @Test
+    @DisplayName("Should insert each partition in its own transaction")
+    void shouldInsertEachPartitionInItsOwnTransaction() {
+        List<UserDTO> users = createTestUsers(1000);
+        when(userService.insertSql()).thenReturn(UserService.INSERT_SQL);
+        when(jdbcTemplate.batchUpdate(anyString(), anyList(), anyInt(), any(ParameterizedPreparedStatementSetter.class)))
+                .thenAnswer(invocation -> counts(invocation.getArgument(1), 1));
+
+        ParallelInsertService.InsertResult result = parallelInsertService.insertUsers(users);
+
+        assertEquals(1000, result.rows());
+        assertEquals(0, result.retries());
+        assertEquals(4, result.partitions().size());
+        verify(jdbcTemplate, times(4)).batchUpdate(eq(UserService.INSERT_SQL), anyList(), eq(100), any(ParameterizedPreparedStatementSetter.class));
+        verify(transactionManager, times(4)).commit(any());
+    }
+
+    @Test
+    @DisplayName("Should retry only the failed partition")
+    void shouldRetryOnlyFailedPartition() {
+        AtomicBoolean failed = new AtomicBoolean();
+
+        when(userService.insertSql()).thenReturn(UserService.INSERT_SQL);
+        when(jdbcTemplate.batchUpdate(anyString(), anyList(), anyInt(), any(ParameterizedPreparedStatementSetter.class)))
+                .thenAnswer(invocation -> {
+                    if (failed.compareAndSet(false, true)) {
+                        throw new IllegalStateException("retryable", new SQLException("restart transaction", "40001"));
+                    }
+                    return counts(invocation.getArgument(1), 1);
+                });
+
+        ParallelInsertService.InsertResult result = parallelInsertService.insertUsers(createTestUsers(1000));
+
+        assertEquals(1000, result.rows());
+        assertEquals(1, result.retries());
+        verify(jdbcTemplate, times(5)).batchUpdate(anyString(), anyList(), anyInt(), any(ParameterizedPreparedStatementSetter.class));
+    }
+
+    @Test
+    @DisplayName("Should report rows already present as skipped rather than inserted")
+    void shouldReportRowsAlreadyPresentAsSkipped() {
+        when(userService.insertSql()).thenReturn(UserService.INSERT_IF_ABSENT_SQL);
+        when(jdbcTemplate.batchUpdate(anyString(), anyList(), anyInt(), any(ParameterizedPreparedStatementSetter.class)))
+                .thenAnswer(invocation -> counts(invocation.getArgument(1), 0));
+
+        ParallelInsertService.InsertResult result = parallelInsertService.insertUsers(createTestUsers(1000));
+
+        assertEquals(0, result.rows());
+        assertEquals(1000, result.skipped());
+        assertEquals(0, result.unknown());
+        verify(jdbcTemplate, times(4)).batchUpdate(eq(UserService.INSERT_IF_ABSENT_SQL), anyList(), eq(100), any(ParameterizedPreparedStatementSetter.class));
+    }
+
+    @Test
+    @DisplayName("Should reuse the same worker threads across batches")
+    void shouldReuseWorkerThreadsAcrossBatches() {
+        Set<String> threadNames = ConcurrentHashMap.newKeySet();
+
+        when(userService.insertSql()).thenReturn(UserService.INSERT_SQL);
+        when(jdbcTemplate.batchUpdate(anyString(), anyList(), anyInt(), any(ParameterizedPreparedStatementSetter.class)))
+                .thenAnswer(invocation -> {
+                    threadNames.add(Thread.currentThread().getName());
+                    return counts(invocation.getArgument(1), 1);
+                });
+
+        for (int i = 0; i < 5; i++) {
+            parallelInsertService.insertUsers(createTestUsers(1000));
+        }
+
+        assertTrue(threadNames.size() <= 4, threadNames::toString);
+    }
+
+    @Test
+    @DisplayName("Should skip empty partitions")
+    void shouldSkipEmptyPartitions() {
+        ParallelInsertService.InsertResult result = parallelInsertService.insertUsers(List.of());
+
+        assertEquals(0, result.rows());
+        assertTrue(result.partitions().isEmpty());
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    // one batch reporting the same update count for every row
+    private static int[][] counts(List<?> rows, int count) {
+        int[] batch = new int[rows.size()];
+        Arrays.fill(batch, count);
+        return new int[][]{batch};
+    }
+
+    private List<UserDTO> createTestUsers(int count) {
+        return IntStream.range(0, count)
+                .mapToObj(i -> new UserDTO(UUID.randomUUID(), "John", "Doe", "john.doe@example.com", "123 Main St",
+                        "Anytown", "NY", "12345", ZonedDateTime.now(), null))
+                .toList();
+    }
+}
@@ -0,0 +1,92 @@
+package io.crdb.spring;
+
+import io.crdb.spring.common.UserDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ParallelScanServiceTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private ParallelScanService parallelScanService;
+
+    @BeforeEach
+    void setUp() {
+        parallelScanService = new ParallelScanService(jdbcTemplate, transactionManager);
+        ReflectionTestUtils.setField(parallelScanService, "fetchSize", 100);
+        ReflectionTestUtils.setField(parallelScanService, "threads", 2);
+    }
+
+    @Test
+    @DisplayName("Should scan every range and pass all rows to the consumer")
+    void shouldScanEveryRangeAndPassAllRowsToConsumer() {
+        when(jdbcTemplate.queryForStream(any(PreparedStatementCreator.class), any(RowMapper.class)))
+                .thenAnswer(invocation -> List.of(createTestUser(), createTestUser()).stream());
+
+        ConcurrentLinkedQueue<UserDTO> consumed = new ConcurrentLinkedQueue<>();
+        long rows = parallelScanService.scanUsers(4, consumed::add);
+
+        assertEquals(8, rows);
+        assertEquals(8, consumed.size());
+        verify(jdbcTemplate, times(4)).queryForStream(any(PreparedStatementCreator.class), any(RowMapper.class));
+        verify(transactionManager, times(4)).commit(any());
+    }
+
+    @Test
+    @DisplayName("Should bound each range scan by key")
+    void shouldBoundEachRangeScanByKey() throws SQLException {
+        when(jdbcTemplate.queryForStream(any(PreparedStatementCreator.class), any(RowMapper.class)))
+                .thenAnswer(invocation -> Stream.empty());
+
+        parallelScanService.scanUsers(3, user -> { });
+
+        ArgumentCaptor<PreparedStatementCreator> creators = ArgumentCaptor.forClass(PreparedStatementCreator.class);
+        verify(jdbcTemplate, times(3)).queryForStream(creators.capture(), any(RowMapper.class));
+
+        Connection connection = mock(Connection.class);
+        PreparedStatement ps = mock(PreparedStatement.class);
+        when(connection.prepareStatement(anyString())).thenReturn(ps);
+
+        for (PreparedStatementCreator creator : creators.getAllValues()) {
+            creator.createPreparedStatement(connection);
+        }
+
+        verify(connection).prepareStatement("SELECT * FROM jdbc_template_users WHERE updated_timestamp IS NULL AND id < ?");
+        verify(connection).prepareStatement("SELECT * FROM jdbc_template_users WHERE updated_timestamp IS NULL AND id >= ? AND id < ?");
+        verify(connection).prepareStatement("SELECT * FROM jdbc_template_users WHERE updated_timestamp IS NULL AND id >= ?");
+        verify(ps, times(3)).setFetchSize(100);
+    }
+
+    private UserDTO createTestUser() {
+        return new UserDTO(UUID.randomUUID(), "John", "Doe", "john.doe@example.com", "123 Main St",
+                "Anytown", "NY", "12345", ZonedDateTime.now(), null);
+    }
+}
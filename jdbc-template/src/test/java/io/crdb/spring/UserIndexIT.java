@@ -0,0 +1,94 @@
+package io.crdb.spring;
+
+import io.crdb.spring.common.ChunkedDeleter;
+import io.crdb.spring.common.ChunkedUpdater;
+import io.crdb.spring.common.ExplainPlan;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks with {@code EXPLAIN} that the bulk statements are served by the partial indexes in {@code schema.sql}
+ * rather than by scanning the whole table.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class UserIndexIT {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public UserIndexIT(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Test
+    @DisplayName("Should select users not yet updated from the covering partial index")
+    void shouldSelectNotUpdatedFromCoveringIndex() {
+        ExplainPlan plan = ExplainPlan.of(jdbcTemplate, UserService.SELECT_NOT_UPDATED_SQL);
+
+        assertTrue(plan.usesIndex("jdbc_template_users_not_updated_idx"), plan::text);
+        assertFalse(plan.hasFullTableScan(), plan::text);
+        assertFalse(plan.hasIndexJoin(), plan::text);
+    }
+
+    @Test
+    @DisplayName("Should read a time window from the hash-sharded index without a full scan")
+    void shouldReadTimeWindowFromHashShardedIndex() {
+        Instant to = Instant.now();
+        ExplainPlan plan = ExplainPlan.of(jdbcTemplate, UserService.SELECT_CREATED_BETWEEN_SQL,
+                Timestamp.from(to.minusSeconds(3600)), Timestamp.from(to));
+
+        assertTrue(plan.usesIndex("jdbc_template_users_created_idx"), plan::text);
+        assertFalse(plan.hasFullTableScan(), plan::text);
+        assertFalse(plan.hasIndexJoin(), plan::text);
+    }
+
+    @Test
+    @DisplayName("Should find users to update from the partial index")
+    void shouldUpdateFromPartialIndex() {
+        ExplainPlan plan = ExplainPlan.of(jdbcTemplate, UserService.UPDATE_NOT_UPDATED_SQL, Timestamp.from(Instant.now()));
+
+        assertTrue(plan.usesIndex("jdbc_template_users_not_updated_idx"), plan::text);
+        assertFalse(plan.hasFullTableScan(), plan::text);
+    }
+
+    @Test
+    @DisplayName("Should find each chunk of users to update from the partial index")
+    void shouldUpdateChunkFromPartialIndex() {
+        String sql = ChunkedUpdater.chunkSql(UserService.TABLE, "updated_timestamp = ?", UserService.NOT_UPDATED_PREDICATE, true, true);
+        ExplainPlan plan = ExplainPlan.of(jdbcTemplate, sql, Timestamp.from(Instant.now()), UUID.randomUUID(),
+                new UUID(-1L, -1L), 1000);
+
+        assertTrue(plan.usesIndex("jdbc_template_users_not_updated_idx"), plan::text);
+        assertFalse(plan.hasFullTableScan(), plan::text);
+    }
+
+    @Test
+    @DisplayName("Should find users to delete from the partial index")
+    void shouldDeleteFromPartialIndex() {
+        ExplainPlan plan = ExplainPlan.of(jdbcTemplate, UserService.DELETE_UPDATED_SQL);
+
+        assertTrue(plan.usesIndex("jdbc_template_users_updated_idx"), plan::text);
+        assertFalse(plan.hasFullTableScan(), plan::text);
+    }
+
+    @Test
+    @DisplayName("Should find each chunk of users to delete from the partial index")
+    void shouldDeleteChunkFromPartialIndex() {
+        String sql = ChunkedDeleter.chunkSql(UserService.TABLE, UserService.UPDATED_PREDICATE, true);
+        ExplainPlan plan = ExplainPlan.of(jdbcTemplate, sql, UUID.randomUUID(), 1000);
+
+        assertTrue(plan.usesIndex("jdbc_template_users_updated_idx"), plan::text);
+        assertFalse(plan.hasFullTableScan(), plan::text);
+    }
+}
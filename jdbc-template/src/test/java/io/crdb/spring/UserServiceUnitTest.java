@@ -1,22 +1,41 @@
 package io.crdb.spring;
 
+import io.crdb.spring.common.ChunkedDeleter;
+import io.crdb.spring.common.ChunkedUpdater;
+import io.crdb.spring.common.FollowerReads;
+import io.crdb.spring.common.InsertCounts;
+import io.crdb.spring.common.KeysetPage;
+import io.crdb.spring.common.ReadConsistency;
 import io.crdb.spring.common.UserDTO;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.ConnectionCallback;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.jdbc.core.PreparedStatementCreator;
 import org.springframework.jdbc.core.RowMapper;
 import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
 
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
 import java.sql.Timestamp;
+import java.time.Duration;
 import java.time.ZonedDateTime;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -28,13 +47,27 @@ class UserServiceUnitTest {
     @Mock
     private JdbcTemplate jdbcTemplate;
 
+    @Mock
+    private ChunkedDeleter chunkedDeleter;
+
+    @Mock
+    private ChunkedUpdater chunkedUpdater;
+
+    @Mock
+    private DataSource dataSource;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private FollowerReads followerReads;
     private UserService userService;
     private UserDTO testUser;
     private List<UserDTO> testUsers;
 
     @BeforeEach
     void setUp() {
-        userService = new UserService(jdbcTemplate);
+        followerReads = new FollowerReads("follower_read_timestamp()");
+        userService = new UserService(jdbcTemplate, followerReads, chunkedDeleter, chunkedUpdater, transactionManager);
         ReflectionTestUtils.setField(userService, "batchSize", 100);
         
         testUser = createTestUser();
@@ -67,6 +100,35 @@ class UserServiceUnitTest {
         );
     }
 
+    @Test
+    @DisplayName("Should skip existing rows in idempotent mode")
+    void shouldSkipExistingRowsInIdempotentMode() {
+        ReflectionTestUtils.setField(userService, "idempotent", true);
+        when(jdbcTemplate.batchUpdate(anyString(), anyList(), anyInt(), any(ParameterizedPreparedStatementSetter.class)))
+            .thenReturn(new int[][]{new int[]{1, 0, 0}});
+
+        InsertCounts counts = userService.insertUsers(testUsers);
+
+        assertEquals(new InsertCounts(3, 1, 2, 0), counts);
+        verify(jdbcTemplate).batchUpdate(
+            eq("INSERT INTO jdbc_template_users VALUES (?,?,?,?,?,?,?,?,?,?) ON CONFLICT (id) DO NOTHING"),
+            eq(testUsers),
+            eq(100),
+            any(ParameterizedPreparedStatementSetter.class)
+        );
+    }
+
+    @Test
+    @DisplayName("Should insert users with multi-row statements when insert mode is multi-row")
+    void shouldInsertUsersWithMultiRowStatements() {
+        ReflectionTestUtils.setField(userService, "insertMode", "multi-row");
+
+        assertDoesNotThrow(() -> userService.insertUsers(testUsers));
+
+        verify(jdbcTemplate).execute(any(ConnectionCallback.class));
+        verify(jdbcTemplate, never()).batchUpdate(anyString(), anyList(), anyInt(), any(ParameterizedPreparedStatementSetter.class));
+    }
+
     @Test
     @DisplayName("Should select users with null updated_timestamp")
     void shouldSelectUsersWithNullUpdatedTimestamp() {
@@ -81,10 +143,116 @@ class UserServiceUnitTest {
         );
     }
 
+    @Test
+    @DisplayName("Should set follower read timestamp before selecting users")
+    void shouldSetFollowerReadTimestampBeforeSelectingUsers() {
+        when(jdbcTemplate.query(anyString(), any(RowMapper.class))).thenReturn(testUsers);
+
+        List<UserDTO> result = userService.selectUsers(ReadConsistency.FOLLOWER);
+
+        assertEquals(3, result.size());
+        InOrder inOrder = inOrder(jdbcTemplate);
+        inOrder.verify(jdbcTemplate).execute("SET TRANSACTION AS OF SYSTEM TIME follower_read_timestamp()");
+        inOrder.verify(jdbcTemplate).query(eq("SELECT * FROM jdbc_template_users WHERE updated_timestamp IS NULL"), any(RowMapper.class));
+        assertEquals(1L, followerReads.staleReadCounts().get("jdbc-template.selectUsers"));
+        verify(transactionManager).getTransaction(argThat(definition -> definition.isReadOnly()
+                && definition.getPropagationBehavior() == TransactionDefinition.PROPAGATION_REQUIRES_NEW));
+    }
+
+    @Test
+    @DisplayName("Should not set transaction timestamp for strong reads")
+    void shouldNotSetTransactionTimestampForStrongReads() {
+        when(jdbcTemplate.queryForObject(anyString(), any(RowMapper.class), any(UUID.class))).thenReturn(testUser);
+
+        UserDTO result = userService.selectUser(testUser.id(), ReadConsistency.STRONG);
+
+        assertEquals(testUser.id(), result.id());
+        verify(jdbcTemplate, never()).execute(anyString());
+        assertTrue(followerReads.staleReadCounts().isEmpty());
+        verifyNoInteractions(transactionManager);
+    }
+
+    @Test
+    @DisplayName("Should stream users to consumer and close the stream")
+    void shouldStreamUsersToConsumerAndCloseStream() {
+        AtomicBoolean closed = new AtomicBoolean();
+        when(jdbcTemplate.queryForStream(any(PreparedStatementCreator.class), any(RowMapper.class)))
+            .thenReturn(testUsers.stream().onClose(() -> closed.set(true)));
+
+        List<UserDTO> consumed = new ArrayList<>();
+        long result = userService.selectUsers(consumed::add);
+
+        assertEquals(3, result);
+        assertEquals(testUsers, consumed);
+        assertTrue(closed.get());
+    }
+
+    @Test
+    @DisplayName("Should set fetch size on streaming statement")
+    void shouldSetFetchSizeOnStreamingStatement() throws Exception {
+        ReflectionTestUtils.setField(userService, "fetchSize", 50);
+        when(jdbcTemplate.queryForStream(any(PreparedStatementCreator.class), any(RowMapper.class))).thenReturn(Stream.empty());
+
+        try (Stream<UserDTO> users = userService.streamUsers()) {
+            assertEquals(0, users.count());
+        }
+
+        ArgumentCaptor<PreparedStatementCreator> creator = ArgumentCaptor.forClass(PreparedStatementCreator.class);
+        verify(jdbcTemplate).queryForStream(creator.capture(), any(RowMapper.class));
+
+        Connection connection = mock(Connection.class);
+        PreparedStatement ps = mock(PreparedStatement.class);
+        when(connection.prepareStatement("SELECT * FROM jdbc_template_users WHERE updated_timestamp IS NULL")).thenReturn(ps);
+
+        assertSame(ps, creator.getValue().createPreparedStatement(connection));
+        verify(ps).setFetchSize(50);
+    }
+
+    @Test
+    @DisplayName("Should select users created within a time window")
+    void shouldSelectUsersCreatedWithinWindow() {
+        ZonedDateTime to = ZonedDateTime.now();
+        ZonedDateTime from = to.minusHours(1);
+        when(jdbcTemplate.query(anyString(), any(RowMapper.class), any(), any())).thenReturn(testUsers);
+
+        List<UserDTO> result = userService.findCreatedBetween(from, to);
+
+        assertEquals(3, result.size());
+        verify(jdbcTemplate).query(
+            eq("SELECT * FROM jdbc_template_users WHERE created_timestamp >= ? AND created_timestamp < ? ORDER BY created_timestamp"),
+            any(RowMapper.class),
+            eq(Timestamp.from(from.toInstant())),
+            eq(Timestamp.from(to.toInstant()))
+        );
+    }
+
+    @Test
+    @DisplayName("Should select first page ordered by id")
+    void shouldSelectFirstPageOrderedById() {
+        when(jdbcTemplate.query(eq(UserService.SELECT_FIRST_PAGE_SQL), any(RowMapper.class), eq(3))).thenReturn(testUsers);
+
+        KeysetPage<UserDTO> page = userService.selectPage(null, 3);
+
+        assertEquals(testUsers, page.content());
+        assertEquals(testUsers.get(2).id(), page.continuation());
+    }
+
+    @Test
+    @DisplayName("Should select next page after continuation")
+    void shouldSelectNextPageAfterContinuation() {
+        UUID after = UUID.randomUUID();
+        when(jdbcTemplate.query(eq(UserService.SELECT_NEXT_PAGE_SQL), any(RowMapper.class), eq(after), eq(10))).thenReturn(testUsers);
+
+        KeysetPage<UserDTO> page = userService.selectPage(after, 10);
+
+        assertEquals(3, page.content().size());
+        assertFalse(page.hasNext());
+    }
+
     @Test
     @DisplayName("Should select single user by ID")
     void shouldSelectSingleUserById() {
-        when(jdbcTemplate.queryForObject(anyString(), any(RowMapper.class), anyString()))
+        when(jdbcTemplate.queryForObject(anyString(), any(RowMapper.class), any(UUID.class)))
             .thenReturn(testUser);
 
         UserDTO result = userService.selectUser(testUser.id());
@@ -93,7 +261,7 @@ class UserServiceUnitTest {
         verify(jdbcTemplate).queryForObject(
             eq("SELECT * FROM jdbc_template_users WHERE id = ?"),
             any(RowMapper.class),
-            eq(testUser.id().toString())
+            eq(testUser.id())
         );
     }
 
@@ -111,10 +279,24 @@ class UserServiceUnitTest {
         );
     }
 
+    @Test
+    @DisplayName("Should update users in checkpointed chunks")
+    void shouldUpdateUsersInChunks() {
+        when(jdbcTemplate.getDataSource()).thenReturn(dataSource);
+        when(chunkedUpdater.update(eq(dataSource), eq("jdbc_template_users.updateUsers"), eq("jdbc_template_users"),
+                eq("updated_timestamp = ?"), eq("updated_timestamp IS NULL"), any(Timestamp.class)))
+                .thenReturn(new ChunkedUpdater.Result("jdbc_template_users.updateUsers", "jdbc_template_users", 7, 2, 4, 1, Duration.ofMillis(5)));
+
+        int result = userService.updateUsersInChunks();
+
+        assertEquals(7, result);
+        verify(jdbcTemplate, never()).update(anyString(), any(Timestamp.class));
+    }
+
     @Test
     @DisplayName("Should update single user by ID")
     void shouldUpdateSingleUserById() {
-        when(jdbcTemplate.update(anyString(), any(Timestamp.class), anyString())).thenReturn(1);
+        when(jdbcTemplate.update(anyString(), any(Timestamp.class), any(UUID.class))).thenReturn(1);
 
         int result = userService.updateUser(testUser.id());
 
@@ -122,7 +304,7 @@ class UserServiceUnitTest {
         verify(jdbcTemplate).update(
             eq("UPDATE jdbc_template_users SET updated_timestamp = ? WHERE id = ?"),
             any(Timestamp.class),
-            eq(testUser.id().toString())
+            eq(testUser.id())
         );
     }
 
@@ -135,6 +317,20 @@ class UserServiceUnitTest {
 
         assertEquals(3, result);
         verify(jdbcTemplate).update("DELETE FROM jdbc_template_users WHERE updated_timestamp IS NOT NULL");
+        verifyNoInteractions(chunkedDeleter);
+    }
+
+    @Test
+    @DisplayName("Should delete users in chunks with the chunked deleter")
+    void shouldDeleteUsersInChunks() {
+        when(jdbcTemplate.getDataSource()).thenReturn(dataSource);
+        when(chunkedDeleter.delete(dataSource, "jdbc_template_users", "updated_timestamp IS NOT NULL"))
+                .thenReturn(new ChunkedDeleter.Result("jdbc_template_users", 3, 1, Duration.ofMillis(5), testUser.id(), 1000));
+
+        int result = userService.deleteUsersInChunks();
+
+        assertEquals(3, result);
+        verify(jdbcTemplate, never()).update(anyString());
     }
 
     @Test
@@ -151,7 +347,7 @@ class UserServiceUnitTest {
     @Test
     @DisplayName("Should execute blocker method with runnable")
     void shouldExecuteBlockerMethodWithRunnable() {
-        when(jdbcTemplate.update(anyString(), any(Timestamp.class), anyString())).thenReturn(1);
+        when(jdbcTemplate.update(anyString(), any(Timestamp.class), any(UUID.class))).thenReturn(1);
         Runnable mockRunnable = mock(Runnable.class);
 
         assertDoesNotThrow(() -> userService.blocker(testUser.id(), mockRunnable));
@@ -159,7 +355,7 @@ class UserServiceUnitTest {
         verify(jdbcTemplate).update(
             eq("UPDATE jdbc_template_users SET updated_timestamp = ? WHERE id = ?"),
             any(Timestamp.class),
-            eq(testUser.id().toString())
+            eq(testUser.id())
         );
         verify(mockRunnable).run();
     }
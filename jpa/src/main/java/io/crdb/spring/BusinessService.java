@@ -18,7 +18,7 @@ public class BusinessService {
     }
 
     @Transactional
-    @Retryable(exceptionExpression = "@exceptionChecker.shouldRetry(#root)")
+    @Retryable(interceptor = "postgresRetryInterceptor")
     public void someComplexService(User user, boolean forceRetry) {
 
         try {
@@ -1,6 +1,7 @@
 package io.crdb.spring;
 
 import com.google.common.collect.Iterables;
+import io.crdb.spring.common.UserDTOBuilder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.boot.ApplicationArguments;
@@ -13,23 +14,23 @@ import java.time.ZonedDateTime;
 import java.util.List;
 
 @Component
-@Profile("!test")
+@Profile("!test & !workload")
 public class JpaBatchRunner implements ApplicationRunner, Ordered {
 
     private static final Logger logger = LoggerFactory.getLogger(JpaBatchRunner.class);
 
     private final UserService userService;
-    private final UserBuilder userBuilder;
+    private final UserDTOBuilder userDTOBuilder;
 
-    public JpaBatchRunner(UserService userService, UserBuilder userBuilder) {
+    public JpaBatchRunner(UserService userService, UserDTOBuilder userDTOBuilder) {
         this.userService = userService;
-        this.userBuilder = userBuilder;
+        this.userDTOBuilder = userDTOBuilder;
     }
 
     @Override
     public void run(ApplicationArguments args) {
 
-        List<User> newUsers = userBuilder.buildUsers();
+        List<User> newUsers = userDTOBuilder.generateUsers().stream().map(UserBuilder::fromDTO).toList();
         int newUsersSize = newUsers.size();
 
         logger.debug("working with {} users", newUsersSize);
@@ -52,17 +53,15 @@ public class JpaBatchRunner implements ApplicationRunner, Ordered {
 
         logger.debug("***************************************************** Starting Update Users *****************************************************");
 
-        for (User user : foundUsers) {
-            user.setUpdatedTimestamp(ZonedDateTime.now());
-        }
+        int updatedUsers = userService.updateAll(ZonedDateTime.now());
 
-        Iterable<User> updatedUsers = userService.saveAll(foundUsers);
-
-        assert foundUsersSize == Iterables.size(updatedUsers);
+        assert foundUsersSize == updatedUsers;
 
         logger.debug("***************************************************** Starting Delete Users *****************************************************");
 
-        userService.deleteAll(updatedUsers);
+        int deletedUsers = userService.deleteUpdated();
+
+        assert updatedUsers == deletedUsers;
 
         logger.debug("***************************************************** Starting Count Users *****************************************************");
 
@@ -12,7 +12,7 @@ import java.time.ZonedDateTime;
 import java.util.Optional;
 
 @Component
-@Profile("!test")
+@Profile("!test & !workload")
 public class JpaCRUDRunner implements ApplicationRunner, Ordered {
 
     private static final Logger logger = LoggerFactory.getLogger(JpaCRUDRunner.class);
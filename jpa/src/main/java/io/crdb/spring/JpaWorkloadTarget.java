@@ -0,0 +1,54 @@
+package io.crdb.spring;
+
+import io.crdb.spring.common.UserDTO;
+import io.crdb.spring.workload.WorkloadTarget;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Runs the workload through the jpa {@link UserService}.
+ */
+@Component
+@Profile("workload")
+public class JpaWorkloadTarget implements WorkloadTarget {
+
+    private final UserService userService;
+
+    public JpaWorkloadTarget(UserService userService) {
+        this.userService = userService;
+    }
+
+    @Override
+    public String name() {
+        return "jpa";
+    }
+
+    @Override
+    public void load(List<UserDTO> users) {
+        userService.saveAll(users.stream().map(UserBuilder::fromDTO).toList());
+    }
+
+    @Override
+    public void insert(UserDTO user) {
+        userService.save(UserBuilder.fromDTO(user));
+    }
+
+    @Override
+    public boolean read(UUID id) {
+        return userService.find(id).isPresent();
+    }
+
+    @Override
+    public boolean update(UUID id) {
+        return userService.updateTimestamps(List.of(id), ZonedDateTime.now()) > 0;
+    }
+
+    @Override
+    public int scan(UUID after, int limit) {
+        return userService.findPage(after, limit).content().size();
+    }
+}
@@ -1,6 +1,7 @@
 package io.crdb.spring;
 
 import com.github.javafaker.Faker;
+import io.crdb.spring.common.UserDTO;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
@@ -34,7 +35,7 @@ public class UserBuilder {
     }
 
     public User buildUser() {
-        return new User(
+        User user = new User(
                 UUID.randomUUID(),
                 faker.name().firstName(),
                 faker.name().lastName(),
@@ -46,5 +47,17 @@ public class UserBuilder {
                 ZonedDateTime.now(),
                 null
         );
+        user.markNew();
+        return user;
+    }
+
+    /**
+     * Converts a generated {@link UserDTO} to a new {@link User} entity.
+     */
+    public static User fromDTO(UserDTO dto) {
+        User user = new User(dto.id(), dto.firstName(), dto.lastName(), dto.email(), dto.address(), dto.city(),
+                dto.stateCode(), dto.zipCode(), dto.createdTimestamp(), dto.updatedTimestamp());
+        user.markNew();
+        return user;
     }
 }
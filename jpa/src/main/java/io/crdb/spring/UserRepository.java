@@ -1,10 +1,16 @@
 package io.crdb.spring;
 
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.ZonedDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.UUID;
 
 @Repository
@@ -15,4 +21,28 @@ public interface UserRepository extends CrudRepository<User, UUID> {
     @Query(value = "SELECT crdb_internal.force_retry('1s')", nativeQuery = true)
     void forceRetry();
 
+    // keyset pagination, each page is a range lookup on the primary key
+    List<User> findAllByOrderByIdAsc(Limit limit);
+
+    List<User> findByIdGreaterThanOrderByIdAsc(UUID id, Limit limit);
+
+    // served by the hash-sharded jpa_users_created_idx in schema.sql
+    @Query("SELECT u FROM User u WHERE u.createdTimestamp >= :from AND u.createdTimestamp < :to ORDER BY u.createdTimestamp")
+    List<User> findCreatedBetween(@Param("from") ZonedDateTime from, @Param("to") ZonedDateTime to);
+
+    @Query("SELECT u.id FROM User u WHERE u.updatedTimestamp IS NULL ORDER BY u.id")
+    List<UUID> findNotUpdatedIds(Pageable pageable);
+
+    @Query("SELECT u.id FROM User u WHERE u.updatedTimestamp IS NOT NULL ORDER BY u.id")
+    List<UUID> findUpdatedIds(Pageable pageable);
+
+    // bulk statements bypass the persistence context, so flush pending changes first and clear stale entities after
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE User u SET u.updatedTimestamp = :updatedTimestamp WHERE u.id IN :ids")
+    int updateUpdatedTimestamp(@Param("ids") Collection<UUID> ids, @Param("updatedTimestamp") ZonedDateTime updatedTimestamp);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM User u WHERE u.id IN :ids")
+    int bulkDeleteByIds(@Param("ids") Collection<UUID> ids);
+
 }
@@ -1,20 +1,56 @@
 package io.crdb.spring;
 
+import com.google.common.collect.Iterables;
+import io.crdb.spring.common.FollowerReads;
+import io.crdb.spring.common.KeysetPage;
+import io.crdb.spring.common.ReadConsistency;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.retry.annotation.Retryable;
+import org.springframework.retry.support.RetryTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionDefinition;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.ZonedDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.function.IntSupplier;
 
 @Service
 public class UserService {
 
+    private static final Logger logger = LoggerFactory.getLogger(UserService.class);
+
+    @Value("${demo.batch.size}")
+    private int batchSize;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
     private final UserRepository userRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final RetryTemplate retryTemplate;
+    private final FollowerReads followerReads;
+    private final TransactionTemplate followerReadTemplate;
 
-    public UserService(UserRepository userRepository) {
+    public UserService(UserRepository userRepository, TransactionTemplate transactionTemplate, RetryTemplate retryTemplate, FollowerReads followerReads) {
         this.userRepository = userRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.retryTemplate = retryTemplate;
+        this.followerReads = followerReads;
+        this.followerReadTemplate = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        this.followerReadTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.followerReadTemplate.setReadOnly(true);
     }
 
     @Transactional(readOnly = true)
@@ -22,16 +58,68 @@ public class UserService {
         return userRepository.findAll();
     }
 
+    /**
+     * Returns every user.  With {@link ReadConsistency#FOLLOWER} the transaction reads {@code AS OF SYSTEM TIME}, so it
+     * may miss the most recent writes but can be served by the nearest replica and never conflicts with writers.  The
+     * timestamp has to be set before any other statement, so a follower read always runs in its own transaction; a
+     * strong read is {@link #findAll()} and joins the caller's.
+     */
+    public Iterable<User> findAll(ReadConsistency consistency) {
+        if (consistency != ReadConsistency.FOLLOWER) {
+            return findAll();
+        }
+
+        return followerReadTemplate.execute(status -> {
+            asOf("jpa.findAll");
+            return userRepository.findAll();
+        });
+    }
+
     @Transactional(readOnly = true)
     public Iterable<User> findAll(Iterable<UUID> ids) {
         return userRepository.findAllById(ids);
     }
 
+    /**
+     * Returns up to {@code limit} users ordered by id, starting after {@code after}.  Pass {@code null} for the first
+     * page and {@link KeysetPage#continuation()} for each following page.
+     */
+    @Transactional(readOnly = true)
+    public KeysetPage<User> findPage(UUID after, int limit) {
+        List<User> users = after == null
+                ? userRepository.findAllByOrderByIdAsc(Limit.of(limit))
+                : userRepository.findByIdGreaterThanOrderByIdAsc(after, Limit.of(limit));
+
+        return KeysetPage.of(users, limit, User::getId);
+    }
+
+    /**
+     * Returns the users created in {@code [from, to)}, oldest first, from the hash-sharded {@code jpa_users_created_idx}.
+     */
+    @Transactional(readOnly = true)
+    public List<User> findCreatedBetween(ZonedDateTime from, ZonedDateTime to) {
+        return userRepository.findCreatedBetween(from, to);
+    }
+
     @Transactional(readOnly = true)
     public Optional<User> find(UUID id) {
         return userRepository.findById(id);
     }
 
+    /**
+     * Returns the user with {@code id}, optionally as a follower read.  See {@link #findAll(ReadConsistency)}.
+     */
+    public Optional<User> find(UUID id, ReadConsistency consistency) {
+        if (consistency != ReadConsistency.FOLLOWER) {
+            return find(id);
+        }
+
+        return followerReadTemplate.execute(status -> {
+            asOf("jpa.find");
+            return userRepository.findById(id);
+        });
+    }
+
     @Transactional(readOnly = true)
     public boolean exists(UUID id) {
         return userRepository.existsById(id);
@@ -42,46 +130,148 @@ public class UserService {
         return userRepository.count();
     }
 
+    /**
+     * Counts users, optionally as a follower read.  See {@link #findAll(ReadConsistency)}.
+     */
+    public long count(ReadConsistency consistency) {
+        if (consistency != ReadConsistency.FOLLOWER) {
+            return count();
+        }
+
+        Long count = followerReadTemplate.execute(status -> {
+            asOf("jpa.count");
+            return userRepository.count();
+        });
+        return count != null ? count : 0;
+    }
+
     @Transactional
-    @Retryable(exceptionExpression="@exceptionChecker.shouldRetry(#root)")
+    @Retryable(interceptor = "postgresRetryInterceptor")
     public Iterable<User> saveAll(List<User> users) {
         return userRepository.saveAll(users);
     }
 
     @Transactional
-    @Retryable(exceptionExpression="@exceptionChecker.shouldRetry(#root)")
+    @Retryable(interceptor = "postgresRetryInterceptor")
     public Iterable<User> saveAll(Iterable<User> users) {
         return userRepository.saveAll(users);
     }
 
     @Transactional
-    @Retryable(exceptionExpression="@exceptionChecker.shouldRetry(#root)")
+    @Retryable(interceptor = "postgresRetryInterceptor")
     public User save(User user) {
         return userRepository.save(user);
     }
 
     @Transactional
-    @Retryable(exceptionExpression="@exceptionChecker.shouldRetry(#root)")
+    @Retryable(interceptor = "postgresRetryInterceptor")
     public void deleteAll() {
         userRepository.deleteAll();
     }
 
     @Transactional
-    @Retryable(exceptionExpression="@exceptionChecker.shouldRetry(#root)")
+    @Retryable(interceptor = "postgresRetryInterceptor")
     public void deleteAll(Iterable<User> users) {
         userRepository.deleteAll(users);
     }
 
     @Transactional
-    @Retryable(exceptionExpression="@exceptionChecker.shouldRetry(#root)")
+    @Retryable(interceptor = "postgresRetryInterceptor")
     public void delete(UUID id) {
         userRepository.deleteById(id);
     }
 
     @Transactional
-    @Retryable(exceptionExpression="@exceptionChecker.shouldRetry(#root)")
+    @Retryable(interceptor = "postgresRetryInterceptor")
     public void delete(User user) {
         userRepository.delete(user);
     }
 
+    /**
+     * Sets {@code updatedTimestamp} on the given users with bulk {@code UPDATE} statements.  Ids are processed in chunks
+     * of {@code demo.batch.size}, each in its own retried transaction, so no entities are loaded and the transaction
+     * size stays bounded.
+     *
+     * @return number of rows updated
+     */
+    public int updateTimestamps(Collection<UUID> ids, ZonedDateTime updatedTimestamp) {
+        int updated = 0;
+        for (List<UUID> chunk : Iterables.partition(ids, batchSize)) {
+            updated += inChunkTransaction(() -> userRepository.updateUpdatedTimestamp(chunk, updatedTimestamp));
+        }
+        return updated;
+    }
+
+    /**
+     * Sets {@code updatedTimestamp} on every user where it is {@code null}, one chunk of {@code demo.batch.size} ids
+     * per transaction.
+     *
+     * @return number of rows updated
+     */
+    public int updateAll(ZonedDateTime updatedTimestamp) {
+        int updated = 0;
+        int chunk;
+        do {
+            chunk = inChunkTransaction(() -> {
+                List<UUID> ids = userRepository.findNotUpdatedIds(firstChunk());
+                return ids.isEmpty() ? 0 : userRepository.updateUpdatedTimestamp(ids, updatedTimestamp);
+            });
+            updated += chunk;
+        } while (chunk > 0);
+
+        logger.debug("updated {} users", updated);
+
+        return updated;
+    }
+
+    /**
+     * Deletes the given users with bulk {@code DELETE} statements, one chunk of {@code demo.batch.size} ids per
+     * transaction.  Unlike {@link #deleteAll(Iterable)} nothing is loaded into the persistence context.
+     *
+     * @return number of rows deleted
+     */
+    public int deleteAllById(Collection<UUID> ids) {
+        int deleted = 0;
+        for (List<UUID> chunk : Iterables.partition(ids, batchSize)) {
+            deleted += inChunkTransaction(() -> userRepository.bulkDeleteByIds(chunk));
+        }
+        return deleted;
+    }
+
+    /**
+     * Deletes every user that has an {@code updatedTimestamp}, one chunk of {@code demo.batch.size} ids per
+     * transaction.
+     *
+     * @return number of rows deleted
+     */
+    public int deleteUpdated() {
+        int deleted = 0;
+        int chunk;
+        do {
+            chunk = inChunkTransaction(() -> {
+                List<UUID> ids = userRepository.findUpdatedIds(firstChunk());
+                return ids.isEmpty() ? 0 : userRepository.bulkDeleteByIds(ids);
+            });
+            deleted += chunk;
+        } while (chunk > 0);
+
+        logger.debug("deleted {} users", deleted);
+
+        return deleted;
+    }
+
+    private void asOf(String operation) {
+        entityManager.createNativeQuery(followerReads.setTransactionSql()).executeUpdate();
+        followerReads.record(operation);
+    }
+
+    private Pageable firstChunk() {
+        return PageRequest.of(0, batchSize);
+    }
+
+    private int inChunkTransaction(IntSupplier work) {
+        Integer result = retryTemplate.execute(context -> transactionTemplate.execute(status -> work.getAsInt()));
+        return result != null ? result : 0;
+    }
+
 }
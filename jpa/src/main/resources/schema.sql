@@ -0,0 +1,14 @@
+-- indexes @Index cannot declare, run after hibernate creates jpa_users (spring.jpa.defer-datasource-initialization)
+
+-- rows not yet updated, read by selectUsers and updateUsers
+CREATE INDEX IF NOT EXISTS jpa_users_not_updated_idx ON jpa_users (id)
+    STORING (first_name, last_name, email, address, city, state_code, zip_code, created_timestamp, updated_timestamp)
+    WHERE updated_timestamp IS NULL;
+
+-- rows already updated, found by deleteUsers
+CREATE INDEX IF NOT EXISTS jpa_users_updated_idx ON jpa_users (id)
+    WHERE updated_timestamp IS NOT NULL;
+
+-- rows by creation time, read by findCreatedBetween; hash-sharded so inserts do not all land on one range
+CREATE INDEX IF NOT EXISTS jpa_users_created_idx ON jpa_users (created_timestamp) USING HASH
+    STORING (first_name, last_name, email, address, city, state_code, zip_code, updated_timestamp);
\ No newline at end of file
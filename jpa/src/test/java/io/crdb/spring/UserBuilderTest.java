@@ -42,6 +42,24 @@ class UserBuilderTest {
         assertNull(result.getUpdatedTimestamp());
     }
 
+    @Test
+    @DisplayName("Should mark built users as new")
+    void shouldMarkBuiltUsersAsNew() {
+        assertTrue(userBuilder.buildUser().isNew());
+        assertTrue(userBuilder.buildUsers(3).stream().allMatch(User::isNew));
+    }
+
+    @Test
+    @DisplayName("Should clear new flag once persisted or loaded")
+    void shouldClearNewFlagOncePersistedOrLoaded() {
+        User user = userBuilder.buildUser();
+
+        user.markNotNew();
+
+        assertFalse(user.isNew());
+        assertFalse(new User().isNew());
+    }
+
     @Test
     @DisplayName("Should build default number of users")
     void shouldBuildDefaultNumberOfUsers() {
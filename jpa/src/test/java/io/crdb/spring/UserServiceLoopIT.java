@@ -1,21 +1,24 @@
 package io.crdb.spring;
 
+import io.crdb.spring.workload.FixedRateLoad;
+import io.crdb.spring.workload.LatencySummary;
 import org.junit.jupiter.api.Test;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.context.ActiveProfiles;
 
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.concurrent.TimeUnit;
+import java.nio.file.Path;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @SpringBootTest
 @ActiveProfiles("test")
 class UserServiceLoopIT {
 
-    private static final Logger logger = LoggerFactory.getLogger(UserServiceLoopIT.class);
+    // open loop: saves are issued at this rate whether or not earlier ones have finished
+    private static final double RATE = 200;
+    private static final Duration DURATION = Duration.ofMinutes(1);
 
     private final UserService userService;
     private final UserBuilder userBuilder;
@@ -31,30 +34,22 @@ class UserServiceLoopIT {
     void looping() {
 
         int nThreads = Runtime.getRuntime().availableProcessors();
-        ExecutorService executorService = Executors.newFixedThreadPool(nThreads);
-
-        logger.info("number of threads {}", nThreads);
-
-        for (int i = 0; i < nThreads; i++) {
-            executorService.submit(() -> {
-                while (true) {
-                    User user = userBuilder.buildUser();
-                    userService.save(user);
-                }
-            });
-        }
 
+        FixedRateLoad load = new FixedRateLoad("user-save", RATE, DURATION, nThreads,
+                Path.of("target", "user-service-loop.hlog"), Duration.ofSeconds(1));
 
-        executorService.shutdown();
+        // UserBuilder wraps Faker, which is not thread safe
+        LatencySummary summary = load.run(() -> {
+            User user;
+            synchronized (userBuilder) {
+                user = userBuilder.buildUser();
+            }
+            userService.save(user);
+        });
 
-        try {
-            boolean cleanTermination = executorService.awaitTermination(10, TimeUnit.MINUTES);
-            logger.debug("executionService terminated cleanly [{}]", cleanTermination);
-        } catch (InterruptedException e) {
-            logger.error(e.getMessage() ,e);
-        }
+        assertTrue(summary.count() > 0, summary::format);
 
     }
 
 
-}
\ No newline at end of file
+}
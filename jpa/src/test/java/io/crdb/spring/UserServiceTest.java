@@ -4,8 +4,21 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import io.crdb.spring.common.FollowerReads;
+import io.crdb.spring.common.KeysetPage;
+import io.crdb.spring.common.ReadConsistency;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Pageable;
+import org.springframework.retry.support.RetryTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.ZonedDateTime;
 import java.util.Arrays;
@@ -23,6 +36,17 @@ class UserServiceTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private Query query;
+
+    private FollowerReads followerReads;
+
     private UserService userService;
     private User testUser;
     private List<User> testUsers;
@@ -30,7 +54,10 @@ class UserServiceTest {
 
     @BeforeEach
     void setUp() {
-        userService = new UserService(userRepository);
+        followerReads = new FollowerReads("follower_read_timestamp()");
+        userService = new UserService(userRepository, new TransactionTemplate(transactionManager), new RetryTemplate(), followerReads);
+        ReflectionTestUtils.setField(userService, "batchSize", 2);
+        ReflectionTestUtils.setField(userService, "entityManager", entityManager);
         testUser = createTestUser();
         testUsers = Arrays.asList(testUser, createTestUser(), createTestUser());
         testIds = Arrays.asList(UUID.randomUUID(), UUID.randomUUID());
@@ -47,6 +74,36 @@ class UserServiceTest {
         verify(userRepository).findAll();
     }
 
+    @Test
+    @DisplayName("Should set follower read timestamp before finding all users")
+    void shouldSetFollowerReadTimestampBeforeFindingAllUsers() {
+        when(entityManager.createNativeQuery(anyString())).thenReturn(query);
+        when(userRepository.findAll()).thenReturn(testUsers);
+
+        Iterable<User> result = userService.findAll(ReadConsistency.FOLLOWER);
+
+        assertEquals(testUsers, result);
+        InOrder inOrder = inOrder(entityManager, query, userRepository);
+        inOrder.verify(entityManager).createNativeQuery("SET TRANSACTION AS OF SYSTEM TIME follower_read_timestamp()");
+        inOrder.verify(query).executeUpdate();
+        inOrder.verify(userRepository).findAll();
+        assertEquals(1L, followerReads.staleReadCounts().get("jpa.findAll"));
+        verify(transactionManager).getTransaction(argThat(definition -> definition.isReadOnly()
+                && definition.getPropagationBehavior() == TransactionDefinition.PROPAGATION_REQUIRES_NEW));
+    }
+
+    @Test
+    @DisplayName("Should read at current timestamp for strong consistency")
+    void shouldReadAtCurrentTimestampForStrongConsistency() {
+        when(userRepository.count()).thenReturn(3L);
+
+        assertEquals(3L, userService.count(ReadConsistency.STRONG));
+
+        verifyNoInteractions(entityManager);
+        assertTrue(followerReads.staleReadCounts().isEmpty());
+        verifyNoInteractions(transactionManager);
+    }
+
     @Test
     @DisplayName("Should find all users by IDs")
     void shouldFindAllUsersByIds() {
@@ -58,6 +115,42 @@ class UserServiceTest {
         verify(userRepository).findAllById(testIds);
     }
 
+    @Test
+    @DisplayName("Should find first page ordered by id")
+    void shouldFindFirstPageOrderedById() {
+        when(userRepository.findAllByOrderByIdAsc(Limit.of(3))).thenReturn(testUsers);
+
+        KeysetPage<User> page = userService.findPage(null, 3);
+
+        assertEquals(testUsers, page.content());
+        assertEquals(testUsers.get(2).getId(), page.continuation());
+    }
+
+    @Test
+    @DisplayName("Should find next page after continuation")
+    void shouldFindNextPageAfterContinuation() {
+        UUID after = UUID.randomUUID();
+        when(userRepository.findByIdGreaterThanOrderByIdAsc(after, Limit.of(5))).thenReturn(testUsers);
+
+        KeysetPage<User> page = userService.findPage(after, 5);
+
+        assertEquals(3, page.content().size());
+        assertFalse(page.hasNext());
+    }
+
+    @Test
+    @DisplayName("Should find users created within a time window")
+    void shouldFindUsersCreatedWithinWindow() {
+        ZonedDateTime to = ZonedDateTime.now();
+        ZonedDateTime from = to.minusHours(1);
+        when(userRepository.findCreatedBetween(from, to)).thenReturn(testUsers);
+
+        List<User> result = userService.findCreatedBetween(from, to);
+
+        assertEquals(testUsers, result);
+        verify(userRepository).findCreatedBetween(from, to);
+    }
+
     @Test
     @DisplayName("Should find user by ID")
     void shouldFindUserById() {
@@ -213,6 +306,64 @@ class UserServiceTest {
         verify(userRepository).save(null);
     }
 
+    @Test
+    @DisplayName("Should bulk update timestamps in chunks")
+    void shouldBulkUpdateTimestampsInChunks() {
+        List<UUID> ids = Arrays.asList(UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID());
+        ZonedDateTime now = ZonedDateTime.now();
+        when(userRepository.updateUpdatedTimestamp(anyCollection(), eq(now))).thenReturn(2, 1);
+
+        int result = userService.updateTimestamps(ids, now);
+
+        assertEquals(3, result);
+        verify(userRepository).updateUpdatedTimestamp(ids.subList(0, 2), now);
+        verify(userRepository).updateUpdatedTimestamp(ids.subList(2, 3), now);
+        verify(transactionManager, times(2)).commit(any());
+    }
+
+    @Test
+    @DisplayName("Should update all not updated users until none remain")
+    void shouldUpdateAllNotUpdatedUsersUntilNoneRemain() {
+        List<UUID> firstChunk = Arrays.asList(UUID.randomUUID(), UUID.randomUUID());
+        List<UUID> secondChunk = List.of(UUID.randomUUID());
+        ZonedDateTime now = ZonedDateTime.now();
+        when(userRepository.findNotUpdatedIds(any(Pageable.class))).thenReturn(firstChunk, secondChunk, List.of());
+        when(userRepository.updateUpdatedTimestamp(anyCollection(), eq(now))).thenReturn(2, 1);
+
+        int result = userService.updateAll(now);
+
+        assertEquals(3, result);
+        verify(userRepository, times(3)).findNotUpdatedIds(argThat(pageable -> pageable.getPageSize() == 2));
+        verify(userRepository, times(2)).updateUpdatedTimestamp(anyCollection(), eq(now));
+    }
+
+    @Test
+    @DisplayName("Should bulk delete by ids in chunks")
+    void shouldBulkDeleteByIdsInChunks() {
+        List<UUID> ids = Arrays.asList(UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID());
+        when(userRepository.bulkDeleteByIds(anyCollection())).thenReturn(2, 1);
+
+        int result = userService.deleteAllById(ids);
+
+        assertEquals(3, result);
+        verify(userRepository, times(2)).bulkDeleteByIds(anyCollection());
+        verify(userRepository, never()).deleteAll(any());
+    }
+
+    @Test
+    @DisplayName("Should delete updated users until none remain")
+    void shouldDeleteUpdatedUsersUntilNoneRemain() {
+        List<UUID> chunk = Arrays.asList(UUID.randomUUID(), UUID.randomUUID());
+        when(userRepository.findUpdatedIds(any(Pageable.class))).thenReturn(chunk, List.of());
+        when(userRepository.bulkDeleteByIds(chunk)).thenReturn(2);
+
+        int result = userService.deleteUpdated();
+
+        assertEquals(2, result);
+        verify(userRepository, times(2)).findUpdatedIds(any(Pageable.class));
+        verify(userRepository).bulkDeleteByIds(chunk);
+    }
+
     private User createTestUser() {
         return new User(
             UUID.randomUUID(),
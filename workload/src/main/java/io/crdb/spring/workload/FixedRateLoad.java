@@ -0,0 +1,148 @@
+package io.crdb.spring.workload;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Open-loop load generator: issues a request at a fixed rate for a fixed time and records latency corrected for
+ * coordinated omission (see {@link FixedRateSchedule}).  {@code threads} bounds how many requests can be in flight;
+ * when all of them are busy later requests fall behind schedule and the delay shows up in the corrected percentiles
+ * instead of silently lowering the rate.  Interval histograms are written to an HdrHistogram log every
+ * {@code reportInterval} when a log path is given, and the summary is logged at the end.
+ */
+public class FixedRateLoad {
+
+    private static final Logger logger = LoggerFactory.getLogger(FixedRateLoad.class);
+
+    private static final Duration DEFAULT_REPORT_INTERVAL = Duration.ofSeconds(1);
+
+    private final String name;
+    private final double rate;
+    private final Duration duration;
+    private final int threads;
+    private final Path histogramLog;
+    private final Duration reportInterval;
+
+    public FixedRateLoad(String name, double rate, Duration duration, int threads) {
+        this(name, rate, duration, threads, null, DEFAULT_REPORT_INTERVAL);
+    }
+
+    /**
+     * @param name           label used for threads, the log comment and the summary
+     * @param rate           requests per second across all threads
+     * @param duration       how long requests are issued for
+     * @param threads        maximum requests in flight
+     * @param histogramLog   file the corrected interval histograms are written to, or {@code null}
+     * @param reportInterval length of each interval in the log
+     */
+    public FixedRateLoad(String name, double rate, Duration duration, int threads, Path histogramLog, Duration reportInterval) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("threads must be positive but was " + threads);
+        }
+
+        this.name = name;
+        this.rate = rate;
+        this.duration = duration;
+        this.threads = threads;
+        this.histogramLog = histogramLog;
+        this.reportInterval = reportInterval;
+    }
+
+    /**
+     * Issues {@code request} until the duration has passed and waits for the requests in flight to finish.  A request
+     * that throws is counted as an error and not recorded.
+     */
+    public LatencySummary run(Runnable request) {
+        FixedRateSchedule schedule = new FixedRateSchedule(rate);
+        Recorder corrected = new Recorder(3);
+        Recorder uncorrected = new Recorder(3);
+        LongAdder errors = new LongAdder();
+
+        Histogram correctedTotal = new Histogram(3);
+        Histogram uncorrectedTotal = new Histogram(3);
+
+        ThreadFactory threadFactory = new ThreadFactoryBuilder().setNameFormat(name + "-load-thread-%d").build();
+
+        logger.info("{}: issuing {} requests/s for {} from {} threads", name, rate, duration, threads);
+
+        long start = System.nanoTime();
+
+        try (HistogramLog log = HistogramLog.open(histogramLog, name + " corrected latency in microseconds");
+             ExecutorService executorService = Executors.newFixedThreadPool(threads, threadFactory)) {
+
+            long end = start + duration.toNanos();
+            schedule.start(start);
+
+            for (int i = 0; i < threads; i++) {
+                executorService.execute(() -> issue(request, schedule, end, corrected, uncorrected, errors));
+            }
+
+            executorService.shutdown();
+
+            try {
+                while (!executorService.awaitTermination(reportInterval.toNanos(), TimeUnit.NANOSECONDS)) {
+                    drain(corrected, correctedTotal, uncorrected, uncorrectedTotal, log);
+                }
+            } catch (InterruptedException e) {
+                executorService.shutdownNow();
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("interrupted while running " + name, e);
+            }
+
+            drain(corrected, correctedTotal, uncorrected, uncorrectedTotal, log);
+        }
+
+        double seconds = (System.nanoTime() - start) / 1e9;
+        LatencySummary summary = LatencySummary.of(name, correctedTotal, uncorrectedTotal, errors.sum(), seconds);
+
+        logger.info(summary.format());
+
+        return summary;
+    }
+
+    private static void issue(Runnable request, FixedRateSchedule schedule, long end,
+                              Recorder corrected, Recorder uncorrected, LongAdder errors) {
+        while (!Thread.currentThread().isInterrupted()) {
+            long intended = schedule.next();
+
+            if (intended - end >= 0) {
+                return;
+            }
+
+            FixedRateSchedule.parkUntil(intended);
+
+            long sent = System.nanoTime();
+
+            try {
+                request.run();
+
+                long done = System.nanoTime();
+                corrected.recordValue(TimeUnit.NANOSECONDS.toMicros(done - intended));
+                uncorrected.recordValue(TimeUnit.NANOSECONDS.toMicros(done - sent));
+            } catch (RuntimeException e) {
+                errors.increment();
+                logger.debug("request failed: {}", e.toString());
+            }
+        }
+    }
+
+    private static void drain(Recorder corrected, Histogram correctedTotal, Recorder uncorrected, Histogram uncorrectedTotal,
+                              HistogramLog log) {
+        Histogram interval = corrected.getIntervalHistogram();
+        correctedTotal.add(interval);
+        log.write(interval, null);
+
+        uncorrectedTotal.add(uncorrected.getIntervalHistogram());
+    }
+}
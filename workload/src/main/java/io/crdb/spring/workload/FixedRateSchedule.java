@@ -0,0 +1,71 @@
+package io.crdb.spring.workload;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Hands out the intended start times of requests issued at a fixed rate, shared by any number of threads.  Request
+ * {@code n} is due at {@code start + n * interval} regardless of how long earlier requests took, so a load driver that
+ * measures latency from the intended start time rather than from when it actually got round to sending the request
+ * includes the time requests spent queued behind a slow one.  Measuring from the actual send time hides that delay;
+ * this is the coordinated omission problem described by Gil Tene.
+ */
+public final class FixedRateSchedule {
+
+    private final long intervalNanos;
+    private final AtomicLong sequence = new AtomicLong();
+
+    private volatile long startNanos;
+
+    /**
+     * @param ratePerSecond requests per second across all threads, must be positive
+     */
+    public FixedRateSchedule(double ratePerSecond) {
+        if (!(ratePerSecond > 0)) {
+            throw new IllegalArgumentException("rate must be positive but was " + ratePerSecond);
+        }
+
+        this.intervalNanos = Math.max(1L, Math.round(1e9 / ratePerSecond));
+        start(System.nanoTime());
+    }
+
+    /**
+     * Restarts the schedule so that the next request is due at {@code startNanos}, a {@link System#nanoTime()} value.
+     */
+    public void start(long startNanos) {
+        this.startNanos = startNanos;
+        sequence.set(0);
+    }
+
+    public long intervalNanos() {
+        return intervalNanos;
+    }
+
+    /**
+     * Claims the next slot without waiting.
+     *
+     * @return intended start time of the claimed request as a {@link System#nanoTime()} value
+     */
+    public long next() {
+        return startNanos + sequence.getAndIncrement() * intervalNanos;
+    }
+
+    /**
+     * Claims the next slot and parks until it is due.  When the caller is behind schedule the slot is already due and
+     * this returns immediately, so the backlog is worked off as fast as possible.
+     *
+     * @return intended start time of the claimed request as a {@link System#nanoTime()} value
+     */
+    public long awaitNext() {
+        long intended = next();
+        parkUntil(intended);
+        return intended;
+    }
+
+    static void parkUntil(long deadlineNanos) {
+        long remaining;
+        while ((remaining = deadlineNanos - System.nanoTime()) > 0 && !Thread.currentThread().isInterrupted()) {
+            LockSupport.parkNanos(remaining);
+        }
+    }
+}
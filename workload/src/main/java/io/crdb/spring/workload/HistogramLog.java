@@ -0,0 +1,80 @@
+package io.crdb.spring.workload;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.HistogramLogWriter;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Writes interval histograms in the HdrHistogram log format, which {@code HistogramLogProcessor} and HdrHistogram
+ * plotters read.  Values are recorded in microseconds and written with a max value ratio of 1000 so the log reports
+ * milliseconds like other HdrHistogram tools.  A log opened with a {@code null} path discards everything.
+ */
+final class HistogramLog implements Closeable {
+
+    private static final double MICROS_PER_MILLI = 1000.0;
+
+    private static final HistogramLog DISABLED = new HistogramLog(null, null, 0);
+
+    private final PrintStream out;
+    private final HistogramLogWriter writer;
+    private final long baseTimeMillis;
+
+    private HistogramLog(PrintStream out, HistogramLogWriter writer, long baseTimeMillis) {
+        this.out = out;
+        this.writer = writer;
+        this.baseTimeMillis = baseTimeMillis;
+    }
+
+    static HistogramLog open(Path path, String comment) {
+        if (path == null) {
+            return DISABLED;
+        }
+
+        try {
+            if (path.getParent() != null) {
+                Files.createDirectories(path.getParent());
+            }
+
+            PrintStream out = new PrintStream(Files.newOutputStream(path), false);
+            HistogramLogWriter writer = new HistogramLogWriter(out);
+            long baseTimeMillis = System.currentTimeMillis();
+
+            writer.outputLogFormatVersion();
+            writer.outputComment(comment);
+            writer.outputStartTime(baseTimeMillis);
+            writer.setBaseTime(baseTimeMillis);
+            writer.outputLegend();
+
+            return new HistogramLog(out, writer, baseTimeMillis);
+        } catch (IOException e) {
+            throw new UncheckedIOException("could not open histogram log " + path, e);
+        }
+    }
+
+    /**
+     * Appends {@code histogram}, which must carry start and end timestamps as interval histograms from a
+     * {@link org.HdrHistogram.Recorder} do.  A non-null {@code tag} lets one log hold several series.
+     */
+    void write(Histogram histogram, String tag) {
+        if (writer == null) {
+            return;
+        }
+
+        histogram.setTag(tag);
+        writer.outputIntervalHistogram((histogram.getStartTimeStamp() - baseTimeMillis) / 1000.0,
+                (histogram.getEndTimeStamp() - baseTimeMillis) / 1000.0, histogram, MICROS_PER_MILLI);
+    }
+
+    @Override
+    public void close() {
+        if (out != null) {
+            out.close();
+        }
+    }
+}
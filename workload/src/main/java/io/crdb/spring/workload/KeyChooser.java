@@ -0,0 +1,12 @@
+package io.crdb.spring.workload;
+
+import java.util.SplittableRandom;
+
+/**
+ * Picks the index of a key among {@code count} keys.  Instances may keep state and are used by one thread only.
+ */
+@FunctionalInterface
+interface KeyChooser {
+
+    int next(SplittableRandom random, int count);
+}
@@ -0,0 +1,34 @@
+package io.crdb.spring.workload;
+
+/**
+ * How the workload picks which existing key an operation touches.
+ */
+public enum KeyDistribution {
+
+    /**
+     * Every loaded or inserted key is equally likely.
+     */
+    UNIFORM,
+
+    /**
+     * A few keys are hot: the earliest keys are chosen with Zipfian probability (theta 0.99, as in YCSB).  Keys are
+     * random UUIDs, so the hot keys are spread over the table rather than clustered in one range.
+     */
+    ZIPFIAN,
+
+    /**
+     * Like {@link #ZIPFIAN} but skewed towards the most recently inserted keys.
+     */
+    LATEST;
+
+    KeyChooser chooser() {
+        return switch (this) {
+            case UNIFORM -> (random, count) -> random.nextInt(count);
+            case ZIPFIAN -> new ZipfianChooser();
+            case LATEST -> {
+                ZipfianChooser zipfian = new ZipfianChooser();
+                yield (random, count) -> count - 1 - zipfian.next(random, count);
+            }
+        };
+    }
+}
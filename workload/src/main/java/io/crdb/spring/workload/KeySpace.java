@@ -0,0 +1,38 @@
+package io.crdb.spring.workload;
+
+import java.util.Arrays;
+import java.util.UUID;
+
+/**
+ * The ids operations can pick from, in insertion order.  Appends are serialized; reads are lock free and see every key
+ * appended before the {@link #size()} they read.
+ */
+final class KeySpace {
+
+    private volatile UUID[] keys;
+    private volatile int size;
+
+    KeySpace(int capacity) {
+        this.keys = new UUID[Math.max(16, capacity)];
+    }
+
+    synchronized void add(UUID id) {
+        UUID[] current = keys;
+
+        if (size == current.length) {
+            current = Arrays.copyOf(current, current.length * 2);
+            keys = current;
+        }
+
+        current[size] = id;
+        size = size + 1;
+    }
+
+    int size() {
+        return size;
+    }
+
+    UUID get(int index) {
+        return keys[index];
+    }
+}
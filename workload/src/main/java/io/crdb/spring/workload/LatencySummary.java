@@ -0,0 +1,37 @@
+package io.crdb.spring.workload;
+
+import org.HdrHistogram.Histogram;
+
+/**
+ * Percentiles of one load run in microseconds.  The corrected values are measured from each request's intended start
+ * time and include queueing delay; the uncorrected values are measured from when the request was actually sent, which
+ * is what a closed-loop driver reports.  A large gap between the two means the target could not keep up with the rate.
+ *
+ * @param name        label of the run
+ * @param count       successful requests
+ * @param errors      requests that threw
+ * @param throughput  successful requests per second
+ */
+public record LatencySummary(String name, long count, long errors, double throughput,
+                             long p50, long p99, long p999, long max,
+                             long uncorrectedP99, long uncorrectedMax) {
+
+    static LatencySummary of(String name, Histogram corrected, Histogram uncorrected, long errors, double seconds) {
+        return new LatencySummary(
+                name,
+                corrected.getTotalCount(),
+                errors,
+                corrected.getTotalCount() / Math.max(seconds, 1e-9),
+                corrected.getValueAtPercentile(50),
+                corrected.getValueAtPercentile(99),
+                corrected.getValueAtPercentile(99.9),
+                corrected.getMaxValue(),
+                uncorrected.getValueAtPercentile(99),
+                uncorrected.getMaxValue());
+    }
+
+    public String format() {
+        return String.format("%s: %d requests at %.1f/s, %d errors, p50 %d us, p99 %d us, p99.9 %d us, max %d us (uncorrected p99 %d us, max %d us)",
+                name, count, throughput, errors, p50, p99, p999, max, uncorrectedP99, uncorrectedMax);
+    }
+}
@@ -0,0 +1,27 @@
+package io.crdb.spring.workload;
+
+/**
+ * Operations of the workload mix, modelled on the YCSB core workloads.
+ */
+public enum Operation {
+
+    /**
+     * Point lookup of one existing user by id.
+     */
+    READ,
+
+    /**
+     * Insert of one new user, which becomes eligible for later operations.
+     */
+    INSERT,
+
+    /**
+     * Update of one existing user's {@code updated_timestamp} by id.
+     */
+    UPDATE,
+
+    /**
+     * Keyset page of {@code demo.workload.scan-length} users starting after an existing id.
+     */
+    SCAN
+}
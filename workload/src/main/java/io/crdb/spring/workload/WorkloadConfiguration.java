@@ -0,0 +1,21 @@
+package io.crdb.spring.workload;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+/**
+ * Activated by the {@code workload} profile.  Each application that supports the workload provides a
+ * {@link WorkloadTarget} for its service layer under the same profile and disables its demo runners.
+ */
+@Configuration(proxyBeanMethods = false)
+@Profile("workload")
+@EnableConfigurationProperties(WorkloadProperties.class)
+public class WorkloadConfiguration {
+
+    @Bean
+    public WorkloadDriver workloadDriver(WorkloadProperties properties) {
+        return new WorkloadDriver(properties);
+    }
+}
@@ -0,0 +1,205 @@
+package io.crdb.spring.workload;
+
+import com.google.common.collect.Lists;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import io.crdb.spring.common.UserDTO;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Runs a YCSB-style mix of reads, inserts, updates and scans against a {@link WorkloadTarget} and records the latency of
+ * every operation in an HdrHistogram.  By default {@code demo.workload.concurrency} workers issue operations back to
+ * back (a closed loop), so throughput is whatever the target sustains at that concurrency.  With
+ * {@code demo.workload.rate} set the workers follow a {@link FixedRateSchedule} instead (an open loop) and latency is
+ * measured from each operation's intended start, so time spent waiting for a free worker is included.  The same
+ * properties and seed against different targets give the same sequence of operations on each worker, which makes the
+ * modules comparable; the users inserted only repeat if the {@code users} supplier is seeded too.
+ */
+public class WorkloadDriver {
+
+    private static final Logger logger = LoggerFactory.getLogger(WorkloadDriver.class);
+
+    private static final int LOAD_CHUNK_SIZE = 1000;
+
+    private final WorkloadProperties properties;
+
+    public WorkloadDriver(WorkloadProperties properties) {
+        this.properties = properties;
+    }
+
+    /**
+     * Loads {@code demo.workload.initial-rows} users, runs the warmup and then the measured interval.
+     *
+     * @param target the service layer under test
+     * @param users  source of new users for the initial load and for inserts
+     * @return statistics of the measured interval
+     */
+    public WorkloadReport run(WorkloadTarget target, Supplier<UserDTO> users) {
+        KeySpace keys = load(target, users);
+
+        Map<Operation, Recorder> recorders = new EnumMap<>(Operation.class);
+        Map<Operation, LongAdder> errors = new EnumMap<>(Operation.class);
+
+        for (Operation operation : Operation.values()) {
+            recorders.put(operation, new Recorder(3));
+            errors.put(operation, new LongAdder());
+        }
+
+        ThreadFactory threadFactory = new ThreadFactoryBuilder().setNameFormat("workload-thread-%d").build();
+        SplittableRandom seed = new SplittableRandom(properties.seed());
+        FixedRateSchedule schedule = properties.rate() > 0 ? new FixedRateSchedule(properties.rate()) : null;
+
+        List<Worker> workers = new ArrayList<>(properties.concurrency());
+        for (int i = 0; i < properties.concurrency(); i++) {
+            workers.add(new Worker(target, users, keys, recorders, errors, seed.split(), schedule));
+        }
+
+        Map<Operation, WorkloadReport.OperationStats> stats = new EnumMap<>(Operation.class);
+        Duration elapsed;
+
+        try (ExecutorService executorService = Executors.newFixedThreadPool(properties.concurrency(), threadFactory)) {
+            workers.forEach(executorService::execute);
+
+            try {
+                logger.info("warming up {} for {}", target.name(), properties.warmup());
+                sleep(properties.warmup());
+
+                recorders.values().forEach(Recorder::reset);
+                errors.values().forEach(LongAdder::reset);
+
+                logger.info("measuring {} for {} with {} workers{}", target.name(), properties.duration(), properties.concurrency(),
+                        schedule != null ? " at " + properties.rate() + " ops/s" : "");
+
+                long start = System.nanoTime();
+                sleep(properties.duration());
+                elapsed = Duration.ofNanos(System.nanoTime() - start);
+
+                try (HistogramLog log = HistogramLog.open(properties.histogramLog(), "workload against " + target.name() + " in microseconds")) {
+                    for (Operation operation : Operation.values()) {
+                        Histogram histogram = recorders.get(operation).getIntervalHistogram();
+                        long failed = errors.get(operation).sum();
+
+                        if (histogram.getTotalCount() > 0) {
+                            log.write(histogram, operation.name());
+                        }
+
+                        stats.put(operation, WorkloadReport.OperationStats.of(histogram, failed, elapsed));
+                    }
+                }
+            } finally {
+                workers.forEach(Worker::stop);
+            }
+        }
+
+        stats.values().removeIf(s -> s.count() == 0 && s.errors() == 0);
+
+        return new WorkloadReport(target.name(), elapsed, stats);
+    }
+
+    private KeySpace load(WorkloadTarget target, Supplier<UserDTO> users) {
+        KeySpace keys = new KeySpace(properties.initialRows() * 2);
+
+        List<UserDTO> initial = new ArrayList<>(properties.initialRows());
+        for (int i = 0; i < properties.initialRows(); i++) {
+            initial.add(users.get());
+        }
+
+        logger.info("loading {} users into {}", initial.size(), target.name());
+
+        for (List<UserDTO> chunk : Lists.partition(initial, LOAD_CHUNK_SIZE)) {
+            target.load(chunk);
+            chunk.forEach(user -> keys.add(user.id()));
+        }
+
+        return keys;
+    }
+
+    private static void sleep(Duration duration) {
+        try {
+            TimeUnit.NANOSECONDS.sleep(duration.toNanos());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("interrupted while running workload", e);
+        }
+    }
+
+    private class Worker implements Runnable {
+
+        private final WorkloadTarget target;
+        private final Supplier<UserDTO> users;
+        private final KeySpace keys;
+        private final Map<Operation, Recorder> recorders;
+        private final Map<Operation, LongAdder> errors;
+        private final SplittableRandom random;
+        private final KeyChooser chooser;
+        private final FixedRateSchedule schedule;
+
+        private volatile boolean running = true;
+
+        Worker(WorkloadTarget target, Supplier<UserDTO> users, KeySpace keys, Map<Operation, Recorder> recorders,
+               Map<Operation, LongAdder> errors, SplittableRandom random, FixedRateSchedule schedule) {
+            this.target = target;
+            this.users = users;
+            this.keys = keys;
+            this.recorders = recorders;
+            this.errors = errors;
+            this.random = random;
+            this.chooser = properties.distribution().chooser();
+            this.schedule = schedule;
+        }
+
+        @Override
+        public void run() {
+            while (running) {
+                Operation operation = properties.mix().choose(random.nextDouble());
+
+                // chosen before the clock starts so key and row generation are not measured
+                UserDTO user = operation == Operation.INSERT ? users.get() : null;
+                UUID id = operation == Operation.INSERT ? null : keys.get(chooser.next(random, keys.size()));
+
+                // open loop: the clock starts when the operation was due, not when a worker got to it
+                long start = schedule != null ? schedule.awaitNext() : System.nanoTime();
+
+                try {
+                    execute(operation, user, id);
+                    recorders.get(operation).recordValue(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start));
+                } catch (RuntimeException e) {
+                    errors.get(operation).increment();
+                    logger.debug("{} failed: {}", operation, e.toString());
+                }
+            }
+        }
+
+        private void execute(Operation operation, UserDTO user, UUID id) {
+            switch (operation) {
+                case READ -> target.read(id);
+                case INSERT -> {
+                    target.insert(user);
+                    keys.add(user.id());
+                }
+                case UPDATE -> target.update(id);
+                case SCAN -> target.scan(id, properties.scanLength());
+            }
+        }
+
+        void stop() {
+            running = false;
+        }
+    }
+}
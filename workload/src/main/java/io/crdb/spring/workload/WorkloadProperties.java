@@ -0,0 +1,80 @@
+package io.crdb.spring.workload;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Settings for {@link WorkloadDriver}.
+ *
+ * @param mix          relative weights of the operations
+ * @param distribution how existing keys are chosen for reads, updates and scans
+ * @param concurrency  worker threads, each issuing one operation at a time
+ * @param initialRows  users loaded before the run so reads have something to find
+ * @param warmup       time the workload runs before latencies are recorded
+ * @param duration     time latencies are recorded for
+ * @param scanLength   users returned by each scan
+ * @param seed         seed of the operation and key choices, so runs are repeatable
+ * @param rate         operations per second across all workers; {@code 0} runs closed loop, as fast as the workers can
+ * @param histogramLog HdrHistogram log the measured latencies are written to, or {@code null}
+ */
+@ConfigurationProperties("demo.workload")
+public record WorkloadProperties(@DefaultValue Mix mix,
+                                 @DefaultValue("UNIFORM") KeyDistribution distribution,
+                                 @DefaultValue("8") int concurrency,
+                                 @DefaultValue("10000") int initialRows,
+                                 @DefaultValue("10s") Duration warmup,
+                                 @DefaultValue("60s") Duration duration,
+                                 @DefaultValue("100") int scanLength,
+                                 @DefaultValue("42") long seed,
+                                 @DefaultValue("0") double rate,
+                                 Path histogramLog) {
+
+    public WorkloadProperties {
+        if (concurrency < 1) {
+            throw new IllegalArgumentException("concurrency must be positive but was " + concurrency);
+        }
+        if (initialRows < 1) {
+            throw new IllegalArgumentException("initialRows must be positive but was " + initialRows);
+        }
+        if (rate < 0) {
+            throw new IllegalArgumentException("rate must not be negative but was " + rate);
+        }
+    }
+
+    /**
+     * Relative operation weights; they do not have to add up to one.  The defaults are YCSB workload A (50/50 reads
+     * and updates) with a few inserts and scans so every operation is measured.
+     */
+    public record Mix(@DefaultValue("0.45") double read,
+                      @DefaultValue("0.05") double insert,
+                      @DefaultValue("0.45") double update,
+                      @DefaultValue("0.05") double scan) {
+
+        public Mix {
+            if (read < 0 || insert < 0 || update < 0 || scan < 0 || read + insert + update + scan <= 0) {
+                throw new IllegalArgumentException("mix weights must be non-negative and not all zero");
+            }
+        }
+
+        /**
+         * Maps {@code u}, uniform in {@code [0, 1)}, to an operation in proportion to the weights.
+         */
+        public Operation choose(double u) {
+            double point = u * (read + insert + update + scan);
+
+            if (point < read) {
+                return Operation.READ;
+            }
+            if (point < read + insert) {
+                return Operation.INSERT;
+            }
+            if (point < read + insert + update) {
+                return Operation.UPDATE;
+            }
+            return scan > 0 ? Operation.SCAN : Operation.UPDATE;
+        }
+    }
+}
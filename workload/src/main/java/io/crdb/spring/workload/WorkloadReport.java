@@ -0,0 +1,77 @@
+package io.crdb.spring.workload;
+
+import org.HdrHistogram.Histogram;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Result of one {@link WorkloadDriver} run.  Latencies are in microseconds and only cover successful operations.
+ *
+ * @param target     name of the {@link WorkloadTarget}
+ * @param elapsed    length of the measured interval, excluding warmup
+ * @param operations statistics for each operation that ran
+ */
+public record WorkloadReport(String target, Duration elapsed, Map<Operation, OperationStats> operations) {
+
+    public WorkloadReport {
+        operations = Map.copyOf(operations);
+    }
+
+    /**
+     * Successful operations per second across the whole mix.
+     */
+    public double throughput() {
+        return operations.values().stream().mapToDouble(OperationStats::throughput).sum();
+    }
+
+    public long errors() {
+        return operations.values().stream().mapToLong(OperationStats::errors).sum();
+    }
+
+    /**
+     * Formats the report as a table with one row per operation.
+     */
+    public String format() {
+        StringBuilder sb = new StringBuilder();
+
+        sb.append(String.format("workload against %s for %.1f s, %.1f ops/s, %d errors%n",
+                target, elapsed.toMillis() / 1000.0, throughput(), errors()));
+        sb.append(String.format("%-8s%12s%12s%10s%10s%10s%10s%12s%12s%n",
+                "op", "ops/s", "count", "errors", "p50 us", "p95 us", "p99 us", "p99.9 us", "max us"));
+
+        for (Operation operation : Operation.values()) {
+            OperationStats stats = operations.get(operation);
+
+            if (stats != null) {
+                sb.append(String.format("%-8s%12.1f%12d%10d%10d%10d%10d%12d%12d%n",
+                        operation, stats.throughput(), stats.count(), stats.errors(),
+                        stats.p50(), stats.p95(), stats.p99(), stats.p999(), stats.max()));
+            }
+        }
+
+        return sb.toString();
+    }
+
+    /**
+     * @param count      successful operations
+     * @param errors     operations that threw
+     * @param throughput successful operations per second
+     */
+    public record OperationStats(long count, long errors, double throughput, long p50, long p95, long p99, long p999, long max) {
+
+        static OperationStats of(Histogram histogram, long errors, Duration elapsed) {
+            double seconds = Math.max(elapsed.toNanos(), 1) / 1e9;
+
+            return new OperationStats(
+                    histogram.getTotalCount(),
+                    errors,
+                    histogram.getTotalCount() / seconds,
+                    histogram.getValueAtPercentile(50),
+                    histogram.getValueAtPercentile(95),
+                    histogram.getValueAtPercentile(99),
+                    histogram.getValueAtPercentile(99.9),
+                    histogram.getMaxValue());
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package io.crdb.spring.workload;
+
+import io.crdb.spring.common.UserDTOBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+@Component
+@Profile("workload")
+public class WorkloadRunner implements ApplicationRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(WorkloadRunner.class);
+
+    private final WorkloadDriver workloadDriver;
+    private final WorkloadTarget workloadTarget;
+    private final UserDTOBuilder userDTOBuilder;
+
+    public WorkloadRunner(WorkloadDriver workloadDriver, WorkloadTarget workloadTarget, UserDTOBuilder userDTOBuilder) {
+        this.workloadDriver = workloadDriver;
+        this.workloadTarget = workloadTarget;
+        this.userDTOBuilder = userDTOBuilder;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        // the seeded generator is thread safe, and with demo.generator.seed set every run loads and inserts the same ids and values
+        WorkloadReport report = workloadDriver.run(workloadTarget, userDTOBuilder::nextUser);
+
+        logger.info("\n{}", report.format());
+    }
+}
@@ -0,0 +1,41 @@
+package io.crdb.spring.workload;
+
+import io.crdb.spring.common.UserDTO;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * One module's service layer, seen by {@link WorkloadDriver}.  Each method is a single operation of the mix and should
+ * go through the same service methods (transactions, retries) the application uses.  Implementations are called
+ * from many threads.
+ */
+public interface WorkloadTarget {
+
+    /**
+     * Name used in the report, e.g. the module name.
+     */
+    String name();
+
+    /**
+     * Loads the initial rows before the run.  Not measured.
+     */
+    void load(List<UserDTO> users);
+
+    void insert(UserDTO user);
+
+    /**
+     * @return whether the user was found
+     */
+    boolean read(UUID id);
+
+    /**
+     * @return whether the user was found and updated
+     */
+    boolean update(UUID id);
+
+    /**
+     * @return number of users returned
+     */
+    int scan(UUID after, int limit);
+}
@@ -0,0 +1,59 @@
+package io.crdb.spring.workload;
+
+import java.util.SplittableRandom;
+
+/**
+ * Zipfian rank generator from Gray et al., "Quickly Generating Billion-Record Synthetic Databases", as used by YCSB.
+ * Rank {@code 0} is the most popular.  The key count grows as the workload inserts, so the zeta constant is extended
+ * incrementally instead of being recomputed.
+ */
+final class ZipfianChooser implements KeyChooser {
+
+    static final double THETA = 0.99;
+
+    private static final double ALPHA = 1.0 / (1.0 - THETA);
+    private static final double ZETA_2 = 1.0 + Math.pow(0.5, THETA);
+
+    private int items;
+    private double zetaN;
+    private double eta;
+
+    @Override
+    public int next(SplittableRandom random, int count) {
+        if (count <= 1) {
+            return 0;
+        }
+
+        if (count != items) {
+            resize(count);
+        }
+
+        double u = random.nextDouble();
+        double uz = u * zetaN;
+
+        if (uz < 1.0) {
+            return 0;
+        }
+
+        if (uz < ZETA_2) {
+            return 1;
+        }
+
+        int rank = (int) (items * Math.pow(eta * u - eta + 1, ALPHA));
+        return Math.min(rank, items - 1);
+    }
+
+    private void resize(int count) {
+        if (count < items) {
+            items = 0;
+            zetaN = 0;
+        }
+
+        for (int i = items + 1; i <= count; i++) {
+            zetaN += 1.0 / Math.pow(i, THETA);
+        }
+
+        items = count;
+        eta = (1 - Math.pow(2.0 / items, 1 - THETA)) / (1 - ZETA_2 / zetaN);
+    }
+}
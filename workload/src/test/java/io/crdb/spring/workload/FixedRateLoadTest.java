@@ -0,0 +1,105 @@
+package io.crdb.spring.workload;
+
+import org.HdrHistogram.EncodableHistogram;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.HistogramLogReader;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.FileNotFoundException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FixedRateLoadTest {
+
+    @Test
+    @DisplayName("Should issue requests at the configured rate")
+    void shouldIssueRequestsAtConfiguredRate() {
+        AtomicInteger requests = new AtomicInteger();
+
+        LatencySummary summary = new FixedRateLoad("steady", 500, Duration.ofMillis(400), 4).run(requests::incrementAndGet);
+
+        assertEquals(200, requests.get(), 2);
+        assertEquals(requests.get(), summary.count());
+        assertEquals(0, summary.errors());
+        assertTrue(summary.p50() <= summary.p99() && summary.p99() <= summary.p999() && summary.p999() <= summary.max());
+    }
+
+    @Test
+    @DisplayName("Should include queueing delay when the target cannot keep up")
+    void shouldIncludeQueueingDelay() {
+        // one thread taking 10 ms per request cannot sustain 500 requests/s, so each request starts later than the last
+        LatencySummary summary = new FixedRateLoad("stalled", 500, Duration.ofMillis(300), 1).run(() -> sleep(10));
+
+        assertTrue(summary.uncorrectedMax() < TimeUnit.MILLISECONDS.toMicros(50), summary::format);
+        assertTrue(summary.max() > TimeUnit.MILLISECONDS.toMicros(100), summary::format);
+        assertTrue(summary.p99() > summary.uncorrectedP99());
+    }
+
+    @Test
+    @DisplayName("Should count failed requests as errors")
+    void shouldCountFailedRequestsAsErrors() {
+        AtomicInteger requests = new AtomicInteger();
+
+        LatencySummary summary = new FixedRateLoad("failing", 200, Duration.ofMillis(200), 2).run(() -> {
+            if (requests.incrementAndGet() % 2 == 0) {
+                throw new IllegalStateException("restart transaction");
+            }
+        });
+
+        assertEquals(requests.get(), summary.count() + summary.errors());
+        assertTrue(summary.errors() > 0);
+    }
+
+    @Test
+    @DisplayName("Should write interval histograms to an HdrHistogram log")
+    void shouldWriteHistogramLog(@TempDir Path dir) throws FileNotFoundException {
+        Path log = dir.resolve("load.hlog");
+
+        LatencySummary summary = new FixedRateLoad("logged", 1000, Duration.ofMillis(500), 2, log, Duration.ofMillis(100)).run(() -> {
+        });
+
+        HistogramLogReader reader = new HistogramLogReader(log.toFile());
+        long recorded = 0;
+        int intervals = 0;
+
+        for (EncodableHistogram interval = reader.nextIntervalHistogram(); interval != null; interval = reader.nextIntervalHistogram()) {
+            recorded += ((Histogram) interval).getTotalCount();
+            intervals++;
+        }
+
+        assertEquals(summary.count(), recorded);
+        assertTrue(intervals >= 3, "expected one interval per 100 ms but got " + intervals);
+    }
+
+    @Test
+    @DisplayName("Should reject non-positive rates")
+    void shouldRejectNonPositiveRates() {
+        assertThrows(IllegalArgumentException.class, () -> new FixedRateSchedule(0));
+        assertThrows(IllegalArgumentException.class, () -> new FixedRateSchedule(Double.NaN));
+    }
+
+    @Test
+    @DisplayName("Should space intended start times evenly")
+    void shouldSpaceIntendedStartTimesEvenly() {
+        FixedRateSchedule schedule = new FixedRateSchedule(1000);
+        schedule.start(0);
+
+        assertEquals(0, schedule.next());
+        assertEquals(1_000_000, schedule.next());
+        assertEquals(2_000_000, schedule.next());
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
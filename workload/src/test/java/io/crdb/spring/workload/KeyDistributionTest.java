@@ -0,0 +1,87 @@
+package io.crdb.spring.workload;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class KeyDistributionTest {
+
+    private static final int SAMPLES = 100_000;
+
+    @ParameterizedTest
+    @EnumSource(KeyDistribution.class)
+    @DisplayName("Should only choose existing keys")
+    void shouldOnlyChooseExistingKeys(KeyDistribution distribution) {
+        KeyChooser chooser = distribution.chooser();
+        SplittableRandom random = new SplittableRandom(1);
+
+        for (int count = 1; count < 2_000; count += 7) {
+            int index = chooser.next(random, count);
+            assertTrue(index >= 0 && index < count, () -> distribution + " chose " + index);
+        }
+    }
+
+    @Test
+    @DisplayName("Should favour the first keys when zipfian")
+    void shouldFavourFirstKeysWhenZipfian() {
+        int[] hits = sample(KeyDistribution.ZIPFIAN, 10_000);
+
+        // with theta 0.99 the top 1% of 10,000 keys get roughly half the requests
+        assertTrue(sum(hits, 0, 100) > SAMPLES * 0.4, "top keys were not hot");
+        assertTrue(hits[0] > hits[1] && hits[1] > hits[10]);
+    }
+
+    @Test
+    @DisplayName("Should favour the last keys when latest")
+    void shouldFavourLastKeysWhenLatest() {
+        int[] hits = sample(KeyDistribution.LATEST, 10_000);
+
+        assertTrue(sum(hits, 9_900, 10_000) > SAMPLES * 0.4, "latest keys were not hot");
+    }
+
+    @Test
+    @DisplayName("Should spread uniform choices evenly")
+    void shouldSpreadUniformChoicesEvenly() {
+        int[] hits = sample(KeyDistribution.UNIFORM, 10);
+
+        for (int hit : hits) {
+            assertEquals(SAMPLES / 10.0, hit, SAMPLES * 0.01);
+        }
+    }
+
+    @Test
+    @DisplayName("Should keep choosing valid keys as the key space grows")
+    void shouldKeepChoosingValidKeysAsKeySpaceGrows() {
+        ZipfianChooser chooser = new ZipfianChooser();
+        SplittableRandom random = new SplittableRandom(3);
+
+        for (int count = 100; count < 10_000; count++) {
+            assertTrue(chooser.next(random, count) < count);
+        }
+    }
+
+    private static int[] sample(KeyDistribution distribution, int count) {
+        KeyChooser chooser = distribution.chooser();
+        SplittableRandom random = new SplittableRandom(2);
+        int[] hits = new int[count];
+
+        for (int i = 0; i < SAMPLES; i++) {
+            hits[chooser.next(random, count)]++;
+        }
+
+        return hits;
+    }
+
+    private static int sum(int[] hits, int from, int to) {
+        int sum = 0;
+        for (int i = from; i < to; i++) {
+            sum += hits[i];
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,148 @@
+package io.crdb.spring.workload;
+
+import io.crdb.spring.common.UserDTO;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WorkloadDriverTest {
+
+    private static final Supplier<UserDTO> USERS = () -> new UserDTO(UUID.randomUUID(), "Jane", "Doe", "jane@example.com",
+            "1 Main St", "Springfield", "IL", "62701", ZonedDateTime.now(), null);
+
+    @Test
+    @DisplayName("Should run every operation of the mix and report it")
+    void shouldRunEveryOperation() {
+        InMemoryTarget target = new InMemoryTarget();
+
+        WorkloadReport report = new WorkloadDriver(properties(new WorkloadProperties.Mix(0.4, 0.2, 0.3, 0.1))).run(target, USERS);
+
+        assertEquals("in-memory", report.target());
+        // inserts during warmup are not in the report
+        assertTrue(target.users.size() >= 100 + report.operations().get(Operation.INSERT).count());
+        assertEquals(0, report.errors());
+        assertTrue(report.throughput() > 0);
+
+        for (Operation operation : Operation.values()) {
+            WorkloadReport.OperationStats stats = report.operations().get(operation);
+            assertNotNull(stats, operation::name);
+            assertTrue(stats.count() > 0);
+            assertTrue(stats.p50() <= stats.p99() && stats.p99() <= stats.max());
+        }
+
+        assertTrue(target.misses.isEmpty(), "reads and updates should only pick loaded or inserted keys");
+        assertTrue(report.format().contains("READ"));
+    }
+
+    @Test
+    @DisplayName("Should count failed operations as errors")
+    void shouldCountFailedOperationsAsErrors() {
+        InMemoryTarget target = new InMemoryTarget() {
+            @Override
+            public boolean update(UUID id) {
+                throw new IllegalStateException("restart transaction");
+            }
+        };
+
+        WorkloadReport report = new WorkloadDriver(properties(new WorkloadProperties.Mix(0.5, 0, 0.5, 0))).run(target, USERS);
+
+        WorkloadReport.OperationStats updates = report.operations().get(Operation.UPDATE);
+
+        assertEquals(0, updates.count());
+        assertTrue(updates.errors() > 0);
+        assertFalse(report.operations().containsKey(Operation.SCAN));
+    }
+
+    @Test
+    @DisplayName("Should choose operations in proportion to the mix")
+    void shouldChooseOperationsInProportionToMix() {
+        WorkloadProperties.Mix mix = new WorkloadProperties.Mix(3, 1, 0, 0);
+
+        assertEquals(Operation.READ, mix.choose(0.0));
+        assertEquals(Operation.READ, mix.choose(0.74));
+        assertEquals(Operation.INSERT, mix.choose(0.76));
+        assertThrows(IllegalArgumentException.class, () -> new WorkloadProperties.Mix(0, 0, 0, 0));
+    }
+
+    @Test
+    @DisplayName("Should pace operations at the configured rate when open loop")
+    void shouldPaceOperationsWhenOpenLoop(@TempDir Path dir) throws Exception {
+        Path log = dir.resolve("workload.hlog");
+        WorkloadProperties properties = new WorkloadProperties(new WorkloadProperties.Mix(1, 0, 0, 0), KeyDistribution.UNIFORM,
+                2, 100, Duration.ZERO, Duration.ofMillis(500), 10, 7, 200, log);
+
+        WorkloadReport report = new WorkloadDriver(properties).run(new InMemoryTarget(), USERS);
+
+        assertEquals(200, report.throughput(), 40);
+        assertTrue(Files.readString(log).contains("Tag=READ"));
+    }
+
+    private static WorkloadProperties properties(WorkloadProperties.Mix mix) {
+        return new WorkloadProperties(mix, KeyDistribution.ZIPFIAN, 4, 100, Duration.ofMillis(50), Duration.ofMillis(250), 10, 7, 0, null);
+    }
+
+    static class InMemoryTarget implements WorkloadTarget {
+
+        final Map<UUID, UserDTO> users = new ConcurrentSkipListMap<>();
+        final Map<UUID, Boolean> misses = new ConcurrentHashMap<>();
+
+        @Override
+        public String name() {
+            return "in-memory";
+        }
+
+        @Override
+        public void load(List<UserDTO> batch) {
+            batch.forEach(this::insert);
+        }
+
+        @Override
+        public void insert(UserDTO user) {
+            users.put(user.id(), user);
+        }
+
+        @Override
+        public boolean read(UUID id) {
+            return found(id);
+        }
+
+        @Override
+        public boolean update(UUID id) {
+            return found(id);
+        }
+
+        @Override
+        public int scan(UUID after, int limit) {
+            List<UserDTO> page = new ArrayList<>(limit);
+            for (UserDTO user : ((ConcurrentSkipListMap<UUID, UserDTO>) users).tailMap(after, false).values()) {
+                if (page.size() == limit) {
+                    break;
+                }
+                page.add(user);
+            }
+            return page.size();
+        }
+
+        private boolean found(UUID id) {
+            if (users.containsKey(id)) {
+                return true;
+            }
+            misses.put(id, Boolean.TRUE);
+            return false;
+        }
+    }
+}